@@ -0,0 +1,75 @@
+package com.xenosnowfox.addressbook.benchmark;
+
+import com.xenosnowfox.addressbook.controller.AddressBookController;
+import com.xenosnowfox.addressbook.response.CollectionResponse;
+import com.xenosnowfox.addressbook.response.ContactResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures listing the contacts of an address book through
+ * {@link AddressBookController#getContactsFromAddressBook(Integer, WebRequest)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AddressBookControllerBenchmark {
+
+	/**
+	 * Number of contacts in the address book.
+	 */
+	@Param({"1000", "100000", "1000000"})
+	public int contacts;
+
+	private ConfigurableApplicationContext context;
+
+	private AddressBookController addressBookController;
+
+	private Integer addressBookId;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.context = BenchmarkSupport.start();
+		this.addressBookId = BenchmarkSupport.seed(this.context, this.contacts)
+				.getId();
+		this.addressBookController = this.context.getBean(AddressBookController.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.context.close();
+	}
+
+	/**
+	 * Lists the contacts outside of any transaction, as a request does with open-in-view disabled; the service reads
+	 * them within its own read-only transaction.
+	 *
+	 * @return Collection response containing the contacts.
+	 */
+	@Benchmark
+	public CollectionResponse<ContactResponse> getContactsFromAddressBook() {
+		return this.addressBookController.getContactsFromAddressBook(this.addressBookId
+				, new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse()));
+	}
+}
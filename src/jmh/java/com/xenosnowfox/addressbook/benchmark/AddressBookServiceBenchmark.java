@@ -0,0 +1,67 @@
+package com.xenosnowfox.addressbook.benchmark;
+
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.service.AddressBookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures deleting an address book, along with its contacts, through {@link AddressBookService#delete(AddressBook)}.
+ * <p>
+ * Deletion is destructive, so each iteration deletes a single, freshly seeded, address book.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class AddressBookServiceBenchmark {
+
+	/**
+	 * Number of contacts in the address book being deleted.
+	 */
+	@Param({"1000", "100000", "1000000"})
+	public int contacts;
+
+	private ConfigurableApplicationContext context;
+
+	private AddressBookService addressBookService;
+
+	private AddressBook addressBook;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.context = BenchmarkSupport.start();
+		this.addressBookService = this.context.getBean(AddressBookService.class);
+	}
+
+	@Setup(Level.Iteration)
+	public void seed() {
+		this.addressBook = BenchmarkSupport.seed(this.context, this.contacts);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public void delete() {
+		this.addressBookService.delete(this.addressBook);
+	}
+}
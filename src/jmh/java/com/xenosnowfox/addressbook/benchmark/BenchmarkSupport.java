@@ -0,0 +1,112 @@
+package com.xenosnowfox.addressbook.benchmark;
+
+import com.xenosnowfox.addressbook.Application;
+import com.xenosnowfox.addressbook.InjectorUtil;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import lombok.experimental.UtilityClass;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.UUID;
+
+/**
+ * Helper methods for starting the application and seeding it with data, shared by the benchmarks.
+ */
+@UtilityClass
+public class BenchmarkSupport {
+
+	/**
+	 * Number of contacts persisted per transaction whilst seeding, after which the persistence context is cleared.
+	 */
+	private final int SEED_CHUNK_SIZE = 1000;
+
+	/**
+	 * Starts the application, without a web server or API documentation, against its own empty in-memory database.
+	 *
+	 * @param withProperties
+	 * 		Additional properties, in the form {@code key=value}.
+	 * @return Application context.
+	 */
+	public ConfigurableApplicationContext start(final String... withProperties) {
+		return start(WebApplicationType.NONE, withProperties);
+	}
+
+	/**
+	 * Starts the application, with a web server listening on a random port but without API documentation, against its
+	 * own empty in-memory database.
+	 *
+	 * @param withProperties
+	 * 		Additional properties, in the form {@code key=value}.
+	 * @return Application context.
+	 */
+	public ConfigurableApplicationContext startServer(final String... withProperties) {
+		return start(WebApplicationType.SERVLET, withProperties);
+	}
+
+	private ConfigurableApplicationContext start(final WebApplicationType withWebApplicationType
+			, final String... withProperties) {
+		return new SpringApplicationBuilder(Application.class)
+				.web(withWebApplicationType)
+				.logStartupInfo(false)
+				.properties(
+						"spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID()
+						, "spring.jpa.properties.hibernate.generate_statistics=false"
+						, "springdoc.api-docs.enabled=false"
+						, "server.port=0"
+						, "logging.level.root=WARN"
+				)
+				.properties(withProperties)
+				.run();
+	}
+
+	/**
+	 * Creates a template for read-only transactions, used to stand in for the session a request would hold open.
+	 *
+	 * @param withContext
+	 * 		Application context.
+	 * @return Transaction template.
+	 */
+	public TransactionTemplate readOnlyTransactionTemplate(final ConfigurableApplicationContext withContext) {
+		final TransactionTemplate transactionTemplate = new TransactionTemplate(
+				withContext.getBean(PlatformTransactionManager.class));
+		transactionTemplate.setReadOnly(true);
+		return transactionTemplate;
+	}
+
+	/**
+	 * Creates an address book containing the specified number of randomly generated contacts.
+	 *
+	 * @param withContext
+	 * 		Application context to seed.
+	 * @param withContacts
+	 * 		Number of contacts to generate.
+	 * @return Newly created address book.
+	 */
+	public AddressBook seed(final ConfigurableApplicationContext withContext, final int withContacts) {
+		final AddressBookRepository addressBookRepository = withContext.getBean(AddressBookRepository.class);
+		final ContactRepository contactRepository = withContext.getBean(ContactRepository.class);
+		final TransactionTemplate transactionTemplate = withContext.getBean(TransactionTemplate.class);
+		final EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+				withContext.getBean(EntityManagerFactory.class));
+
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(addressBookRepository);
+		for (int seeded = 0; seeded < withContacts; seeded += SEED_CHUNK_SIZE) {
+			final int total = Math.min(SEED_CHUNK_SIZE, withContacts - seeded);
+			transactionTemplate.executeWithoutResult(status -> {
+				InjectorUtil.injectRandomContacts(contactRepository, total
+						, entityManager.getReference(AddressBook.class, addressBook.getId()));
+				entityManager.flush();
+				entityManager.clear();
+			});
+		}
+		return addressBook;
+	}
+}
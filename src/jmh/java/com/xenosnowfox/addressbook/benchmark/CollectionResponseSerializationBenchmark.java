@@ -0,0 +1,142 @@
+package com.xenosnowfox.addressbook.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.xenosnowfox.addressbook.InjectorUtil;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.response.CollectionResponse;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Measures serializing a {@link CollectionResponse} of contacts to each of the supported formats, optionally gzip
+ * compressed, without involving the database. The size of the serialized response is reported as the {@code bytes}
+ * secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CollectionResponseSerializationBenchmark {
+
+	/**
+	 * Number of contacts in the response.
+	 */
+	@Param({"1000", "100000", "1000000"})
+	public int contacts;
+
+	/**
+	 * Format the response is serialized to, either {@code json}, {@code smile} or {@code cbor}.
+	 */
+	@Param({"json", "smile", "cbor"})
+	public String format;
+
+	/**
+	 * Whether the serialized response is {@code gzip} compressed, or {@code none}.
+	 */
+	@Param({"none", "gzip"})
+	public String compression;
+
+	private ObjectMapper objectMapper;
+
+	private CollectionResponse<Contact> response;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		// configured the same way as the object mapper used by the application
+		this.objectMapper = Jackson2ObjectMapperBuilder.json()
+				.factory(factory(this.format))
+				.build();
+
+		final AddressBook addressBook = new AddressBook("Benchmark");
+		final List<Contact> items = IntStream.range(0, this.contacts)
+				.mapToObj(i -> new Contact(InjectorUtil.generateRandomContactName()
+						, InjectorUtil.generateRandomPhoneNumbers(), addressBook))
+				.collect(Collectors.toList());
+		this.response = new CollectionResponse<>(items);
+	}
+
+	/**
+	 * Serializes the response, counting but otherwise discarding the output so that only the cost of serialization and
+	 * compression is measured.
+	 *
+	 * @param withPayload
+	 * 		Counter that the size of the serialized response is recorded in.
+	 * @throws IOException
+	 * 		never, as the output is discarded.
+	 */
+	@Benchmark
+	public void serialize(final Payload withPayload) throws IOException {
+		final CountingOutputStream counter = new CountingOutputStream();
+		try (final OutputStream outputStream = "gzip".equals(this.compression)
+				? new GZIPOutputStream(counter)
+				: counter) {
+			this.objectMapper.writeValue(outputStream, this.response);
+		}
+		withPayload.bytes = counter.count;
+	}
+
+	private static JsonFactory factory(final String withFormat) {
+		switch (withFormat) {
+			case "smile":
+				return new SmileFactory();
+			case "cbor":
+				return new CBORFactory();
+			default:
+				return new JsonFactory();
+		}
+	}
+
+	/**
+	 * Secondary result recording the size, in bytes, of the most recently serialized response.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Payload {
+
+		public long bytes;
+	}
+
+	/**
+	 * Output stream that discards everything written to it, other than its length.
+	 */
+	private static class CountingOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(final int withByte) {
+			this.count++;
+		}
+
+		@Override
+		public void write(final byte[] withBytes, final int withOffset, final int withLength) {
+			this.count += withLength;
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package com.xenosnowfox.addressbook.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long the application takes to serve a burst of concurrent requests, each on its own connection, when
+ * requests are handled by Tomcat's pool of platform threads compared to virtual threads.
+ * <p>
+ * The {@code virtual} mode requires a Java 21 or later runtime, and the client needs a file descriptor limit above the
+ * number of concurrent requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class ConcurrentRequestBenchmark {
+
+	/**
+	 * Threads that requests are handled on, either {@code platform} or {@code virtual}.
+	 */
+	@Param({"platform", "virtual"})
+	public String threads;
+
+	/**
+	 * Number of requests in flight at once.
+	 */
+	@Param({"10000"})
+	public int concurrency;
+
+	/**
+	 * Number of contacts in the address book listed by each request.
+	 */
+	@Param({"100"})
+	public int contacts;
+
+	private ConfigurableApplicationContext context;
+
+	private ExecutorService clientExecutor;
+
+	private HttpClient httpClient;
+
+	private HttpRequest request;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.context = BenchmarkSupport.startServer(
+				"addressbook.virtual-threads.enabled=" + "virtual".equals(this.threads)
+				, "server.tomcat.max-connections=" + (this.concurrency + 1000)
+				, "server.tomcat.accept-count=" + this.concurrency
+		);
+		final Integer addressBookId = BenchmarkSupport.seed(this.context, this.contacts)
+				.getId();
+
+		this.clientExecutor = Executors.newCachedThreadPool();
+		this.httpClient = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(this.clientExecutor)
+				.build();
+		this.request = HttpRequest.newBuilder(URI.create("http://localhost:"
+				+ this.context.getEnvironment()
+				.getProperty("local.server.port") + "/addressbooks/" + addressBookId + "/contacts"))
+				.GET()
+				.build();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.clientExecutor.shutdownNow();
+		this.context.close();
+	}
+
+	/**
+	 * Sends every request at once and waits for all of the responses.
+	 *
+	 * @return Number of successful responses.
+	 */
+	@Benchmark
+	public long listContactsConcurrently() {
+		final CompletableFuture<?>[] responses = new CompletableFuture<?>[this.concurrency];
+		for (int i = 0; i < this.concurrency; i++) {
+			responses[i] = this.httpClient.sendAsync(this.request, HttpResponse.BodyHandlers.discarding());
+		}
+		CompletableFuture.allOf(responses)
+				.join();
+
+		long successful = 0;
+		for (CompletableFuture<?> response : responses) {
+			if (((HttpResponse<?>) response.join()).statusCode() == 200) {
+				successful++;
+			}
+		}
+		if (successful != this.concurrency) {
+			throw new IllegalStateException((this.concurrency - successful) + " of " + this.concurrency
+					+ " requests failed.");
+		}
+		return successful;
+	}
+}
@@ -0,0 +1,98 @@
+package com.xenosnowfox.addressbook.benchmark;
+
+import com.xenosnowfox.addressbook.response.ContactSuggestionResponse;
+import com.xenosnowfox.addressbook.service.ContactSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures type-ahead suggestions through {@link ContactSearchIndex#suggest(String, Integer, int)}, both across every
+ * contact and within an address book of only a few contacts, alongside a large address book.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ContactSearchIndexBenchmark {
+
+	/**
+	 * Single letter prefix, which matches a large share of the contacts in the large address book, but few, if any,
+	 * in the small one.
+	 */
+	private static final String PREFIX = "q";
+
+	/**
+	 * Number of suggestions requested.
+	 */
+	private static final int LIMIT = 10;
+
+	/**
+	 * Number of contacts in the large address book.
+	 */
+	@Param({"1000", "100000", "1000000"})
+	public int contacts;
+
+	/**
+	 * Number of contacts in the small address book.
+	 */
+	@Param({"20"})
+	public int smallAddressBookContacts;
+
+	private ConfigurableApplicationContext context;
+
+	private ContactSearchIndex contactSearchIndex;
+
+	private Integer smallAddressBookId;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.context = BenchmarkSupport.start();
+		BenchmarkSupport.seed(this.context, this.contacts);
+		this.smallAddressBookId = BenchmarkSupport.seed(this.context, this.smallAddressBookContacts)
+				.getId();
+		this.contactSearchIndex = this.context.getBean(ContactSearchIndex.class);
+		this.contactSearchIndex.rebuild();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.context.close();
+	}
+
+	/**
+	 * Suggests contacts from across every address book.
+	 *
+	 * @return Suggestions.
+	 */
+	@Benchmark
+	public List<ContactSuggestionResponse> suggest() {
+		return this.contactSearchIndex.suggest(PREFIX, null, LIMIT);
+	}
+
+	/**
+	 * Suggests contacts from within the small address book only.
+	 *
+	 * @return Suggestions.
+	 */
+	@Benchmark
+	public List<ContactSuggestionResponse> suggestWithinSmallAddressBook() {
+		return this.contactSearchIndex.suggest(PREFIX, this.smallAddressBookId, LIMIT);
+	}
+}
@@ -0,0 +1,69 @@
+package com.xenosnowfox.addressbook.benchmark;
+
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.service.ContactService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading every contact through {@link ContactService#findAll()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ContactServiceBenchmark {
+
+	/**
+	 * Number of contacts in the database.
+	 */
+	@Param({"1000", "100000", "1000000"})
+	public int contacts;
+
+	private ConfigurableApplicationContext context;
+
+	private ContactService contactService;
+
+	private TransactionTemplate transactionTemplate;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.context = BenchmarkSupport.start();
+		BenchmarkSupport.seed(this.context, this.contacts);
+		this.contactService = this.context.getBean(ContactService.class);
+		this.transactionTemplate = BenchmarkSupport.readOnlyTransactionTemplate(this.context);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.context.close();
+	}
+
+	/**
+	 * Loads every contact entity within a read-only transaction.
+	 *
+	 * @return Every contact.
+	 */
+	@Benchmark
+	public Set<Contact> findAll() {
+		return this.transactionTemplate.execute(status -> this.contactService.findAll());
+	}
+}
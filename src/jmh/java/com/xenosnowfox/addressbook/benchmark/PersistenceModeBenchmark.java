@@ -0,0 +1,105 @@
+package com.xenosnowfox.addressbook.benchmark;
+
+import com.xenosnowfox.addressbook.InjectorUtil;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the default in-memory database with the file-backed {@code file} profile, measuring the throughput of
+ * contacts written one transaction at a time and the time taken to stop and start the application.
+ * <p>
+ * An in-memory database starts empty after every restart, so its restart time excludes reopening any existing data.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PersistenceModeBenchmark {
+
+	/**
+	 * Where the database is kept, either {@code memory} or {@code file}.
+	 */
+	@Param({"memory", "file"})
+	public String mode;
+
+	/**
+	 * Number of contacts in the database before measuring.
+	 */
+	@Param({"100000"})
+	public int contacts;
+
+	private Path directory;
+
+	private ConfigurableApplicationContext context;
+
+	private AddressBook addressBook;
+
+	private ContactRepository contactRepository;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("benchmark-");
+		this.context = this.start();
+		this.addressBook = BenchmarkSupport.seed(this.context, this.contacts);
+		this.contactRepository = this.context.getBean(ContactRepository.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		this.context.close();
+		FileSystemUtils.deleteRecursively(this.directory);
+	}
+
+	/**
+	 * Persists a single contact, committing it in its own transaction.
+	 *
+	 * @return Newly persisted contact.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	public Contact insertContact() {
+		return InjectorUtil.injectRandomContact(this.contactRepository, this.addressBook);
+	}
+
+	/**
+	 * Stops the application and starts it again against the same database.
+	 *
+	 * @return Restarted application context.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	public ConfigurableApplicationContext restart() {
+		this.context.close();
+		this.context = this.start();
+		return this.context;
+	}
+
+	private ConfigurableApplicationContext start() {
+		if ("file".equals(this.mode)) {
+			return BenchmarkSupport.start("spring.profiles.active=file", "addressbook.h2.directory=" + this.directory);
+		}
+		return BenchmarkSupport.start();
+	}
+}
@@ -2,9 +2,12 @@ package com.xenosnowfox.addressbook;
 
 import com.xenosnowfox.addressbook.exception.AddressBookNotFoundException;
 import com.xenosnowfox.addressbook.exception.ContactNotFoundException;
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
+import com.xenosnowfox.addressbook.exception.PreconditionFailedException;
 import com.xenosnowfox.addressbook.response.ErrorResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -26,4 +29,30 @@ public class GlobalExceptionHandler {
 		ErrorResponse errorResponse = new ErrorResponse(HttpStatus.NOT_FOUND.value(), "Contact not found.");
 		return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
 	}
+
+	@ExceptionHandler(InvalidRequestException.class)
+	public ResponseEntity<ErrorResponse> invalidRequestException(
+			final InvalidRequestException withException
+	) {
+		ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), withException.getMessage());
+		return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+	}
+
+	@ExceptionHandler(PreconditionFailedException.class)
+	public ResponseEntity<ErrorResponse> preconditionFailedException(
+			final PreconditionFailedException withException
+	) {
+		ErrorResponse errorResponse = new ErrorResponse(HttpStatus.PRECONDITION_FAILED.value()
+				, withException.getMessage());
+		return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+	}
+
+	@ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+	public ResponseEntity<ErrorResponse> optimisticLockingFailureException(
+			final ObjectOptimisticLockingFailureException withException
+	) {
+		ErrorResponse errorResponse = new ErrorResponse(HttpStatus.CONFLICT.value()
+				, "The resource was modified by another request.");
+		return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+	}
 }
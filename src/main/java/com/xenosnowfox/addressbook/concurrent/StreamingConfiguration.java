@@ -0,0 +1,65 @@
+package com.xenosnowfox.addressbook.concurrent;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs the writing of streamed responses on a dedicated, bounded pool of threads.
+ * <p>
+ * Spring MVC releases the request thread as soon as a controller returns a {@code Flux}, but writes each item that
+ * the flux emits to the response with blocking I/O, on its asynchronous task executor; by default Spring Boot's general
+ * purpose pool of 8 threads. A slow client therefore holds one of those threads for as long as a write to it blocks.
+ * This pool is sized for streaming instead, and bounds how many responses are written at once to
+ * {@code addressbook.streaming.threads}, with at most {@code addressbook.streaming.queue-capacity} more waiting for a
+ * thread; beyond that, further writes are rejected and their responses fail.
+ * <p>
+ * Replaced by the virtual thread executor when {@code addressbook.virtual-threads.enabled=true}, where a blocked write
+ * does not hold a platform thread.
+ */
+@Configuration
+@ConditionalOnProperty(name = "addressbook.virtual-threads.enabled", havingValue = "false", matchIfMissing = true)
+public class StreamingConfiguration implements WebMvcConfigurer {
+
+	/**
+	 * Name of the executor that streamed responses are written on.
+	 */
+	public static final String STREAMING_TASK_EXECUTOR_BEAN_NAME = "streamingTaskExecutor";
+
+	/**
+	 * Number of threads, and so of responses that can be written at once.
+	 */
+	@Value("${addressbook.streaming.threads:16}")
+	private int threads;
+
+	/**
+	 * Number of writes that can wait for a thread before further writes are rejected.
+	 */
+	@Value("${addressbook.streaming.queue-capacity:1000}")
+	private int queueCapacity;
+
+	/**
+	 * Creates the executor that streamed responses are written on.
+	 *
+	 * @return Task executor.
+	 */
+	@Bean(name = STREAMING_TASK_EXECUTOR_BEAN_NAME)
+	public ThreadPoolTaskExecutor streamingTaskExecutor() {
+		final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(this.threads);
+		executor.setMaxPoolSize(this.threads);
+		executor.setQueueCapacity(this.queueCapacity);
+		executor.setThreadNamePrefix("streaming-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		return executor;
+	}
+
+	@Override
+	public void configureAsyncSupport(final AsyncSupportConfigurer withConfigurer) {
+		withConfigurer.setTaskExecutor(this.streamingTaskExecutor());
+	}
+}
@@ -0,0 +1,47 @@
+package com.xenosnowfox.addressbook.concurrent;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+/**
+ * Runs request handling, and asynchronous work such as streaming responses, on virtual threads rather than on bounded
+ * pools of platform threads.
+ * <p>
+ * Enabled by setting {@code addressbook.virtual-threads.enabled=true}, which requires a Java 21 or later runtime. The
+ * number of concurrent requests is then bounded by Tomcat's {@code server.tomcat.max-connections}, rather than
+ * {@code server.tomcat.threads.max}, and every request still competes for the connections in the HikariCP pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "addressbook.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+	/**
+	 * Replaces the executor that Tomcat processes requests with.
+	 *
+	 * @return Protocol handler customizer.
+	 */
+	@Bean
+	public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+		return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newExecutor("http-virtual-"));
+	}
+
+	/**
+	 * Replaces the executor that Spring MVC asynchronous requests and {@code @Async} methods are run on.
+	 *
+	 * @return Task executor.
+	 */
+	@Bean(name = {
+			TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME
+			, AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME
+	})
+	public AsyncTaskExecutor applicationTaskExecutor() {
+		return new TaskExecutorAdapter(VirtualThreads.newExecutor("task-virtual-"));
+	}
+}
@@ -0,0 +1,67 @@
+package com.xenosnowfox.addressbook.concurrent;
+
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Helper methods for creating executors backed by virtual threads.
+ * <p>
+ * The application is compiled for Java 11, so the virtual thread API, introduced in Java 21, is looked up reflectively
+ * when the application is running on a Java 21 or later runtime.
+ */
+@UtilityClass
+public class VirtualThreads {
+
+	/**
+	 * Returns whether the running JVM supports virtual threads.
+	 *
+	 * @return {@code true} if virtual threads are supported.
+	 */
+	public boolean isSupported() {
+		try {
+			Thread.class.getMethod("ofVirtual");
+			return true;
+		} catch (NoSuchMethodException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Creates an executor that runs each task on a new virtual thread.
+	 *
+	 * @param withNamePrefix
+	 * 		Prefix of the names of the threads, which are suffixed with an incrementing number.
+	 * @return Executor service.
+	 * @throws IllegalStateException
+	 * 		if the running JVM does not support virtual threads.
+	 */
+	public ExecutorService newExecutor(final String withNamePrefix) {
+		if (!isSupported()) {
+			throw new IllegalStateException("Virtual threads require Java 21 or later, but the application is running "
+					+ "on Java " + Runtime.version()
+					.feature() + ".");
+		}
+
+		try {
+			// equivalent to Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory())
+			final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual")
+					.invoke(null);
+			builder = builderClass.getMethod("name", String.class, long.class)
+					.invoke(builder, withNamePrefix, 0L);
+			final ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory")
+					.invoke(builder);
+			final Method newThreadPerTaskExecutor = Executors.class.getMethod(
+					"newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+		} catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException
+				| InvocationTargetException ex) {
+			throw new IllegalStateException("Unable to create a virtual thread executor.", ex);
+		}
+	}
+}
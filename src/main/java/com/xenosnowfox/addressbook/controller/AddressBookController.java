@@ -1,13 +1,22 @@
 package com.xenosnowfox.addressbook.controller;
 
 import com.xenosnowfox.addressbook.entity.AddressBook;
-import com.xenosnowfox.addressbook.entity.AddressBookContact;
 import com.xenosnowfox.addressbook.entity.Contact;
 import com.xenosnowfox.addressbook.exception.AddressBookNotFoundException;
 import com.xenosnowfox.addressbook.exception.ContactNotFoundException;
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
+import com.xenosnowfox.addressbook.response.AddressBookResponse;
 import com.xenosnowfox.addressbook.response.CollectionResponse;
+import com.xenosnowfox.addressbook.response.ContactResponse;
+import com.xenosnowfox.addressbook.response.ImportResponse;
+import com.xenosnowfox.addressbook.response.MultiGetResponse;
+import com.xenosnowfox.addressbook.serialization.BinaryFormatConfiguration;
 import com.xenosnowfox.addressbook.service.AddressBookService;
+import com.xenosnowfox.addressbook.service.ContactImportService;
 import com.xenosnowfox.addressbook.service.ContactService;
+import com.xenosnowfox.addressbook.util.ETagUtil;
+import com.xenosnowfox.addressbook.util.IdentifierUtil;
+import com.xenosnowfox.addressbook.util.PaginationUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,11 +28,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
-import java.util.Collection;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.SortedSet;
 
 /**
  * Rest endpoints for managing an address book.
@@ -38,21 +51,70 @@ public class AddressBookController {
 	@Autowired
 	private ContactService contactService;
 
+	@Autowired
+	private ContactImportService contactImportService;
+
 	/**
-	 * API endpoint that returns a collection of address books.
+	 * API endpoint that returns a page of address books.
 	 *
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, if any.
+	 * @param withLimit
+	 * 		Maximum number of address books to return.
 	 * @return Collection response containing address books.
 	 */
-	@GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+	@GetMapping(produces = {
+			MediaType.APPLICATION_JSON_VALUE
+			, BinaryFormatConfiguration.APPLICATION_SMILE_VALUE
+			, MediaType.APPLICATION_CBOR_VALUE
+	})
 	@Operation(
 			method = "GET"
 			, tags = {"Address Book"}
 			, summary = "List all Address Books"
-			, description = "Retrieves a collection of all the address books."
+			, description = "Retrieves a page of address books, ordered by identifier. Pass the returned "
+					+ "`nextCursor` to retrieve the following page."
 			, operationId = "getAllAddressBooks"
 	)
-	public CollectionResponse<AddressBook> getAllAddressBooks() {
-		return new CollectionResponse<>(this.addressBookService.findAll());
+	public CollectionResponse<AddressBookResponse> getAllAddressBooks(
+			@RequestParam(value = "cursor", required = false) final String withCursor
+			, @RequestParam(value = "limit", defaultValue = PaginationUtil.DEFAULT_PAGE_SIZE) final int withLimit
+	) {
+		return CollectionResponse.fromSlice(
+				this.addressBookService.findPage(withCursor, withLimit), this.addressBookService.count()
+				, AddressBookResponse::getId);
+	}
+
+	/**
+	 * API endpoint that returns the address books with the specified identifiers, resolved together rather than with
+	 * one request per address book.
+	 *
+	 * @param withIds
+	 * 		Identifiers of the address books.
+	 * @return Multi-get response containing the address books that exist, and the identifiers of those that do not.
+	 * @throws InvalidRequestException
+	 * 		if no identifiers, or too many identifiers, were specified.
+	 */
+	@GetMapping(params = "ids", produces = {
+			MediaType.APPLICATION_JSON_VALUE
+			, BinaryFormatConfiguration.APPLICATION_SMILE_VALUE
+			, MediaType.APPLICATION_CBOR_VALUE
+	})
+	@Operation(
+			method = "GET"
+			, tags = {"Address Book"}
+			, summary = "Get many Address Books"
+			, description = "Retrieves the address books with the specified `ids`, ordered by identifier, along with "
+					+ "the identifiers that do not exist as `missing`. At most " + IdentifierUtil.MAXIMUM_IDENTIFIERS
+					+ " identifiers can be requested at once."
+			, operationId = "getAddressBooksById"
+	)
+	public MultiGetResponse<AddressBookResponse> getAddressBooksById(
+			@RequestParam(value = "ids") final List<Integer> withIds
+	) {
+		final SortedSet<Integer> identifiers = IdentifierUtil.distinctOf(withIds);
+		return MultiGetResponse.of(identifiers, this.addressBookService.findAllById(identifiers)
+				, AddressBookResponse::getId);
 	}
 
 	/**
@@ -72,8 +134,9 @@ public class AddressBookController {
 			, description = "Retrieves the details about a single address book."
 			, operationId = "getAddressBook"
 	)
-	public AddressBook getAddressBook(@PathVariable("id") final Integer withId) throws AddressBookNotFoundException {
-		return this.addressBookService.findById(withId)
+	public AddressBookResponse getAddressBook(@PathVariable("id") final Integer withId)
+			throws AddressBookNotFoundException {
+		return this.addressBookService.findResponseById(withId)
 				.orElseThrow(AddressBookNotFoundException::new);
 	}
 
@@ -98,7 +161,7 @@ public class AddressBookController {
 	)
 	public ResponseEntity<Void> deleteAddressBook(@PathVariable("id") Integer withId)
 			throws AddressBookNotFoundException {
-		final AddressBook addressBook = this.getAddressBook(withId);
+		final AddressBook addressBook = this.findAddressBook(withId);
 		this.addressBookService.delete(addressBook);
 		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 	}
@@ -118,16 +181,22 @@ public class AddressBookController {
 			, description = "Creates a new Address Book instance."
 			, operationId = "createAddressBook"
 	)
-	public AddressBook createAddressBook(@Valid @RequestBody AddressBook withAddressBook) {
-		return this.addressBookService.save(withAddressBook);
+	public AddressBookResponse createAddressBook(@Valid @RequestBody AddressBook withAddressBook) {
+		return AddressBookResponse.of(this.addressBookService.save(withAddressBook));
 	}
 
 	/**
 	 * Rest API endpoint for retrieving a collection of Contacts from an Address book with the specified identifier.
+	 * <p>
+	 * The response carries a weak entity tag derived from the membership version of the address book, and a
+	 * {@code 304 Not Modified} response is returned, before any contact is loaded, when it matches the request's
+	 * {@code If-None-Match} header.
 	 *
 	 * @param withId
 	 * 		Identifier of the address book to retrieve contacts from.
-	 * @return Collection Response containing the address book's contacts
+	 * @param withWebRequest
+	 * 		Current request, checked for a matching entity tag.
+	 * @return Collection Response containing the address book's contacts, or {@code null} if not modified.
 	 * @throws AddressBookNotFoundException
 	 * 		if no address book, with the specified identifier, can be found
 	 */
@@ -136,17 +205,19 @@ public class AddressBookController {
 			method = "GET"
 			, tags = {"Address Book"}
 			, summary = "Get all Contact for an Address Book"
-			, description = "Returns all the contacts for a specific address book."
+			, description = "Returns all the contacts for a specific address book. Responds with `304 Not Modified` "
+					+ "when the `If-None-Match` header matches the current `ETag`."
 			, operationId = "getContactsFromAddressBook"
 	)
-	public CollectionResponse<Contact> getContactsFromAddressBook(@PathVariable("id") Integer withId)
-			throws AddressBookNotFoundException {
-		Collection<Contact> contacts = this.getAddressBook(withId)
-				.getAddressBookContacts()
-				.stream()
-				.map(AddressBookContact::getContact)
-				.collect(Collectors.toSet());
-		return new CollectionResponse<>(contacts);
+	public CollectionResponse<ContactResponse> getContactsFromAddressBook(@PathVariable("id") Integer withId
+			, final WebRequest withWebRequest) throws AddressBookNotFoundException {
+		final String eTag = this.addressBookService.findContactsETag(withId)
+				.map(ETagUtil::weak)
+				.orElseThrow(AddressBookNotFoundException::new);
+		if (withWebRequest.checkNotModified(eTag)) {
+			return null;
+		}
+		return new CollectionResponse<>(this.contactService.findAllByAddressBook(withId));
 	}
 
 	/**
@@ -178,26 +249,8 @@ public class AddressBookController {
 			@PathVariable("addressbook_id") final Integer withAddressId
 			, @PathVariable("contact_id") final Integer withContactId
 	) throws AddressBookNotFoundException, ContactNotFoundException {
-		AddressBook addressBook = this.getAddressBook(withAddressId);
-		AddressBookContact addressBookContact = addressBook.getAddressBookContacts()
-				.stream()
-				.filter(item -> item.getContact()
-						.getId()
-						.equals(withContactId))
-				.findAny()
-				.orElseThrow(ContactNotFoundException::new);
-
-		addressBook.getAddressBookContacts()
-				.remove(addressBookContact);
-		this.addressBookService.save(addressBook);
-
-		// check if the contact needs to be deleted
-		Contact contact = addressBookContact.getContact();
-		if (contact.getAddressBookContacts()
-				.size() == 0) {
-			this.contactService.delete(contact);
-		}
-
+		AddressBook addressBook = this.findAddressBook(withAddressId);
+		this.addressBookService.removeContact(addressBook, withContactId);
 		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 	}
 
@@ -220,12 +273,79 @@ public class AddressBookController {
 			, description = "Creates a new contact instance, assigning it to the specified Address Book."
 			, operationId = "createNewContactInAddressBook"
 	)
-	public Contact createNewContactInAddressBook(
+	public ContactResponse createNewContactInAddressBook(
 			@PathVariable("id") final Integer withAddressId
 			, @RequestBody final Contact withContact
 	) throws AddressBookNotFoundException {
-		AddressBook addressBook = this.getAddressBook(withAddressId);
+		AddressBook addressBook = this.findAddressBook(withAddressId);
 		withContact.addAddressBooks(addressBook);
-		return this.contactService.save(withContact);
+		return ContactResponse.of(this.contactService.save(withContact));
+	}
+
+	/**
+	 * Rest API endpoint to import a JSON array of contacts into a given address book.
+	 *
+	 * @param withAddressId
+	 * 		Identifier of the address book to add the contacts to.
+	 * @param withInputStream
+	 * 		Request body containing a JSON array of contacts.
+	 * @return Import response listing any contacts that could not be imported.
+	 * @throws AddressBookNotFoundException
+	 * 		if the specified address book does not exist.
+	 * @throws IOException
+	 * 		if the request body cannot be read.
+	 */
+	@PostMapping(value = "/{id}/contacts/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+	@Operation(
+			method = "POST"
+			, tags = {"Address Book"}
+			, summary = "Import Contacts into an Address Book from JSON"
+			,
+			description = "Creates a contact for every entry in a JSON array of contacts, assigning them to the "
+					+ "specified Address Book. Invalid entries are reported individually and do not prevent the "
+					+ "remaining contacts from being imported."
+			, operationId = "importContactsFromJson"
+	)
+	public ImportResponse importContactsFromJson(
+			@PathVariable("id") final Integer withAddressId
+			, final InputStream withInputStream
+	) throws AddressBookNotFoundException, IOException {
+		return this.contactImportService.importJson(withAddressId, withInputStream);
+	}
+
+	/**
+	 * Rest API endpoint to import CSV data, one contact per line, into a given address book.
+	 *
+	 * @param withAddressId
+	 * 		Identifier of the address book to add the contacts to.
+	 * @param withInputStream
+	 * 		Request body containing the CSV data.
+	 * @return Import response listing any contacts that could not be imported.
+	 * @throws AddressBookNotFoundException
+	 * 		if the specified address book does not exist.
+	 * @throws IOException
+	 * 		if the request body cannot be read.
+	 */
+	@PostMapping(value = "/{id}/contacts/import", consumes = "text/csv")
+	@Operation(
+			method = "POST"
+			, tags = {"Address Book"}
+			, summary = "Import Contacts into an Address Book from CSV"
+			,
+			description = "Creates a contact for every line of CSV data, in the form `name,phone number,phone "
+					+ "number,...`, assigning them to the specified Address Book. Invalid lines are reported "
+					+ "individually and do not prevent the remaining contacts from being imported."
+			, operationId = "importContactsFromCsv"
+	)
+	public ImportResponse importContactsFromCsv(
+			@PathVariable("id") final Integer withAddressId
+			, final InputStream withInputStream
+	) throws AddressBookNotFoundException, IOException {
+		return this.contactImportService.importCsv(withAddressId, withInputStream);
+	}
+
+	private AddressBook findAddressBook(final Integer withId) throws AddressBookNotFoundException {
+		return this.addressBookService.findById(withId)
+				.orElseThrow(AddressBookNotFoundException::new);
 	}
 }
@@ -0,0 +1,38 @@
+package com.xenosnowfox.addressbook.controller;
+
+import com.xenosnowfox.addressbook.response.CacheStatisticsResponse;
+import com.xenosnowfox.addressbook.response.CollectionResponse;
+import com.xenosnowfox.addressbook.service.CacheStatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Rest endpoints for inspecting the second-level cache.
+ */
+@RestController
+@RequestMapping("/statistics/cache")
+public class CacheStatisticsController {
+
+	@Autowired
+	private CacheStatisticsService cacheStatisticsService;
+
+	/**
+	 * API endpoint that returns the hit and miss statistics of every second-level cache region.
+	 *
+	 * @return Collection response containing cache region statistics.
+	 */
+	@GetMapping()
+	@Operation(
+			method = "GET"
+			, tags = {"Statistics"}
+			, summary = "List Cache Statistics"
+			, description = "Returns hit, miss and put counts for every second-level cache region."
+			, operationId = "getCacheStatistics"
+	)
+	public CollectionResponse<CacheStatisticsResponse> getCacheStatistics() {
+		return new CollectionResponse<>(this.cacheStatisticsService.findAll());
+	}
+}
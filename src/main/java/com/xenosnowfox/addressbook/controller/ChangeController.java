@@ -0,0 +1,106 @@
+package com.xenosnowfox.addressbook.controller;
+
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
+import com.xenosnowfox.addressbook.response.ChangeResponse;
+import com.xenosnowfox.addressbook.response.CollectionResponse;
+import com.xenosnowfox.addressbook.service.ChangeFeed;
+import com.xenosnowfox.addressbook.util.PaginationUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+/**
+ * Rest endpoints for following the changes made to address books and contacts, rather than polling for them.
+ */
+@RestController
+@RequestMapping("/changes")
+public class ChangeController {
+
+	/**
+	 * Interval between the comments sent to keep an otherwise idle event stream open.
+	 */
+	private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
+	@Autowired
+	private ChangeFeed changeFeed;
+
+	/**
+	 * API endpoint that returns the changes made after the specified sequence number.
+	 *
+	 * @param withSince
+	 * 		Sequence number of the last change already known about, or zero for the first change.
+	 * @param withLimit
+	 * 		Maximum number of changes to return.
+	 * @return Collection response containing the changes, in order.
+	 */
+	@GetMapping
+	@Operation(
+			method = "GET"
+			, tags = {"Change"}
+			, summary = "List Changes"
+			, description = "Returns the changes committed after the `since` sequence number, in order. Pass the "
+					+ "`sequence` of the last change returned as `since` to retrieve the following page."
+			, operationId = "getChanges"
+	)
+	public CollectionResponse<ChangeResponse> getChanges(
+			@RequestParam(value = "since", defaultValue = "0") final long withSince
+			, @RequestParam(value = "limit", defaultValue = PaginationUtil.DEFAULT_PAGE_SIZE) final int withLimit
+	) {
+		return new CollectionResponse<>(this.changeFeed.findSince(validateSequence(withSince)
+				, PaginationUtil.pageOf(withLimit)
+						.getPageSize()));
+	}
+
+	/**
+	 * API endpoint that streams the changes made after the specified sequence number as server-sent events; first
+	 * those already committed, then each change as it is committed.
+	 *
+	 * @param withSince
+	 * 		Sequence number of the last change already known about, or zero for the first change.
+	 * @param withLastEventId
+	 * 		Sequence number of the last change received by a reconnecting client, which takes precedence over
+	 * 		{@code since}.
+	 * @return Flux of server-sent events, each identified by the sequence number of its change.
+	 */
+	@GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@Operation(
+			method = "GET"
+			, tags = {"Change"}
+			, summary = "Stream Changes"
+			, description = "Streams the changes committed after the `since` sequence number, or the `Last-Event-ID` "
+					+ "header, as server-sent events whose `id` is the change's sequence number. Clients that fall "
+					+ "too far behind are disconnected, and should reconnect with the `Last-Event-ID` header."
+			, operationId = "streamChanges"
+	)
+	public Flux<ServerSentEvent<ChangeResponse>> streamChanges(
+			@RequestParam(value = "since", defaultValue = "0") final long withSince
+			, @RequestHeader(value = "Last-Event-ID", required = false) final Long withLastEventId
+	) {
+		final Flux<ServerSentEvent<ChangeResponse>> changes = this.changeFeed.follow(
+						validateSequence(withLastEventId == null ? withSince : withLastEventId))
+				.map(change -> ServerSentEvent.builder(change)
+						.id(Long.toString(change.getSequence()))
+						.build());
+		final Flux<ServerSentEvent<ChangeResponse>> heartbeats = Flux.interval(HEARTBEAT_INTERVAL)
+				.map(tick -> ServerSentEvent.<ChangeResponse>builder()
+						.comment("heartbeat")
+						.build());
+		return Flux.merge(changes, heartbeats);
+	}
+
+	private static long validateSequence(final long withSequence) {
+		if (withSequence < 0) {
+			throw new InvalidRequestException("Sequence number must not be negative.");
+		}
+		return withSequence;
+	}
+}
@@ -1,25 +1,46 @@
 package com.xenosnowfox.addressbook.controller;
 
-import com.xenosnowfox.addressbook.entity.AddressBook;
-import com.xenosnowfox.addressbook.entity.AddressBookContact;
 import com.xenosnowfox.addressbook.entity.Contact;
 import com.xenosnowfox.addressbook.exception.ContactNotFoundException;
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
+import com.xenosnowfox.addressbook.exception.PreconditionFailedException;
+import com.xenosnowfox.addressbook.response.AddressBookResponse;
 import com.xenosnowfox.addressbook.response.CollectionResponse;
+import com.xenosnowfox.addressbook.response.ContactResponse;
+import com.xenosnowfox.addressbook.response.ContactSuggestionResponse;
+import com.xenosnowfox.addressbook.response.MultiGetResponse;
+import com.xenosnowfox.addressbook.service.AddressBookService;
+import com.xenosnowfox.addressbook.service.ContactSearchIndex;
 import com.xenosnowfox.addressbook.service.ContactService;
+import com.xenosnowfox.addressbook.service.PhoneNumberIndex;
+import com.xenosnowfox.addressbook.util.ETagUtil;
+import com.xenosnowfox.addressbook.util.IdentifierUtil;
+import com.xenosnowfox.addressbook.util.PaginationUtil;
+import com.xenosnowfox.addressbook.util.PhoneNumberUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
 
 /**
  * Rest endpoints for managing contacts.
@@ -31,9 +52,25 @@ public class ContactController {
 	@Autowired
 	private ContactService contactService;
 
+	@Autowired
+	private AddressBookService addressBookService;
+
+	@Autowired
+	private ContactSearchIndex contactSearchIndex;
+
+	@Autowired
+	private PhoneNumberIndex phoneNumberIndex;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
 	/**
-	 * API endpoint that returns a collection of contact from across all address books.
+	 * API endpoint that returns a page of contacts from across all address books.
 	 *
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, if any.
+	 * @param withLimit
+	 * 		Maximum number of contacts to return.
 	 * @return Collection response containing contacts.
 	 */
 	@GetMapping()
@@ -41,15 +78,186 @@ public class ContactController {
 			method = "GET"
 			, tags = {"Contact"}
 			, summary = "List all Contacts"
-			, description = "Returns a list off all Contacts across all Address Books"
+			, description = "Returns a page of Contacts across all Address Books, ordered by identifier. Pass the "
+					+ "returned `nextCursor` to retrieve the following page."
 			, operationId = "getAllContacts"
 	)
-	public CollectionResponse<Contact> getAllContacts() {
-		return new CollectionResponse<>(this.contactService.findAll());
+	public CollectionResponse<ContactResponse> getAllContacts(
+			@RequestParam(value = "cursor", required = false) final String withCursor
+			, @RequestParam(value = "limit", defaultValue = PaginationUtil.DEFAULT_PAGE_SIZE) final int withLimit
+	) {
+		return CollectionResponse.fromSlice(
+				this.contactService.findPage(withCursor, withLimit), this.contactService.count(), ContactResponse::getId);
+	}
+
+	/**
+	 * API endpoint that returns the contacts with the specified identifiers, resolved together rather than with one
+	 * request per contact.
+	 *
+	 * @param withIds
+	 * 		Identifiers of the contacts.
+	 * @return Multi-get response containing the contacts that exist, and the identifiers of those that do not.
+	 * @throws InvalidRequestException
+	 * 		if no identifiers, or too many identifiers, were specified.
+	 */
+	@GetMapping(params = "ids")
+	@Operation(
+			method = "GET"
+			, tags = {"Contact"}
+			, summary = "Get many Contacts"
+			, description = "Returns the Contacts with the specified `ids`, ordered by identifier, along with the "
+					+ "identifiers that do not exist as `missing`. At most " + IdentifierUtil.MAXIMUM_IDENTIFIERS
+					+ " identifiers can be requested at once."
+			, operationId = "getContactsById"
+	)
+	public MultiGetResponse<ContactResponse> getContactsById(@RequestParam(value = "ids") final List<Integer> withIds) {
+		final SortedSet<Integer> identifiers = IdentifierUtil.distinctOf(withIds);
+		return MultiGetResponse.of(identifiers, this.contactService.findAllById(identifiers), ContactResponse::getId);
+	}
+
+	/**
+	 * API endpoint that returns a page of contacts matching either a name prefix or a phone number.
+	 *
+	 * @param withName
+	 * 		Prefix of the contact's name, ignoring case.
+	 * @param withPhoneNumber
+	 * 		Phone number of the contact, compared by its digits only.
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, if any.
+	 * @param withLimit
+	 * 		Maximum number of contacts to return.
+	 * @return Collection response containing the matching contacts.
+	 * @throws InvalidRequestException
+	 * 		if not exactly one of name or phone number was provided.
+	 */
+	@GetMapping(value = "/search")
+	@Operation(
+			method = "GET"
+			, tags = {"Contact"}
+			, summary = "Search Contacts"
+			, description = "Returns a page of Contacts whose name starts with `name`, ignoring case, or that have the "
+					+ "phone number `phone`, ignoring formatting; ordered by name, or by identifier respectively. "
+					+ "Exactly one of `name` or `phone` must be provided. Pass the returned `nextCursor` to retrieve "
+					+ "the following page."
+			, operationId = "searchContacts"
+	)
+	public CollectionResponse<ContactResponse> searchContacts(
+			@RequestParam(value = "name", required = false) final String withName
+			, @RequestParam(value = "phone", required = false) final String withPhoneNumber
+			, @RequestParam(value = "cursor", required = false) final String withCursor
+			, @RequestParam(value = "limit", defaultValue = PaginationUtil.DEFAULT_PAGE_SIZE) final int withLimit
+	) {
+		if ((withName == null) == (withPhoneNumber == null)) {
+			throw new InvalidRequestException("Exactly one of name or phone must be provided.");
+		}
+
+		if (withName != null) {
+			return CollectionResponse.fromSlice(this.contactService.searchByName(withName, withCursor, withLimit));
+		}
+		return CollectionResponse.fromSlice(
+				this.contactService.searchByPhoneNumber(withPhoneNumber, withCursor, withLimit), ContactResponse::getId);
+	}
+
+	/**
+	 * API endpoint that returns a page of the unique contacts across a set of address books.
+	 *
+	 * @param withAddressBookIds
+	 * 		Identifiers of the address books.
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, if any.
+	 * @param withLimit
+	 * 		Maximum number of contacts to return.
+	 * @return Collection response containing the unique contacts.
+	 * @throws InvalidRequestException
+	 * 		if no address books were specified.
+	 */
+	@GetMapping(value = "/unique")
+	@Operation(
+			method = "GET"
+			, tags = {"Contact"}
+			, summary = "List unique Contacts across Address Books"
+			, description = "Returns a page of the unique Contacts across the specified Address Books, ordered by "
+					+ "name. Contacts with the same name, ignoring case, and the same phone numbers, ignoring "
+					+ "formatting, are treated as duplicates and returned once. Pass the returned `nextCursor` to "
+					+ "retrieve the following page."
+			, operationId = "getUniqueContacts"
+	)
+	public CollectionResponse<ContactResponse> getUniqueContacts(
+			@RequestParam(value = "addressBookIds") final List<Integer> withAddressBookIds
+			, @RequestParam(value = "cursor", required = false) final String withCursor
+			, @RequestParam(value = "limit", defaultValue = PaginationUtil.DEFAULT_PAGE_SIZE) final int withLimit
+	) {
+		return CollectionResponse.fromSlice(this.contactService.findUnique(withAddressBookIds, withCursor, withLimit));
+	}
+
+	/**
+	 * API endpoint that suggests contacts matching partially entered text, answered from memory.
+	 *
+	 * @param withQuery
+	 * 		Start of a contact's name, any word of their name, or phone number.
+	 * @param withAddressBookId
+	 * 		Identifier of the address book to restrict suggestions to, if any.
+	 * @param withLimit
+	 * 		Maximum number of suggestions to return.
+	 * @return Collection response containing the suggestions.
+	 * @throws InvalidRequestException
+	 * 		if the limit is outside of the supported range.
+	 */
+	@GetMapping(value = "/autocomplete")
+	@Operation(
+			method = "GET"
+			, tags = {"Contact"}
+			, summary = "Suggest Contacts"
+			, description = "Returns up to `limit` Contacts with a name, or any word within it, that starts with `q`, "
+					+ "ignoring case. If `q` looks like a phone number, Contacts with a phone number starting with its "
+					+ "digits are returned instead. Optionally restricted to a single Address Book."
+			, operationId = "autocompleteContacts"
+	)
+	public CollectionResponse<ContactSuggestionResponse> autocompleteContacts(
+			@RequestParam(value = "q") final String withQuery
+			, @RequestParam(value = "addressBookId", required = false) final Integer withAddressBookId
+			, @RequestParam(value = "limit", defaultValue = "10") final int withLimit
+	) {
+		if (withLimit < 1 || withLimit > ContactSearchIndex.MAXIMUM_LIMIT) {
+			throw new InvalidRequestException("Limit must be between 1 and " + ContactSearchIndex.MAXIMUM_LIMIT + ".");
+		}
+		return new CollectionResponse<>(this.contactSearchIndex.suggest(withQuery, withAddressBookId, withLimit));
+	}
+
+	/**
+	 * API endpoint that streams every contact as newline delimited JSON, writing each page of contacts as soon as it
+	 * has been read from the database.
+	 *
+	 * @return Streaming response body.
+	 */
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	@Operation(
+			method = "GET"
+			, tags = {"Contact"}
+			, summary = "Export all Contacts"
+			, description = "Streams every Contact across all Address Books as newline delimited JSON, ordered by "
+					+ "identifier."
+			, operationId = "exportContacts"
+	)
+	public ResponseEntity<StreamingResponseBody> exportContacts() {
+		final StreamingResponseBody body = outputStream -> this.contactService.export(contact -> {
+			try {
+				outputStream.write(this.objectMapper.writeValueAsBytes(contact));
+				outputStream.write('\n');
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		});
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(body);
 	}
 
 	/**
 	 * Rest API endpoint for retrieving a Contact with the specified identifier.
+	 * <p>
+	 * The response carries an entity tag derived from the contact's version, which can be passed back in the
+	 * {@code If-Match} header when updating the contact.
 	 *
 	 * @param withId
 	 * 		Identifier of the contact to retrieve
@@ -62,12 +270,16 @@ public class ContactController {
 			method = "GET"
 			, tags = {"Contact"}
 			, summary = "Get a Contact"
-			, description = "Returns details of the specified Contact"
+			, description = "Returns details of the specified Contact, along with its `ETag`."
 			, operationId = "getContact"
 	)
-	public Contact getContact(@PathVariable("id") final Integer withId) throws ContactNotFoundException {
-		return this.contactService.findById(withId)
+	public ResponseEntity<ContactResponse> getContact(@PathVariable("id") final Integer withId)
+			throws ContactNotFoundException {
+		final ContactResponse contact = this.contactService.findResponseById(withId)
 				.orElseThrow(ContactNotFoundException::new);
+		return ResponseEntity.ok()
+				.eTag(ETagUtil.of(contact.getVersion()))
+				.body(contact);
 	}
 
 	/**
@@ -87,14 +299,63 @@ public class ContactController {
 			, description = "Returns the collection of Address Books that the specified Client is part of."
 			, operationId = "getClientAddressBooks"
 	)
-	public CollectionResponse<AddressBook> getClientAddressBooks(@PathVariable("id") final Integer withId)
+	public CollectionResponse<AddressBookResponse> getClientAddressBooks(@PathVariable("id") final Integer withId)
+			throws ContactNotFoundException {
+		return new CollectionResponse<>(this.addressBookService.findAllByContact(withId)
+				.orElseThrow(ContactNotFoundException::new));
+	}
+
+	/**
+	 * Rest API endpoint for retrieving the other contacts that share a phone number with the specified contact.
+	 *
+	 * @param withId
+	 * 		Identifier of the contact.
+	 * @return Collection of contacts.
+	 * @throws ContactNotFoundException
+	 * 		if the specified contact does not exist.
+	 */
+	@GetMapping(value = "/{id}/duplicates")
+	@Operation(
+			method = "GET"
+			, tags = {"Contact"}
+			, summary = "Get the likely duplicates of a Contact"
+			, description = "Returns the other Contacts that share at least one phone number with the specified "
+					+ "Contact, ignoring formatting, ordered by identifier."
+			, operationId = "getContactDuplicates"
+	)
+	public CollectionResponse<ContactResponse> getContactDuplicates(@PathVariable("id") final Integer withId)
 			throws ContactNotFoundException {
-		Set<AddressBook> addressBookSet = this.getContact(withId)
-				.getAddressBookContacts()
-				.stream()
-				.map(AddressBookContact::getAddressBook)
-				.collect(Collectors.toSet());
-		return new CollectionResponse<>(addressBookSet);
+		return new CollectionResponse<>(this.contactService.findSharingPhoneNumbers(withId)
+				.orElseThrow(ContactNotFoundException::new));
+	}
+
+	/**
+	 * Rest API endpoint for identifying the contacts that hold a phone number, answered from memory.
+	 *
+	 * @param withPhoneNumber
+	 * 		Phone number, in any format.
+	 * @return Collection response containing contact identifiers.
+	 * @throws ContactNotFoundException
+	 * 		if no contact holds the phone number.
+	 * @throws InvalidRequestException
+	 * 		if the phone number cannot be normalized.
+	 */
+	@GetMapping(value = "/by-phone/{number}")
+	@Operation(
+			method = "GET"
+			, tags = {"Contact"}
+			, summary = "Identify the Contacts holding a phone number"
+			, description = "Returns the identifiers of the Contacts holding the phone number, ignoring formatting, in "
+					+ "ascending order. Intended for caller identification; the lookup is answered from memory."
+			, operationId = "getContactsByPhoneNumber"
+	)
+	public CollectionResponse<Integer> getContactsByPhoneNumber(@PathVariable("number") final String withPhoneNumber)
+			throws ContactNotFoundException {
+		final List<Integer> contactIds = new ArrayList<>();
+		if (this.phoneNumberIndex.forEachContact(PhoneNumberUtil.normalize(withPhoneNumber), contactIds::add) == 0) {
+			throw new ContactNotFoundException();
+		}
+		return new CollectionResponse<>(contactIds);
 	}
 
 	/**
@@ -115,21 +376,28 @@ public class ContactController {
 			, operationId = "deleteContact"
 	)
 	public ResponseEntity<Void> deleteContact(@PathVariable("id") Integer withId) throws ContactNotFoundException {
-		Contact contact = this.getContact(withId);
+		Contact contact = this.findContact(withId);
 		this.contactService.delete(contact);
 		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 	}
 
 	/**
 	 * Rest API endpoint for updating a contact's details.
+	 * <p>
+	 * When an {@code If-Match} header is provided, the contact is only updated if it still matches the contact's
+	 * entity tag, both when the request is received and when the update is written.
 	 *
 	 * @param withId
 	 * 		Identifier of the contact to update.
+	 * @param withIfMatch
+	 * 		Value of the {@code If-Match} header, if any.
 	 * @param withContact
 	 * 		Details to update the contact with.
 	 * @return Updated contact details
 	 * @throws ContactNotFoundException
 	 * 		if the contact, with the specified identifier, cannot be found
+	 * @throws PreconditionFailedException
+	 * 		if the {@code If-Match} header does not match the contact's entity tag.
 	 */
 	@PutMapping(value = "/{id}")
 	@Operation(
@@ -138,17 +406,30 @@ public class ContactController {
 			, summary = "Update a Contact"
 			,
 			description = "Updates the information associated to the specified contact, replacing all it's data with "
-					+ "that provided."
+					+ "that provided. Responds with `412 Precondition Failed` when the `If-Match` header does not "
+					+ "match the Contact's current `ETag`."
 			, operationId = "updateContact"
 	)
-	public Contact updateContact(@PathVariable("id") final Integer withId, @RequestBody final Contact withContact) {
-		Contact contact = this.getContact(withId);
-		contact.setName(withContact.getName());
-		contact.getPhoneNumbers()
-				.clear();
-		contact.getPhoneNumbers()
-				.addAll(withContact.getPhoneNumbers());
-		this.contactService.save(contact);
-		return contact;
+	public ResponseEntity<ContactResponse> updateContact(@PathVariable("id") final Integer withId
+			, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String withIfMatch
+			, @RequestBody final Contact withContact) {
+		final ContactResponse contact;
+		try {
+			contact = this.contactService.update(withId, withIfMatch, withContact);
+		} catch (ObjectOptimisticLockingFailureException ex) {
+			// modified by another request after this one read the contact
+			if (withIfMatch != null) {
+				throw new PreconditionFailedException("Contact has been modified.");
+			}
+			throw ex;
+		}
+		return ResponseEntity.ok()
+				.eTag(ETagUtil.of(contact.getVersion()))
+				.body(contact);
+	}
+
+	private Contact findContact(final Integer withId) throws ContactNotFoundException {
+		return this.contactService.findById(withId)
+				.orElseThrow(ContactNotFoundException::new);
 	}
 }
@@ -0,0 +1,184 @@
+package com.xenosnowfox.addressbook.controller;
+
+import com.xenosnowfox.addressbook.exception.AddressBookNotFoundException;
+import com.xenosnowfox.addressbook.exception.ContactNotFoundException;
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
+import com.xenosnowfox.addressbook.response.CollectionResponse;
+import com.xenosnowfox.addressbook.response.MembershipCountResponse;
+import com.xenosnowfox.addressbook.service.MembershipIndex;
+import com.xenosnowfox.addressbook.util.IdentifierUtil;
+import com.xenosnowfox.addressbook.util.PaginationUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Rest endpoints for comparing the members of address books, answered from memory rather than the database.
+ */
+@RestController
+@RequestMapping("/memberships")
+public class MembershipController {
+
+	@Autowired
+	private MembershipIndex membershipIndex;
+
+	/**
+	 * API endpoint that returns the contacts belonging to every one of the specified address books.
+	 *
+	 * @param withAddressBookIds
+	 * 		Identifiers of the address books.
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, if any.
+	 * @param withLimit
+	 * 		Maximum number of contact identifiers to return.
+	 * @return Collection response containing contact identifiers.
+	 * @throws AddressBookNotFoundException
+	 * 		if any of the address books do not exist.
+	 * @throws InvalidRequestException
+	 * 		if no address books, or too many address books, were specified.
+	 */
+	@GetMapping(value = "/intersection")
+	@Operation(
+			method = "GET"
+			, tags = {"Membership"}
+			, summary = "Contacts in every Address Book"
+			, description = "Returns a page of the identifiers of the Contacts that belong to every one of the "
+					+ "`addressBookIds`, in ascending order, along with the `total` number of such Contacts."
+			, operationId = "getMembershipIntersection"
+	)
+	public CollectionResponse<Integer> getIntersection(
+			@RequestParam(value = "addressBookIds") final List<Integer> withAddressBookIds
+			, @RequestParam(value = "cursor", required = false) final String withCursor
+			, @RequestParam(value = "limit", defaultValue = PaginationUtil.DEFAULT_PAGE_SIZE) final int withLimit
+	) {
+		return this.membershipIndex.intersection(IdentifierUtil.distinctOf(withAddressBookIds), withCursor
+				, withLimit);
+	}
+
+	/**
+	 * API endpoint that returns the contacts belonging to any of the specified address books.
+	 *
+	 * @param withAddressBookIds
+	 * 		Identifiers of the address books.
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, if any.
+	 * @param withLimit
+	 * 		Maximum number of contact identifiers to return.
+	 * @return Collection response containing contact identifiers.
+	 * @throws AddressBookNotFoundException
+	 * 		if any of the address books do not exist.
+	 * @throws InvalidRequestException
+	 * 		if no address books, or too many address books, were specified.
+	 */
+	@GetMapping(value = "/union")
+	@Operation(
+			method = "GET"
+			, tags = {"Membership"}
+			, summary = "Contacts in any Address Book"
+			, description = "Returns a page of the identifiers of the Contacts that belong to any of the "
+					+ "`addressBookIds`, in ascending order, along with the `total` number of such Contacts."
+			, operationId = "getMembershipUnion"
+	)
+	public CollectionResponse<Integer> getUnion(
+			@RequestParam(value = "addressBookIds") final List<Integer> withAddressBookIds
+			, @RequestParam(value = "cursor", required = false) final String withCursor
+			, @RequestParam(value = "limit", defaultValue = PaginationUtil.DEFAULT_PAGE_SIZE) final int withLimit
+	) {
+		return this.membershipIndex.union(IdentifierUtil.distinctOf(withAddressBookIds), withCursor, withLimit);
+	}
+
+	/**
+	 * API endpoint that returns the contacts belonging to an address book, but to none of the excluded address books.
+	 *
+	 * @param withAddressBookId
+	 * 		Identifier of the address book.
+	 * @param withExcludedAddressBookIds
+	 * 		Identifiers of the address books whose contacts are excluded.
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, if any.
+	 * @param withLimit
+	 * 		Maximum number of contact identifiers to return.
+	 * @return Collection response containing contact identifiers.
+	 * @throws AddressBookNotFoundException
+	 * 		if any of the address books do not exist.
+	 * @throws InvalidRequestException
+	 * 		if no excluded address books, or too many, were specified.
+	 */
+	@GetMapping(value = "/difference")
+	@Operation(
+			method = "GET"
+			, tags = {"Membership"}
+			, summary = "Contacts in one Address Book but not others"
+			, description = "Returns a page of the identifiers of the Contacts that belong to `addressBookId`, but to "
+					+ "none of the `excludedAddressBookIds`, in ascending order, along with the `total` number of such "
+					+ "Contacts."
+			, operationId = "getMembershipDifference"
+	)
+	public CollectionResponse<Integer> getDifference(
+			@RequestParam(value = "addressBookId") final Integer withAddressBookId
+			, @RequestParam(value = "excludedAddressBookIds") final List<Integer> withExcludedAddressBookIds
+			, @RequestParam(value = "cursor", required = false) final String withCursor
+			, @RequestParam(value = "limit", defaultValue = PaginationUtil.DEFAULT_PAGE_SIZE) final int withLimit
+	) {
+		return this.membershipIndex.difference(withAddressBookId
+				, IdentifierUtil.distinctOf(withExcludedAddressBookIds), withCursor, withLimit);
+	}
+
+	/**
+	 * API endpoint that returns the number of contacts belonging to each address book.
+	 *
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, if any.
+	 * @param withLimit
+	 * 		Maximum number of address books to return.
+	 * @return Collection response containing the number of contacts in each address book.
+	 */
+	@GetMapping(value = "/counts")
+	@Operation(
+			method = "GET"
+			, tags = {"Membership"}
+			, summary = "Count the Contacts of each Address Book"
+			, description = "Returns a page of address books, ordered by identifier, along with the number of "
+					+ "Contacts belonging to each. Pass the returned `nextCursor` to retrieve the following page."
+			, operationId = "getMembershipCounts"
+	)
+	public CollectionResponse<MembershipCountResponse> getCounts(
+			@RequestParam(value = "cursor", required = false) final String withCursor
+			, @RequestParam(value = "limit", defaultValue = PaginationUtil.DEFAULT_PAGE_SIZE) final int withLimit
+	) {
+		return CollectionResponse.fromSlice(this.membershipIndex.countPage(withCursor, withLimit)
+				, MembershipCountResponse::getAddressBookId);
+	}
+
+	/**
+	 * API endpoint that returns the address books that a contact belongs to.
+	 *
+	 * @param withId
+	 * 		Identifier of the contact.
+	 * @return Collection response containing address book identifiers.
+	 * @throws ContactNotFoundException
+	 * 		if no contact, with the specified identifier, exists.
+	 */
+	@GetMapping(value = "/contacts/{id}")
+	@Operation(
+			method = "GET"
+			, tags = {"Membership"}
+			, summary = "Address Books of a Contact"
+			, description = "Returns the identifiers of the Address Books that the Contact belongs to, in ascending "
+					+ "order."
+			, operationId = "getContactMemberships"
+	)
+	public CollectionResponse<Integer> getContactMemberships(@PathVariable("id") final Integer withId) {
+		final List<Integer> addressBookIds = this.membershipIndex.findAddressBookIds(withId);
+		if (addressBookIds.isEmpty()) {
+			throw new ContactNotFoundException();
+		}
+		return new CollectionResponse<>(addressBookIds);
+	}
+}
@@ -0,0 +1,77 @@
+package com.xenosnowfox.addressbook.controller;
+
+import com.xenosnowfox.addressbook.exception.AddressBookNotFoundException;
+import com.xenosnowfox.addressbook.response.AddressBookResponse;
+import com.xenosnowfox.addressbook.response.ContactResponse;
+import com.xenosnowfox.addressbook.service.AddressBookService;
+import com.xenosnowfox.addressbook.service.ReactiveReadService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streaming read endpoints for address books, which release the request thread whilst the response is streamed; the
+ * response itself is written on the pool configured by
+ * {@link com.xenosnowfox.addressbook.concurrent.StreamingConfiguration}.
+ */
+@RestController
+@RequestMapping("/reactive/addressbooks")
+public class ReactiveAddressBookController {
+
+	@Autowired
+	private AddressBookService addressBookService;
+
+	@Autowired
+	private ReactiveReadService reactiveReadService;
+
+	/**
+	 * API endpoint that streams every address book as newline delimited JSON.
+	 *
+	 * @return Flux of address books.
+	 */
+	@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+	@Operation(
+			method = "GET"
+			, tags = {"Address Book"}
+			, summary = "Stream all Address Books"
+			, description = "Streams every Address Book as newline delimited JSON, ordered by identifier, reading "
+					+ "further address books only as the client consumes them."
+			, operationId = "streamAllAddressBooks"
+	)
+	public Flux<AddressBookResponse> streamAllAddressBooks() {
+		return this.reactiveReadService.streamAddressBooks();
+	}
+
+	/**
+	 * API endpoint that streams the contacts of an address book as newline delimited JSON.
+	 *
+	 * @param withId
+	 * 		Identifier of the address book.
+	 * @return Flux of contacts.
+	 * @throws AddressBookNotFoundException
+	 * 		if no address book, with the specified identifier, can be found
+	 */
+	@GetMapping(value = "/{id}/contacts", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	@Operation(
+			method = "GET"
+			, tags = {"Address Book"}
+			, summary = "Stream all Contacts in an Address Book"
+			, description = "Streams every Contact in the specified Address Book as newline delimited JSON, ordered by "
+					+ "identifier, reading further contacts only as the client consumes them."
+			, operationId = "streamContactsFromAddressBook"
+	)
+	public Flux<ContactResponse> streamContactsFromAddressBook(@PathVariable("id") final Integer withId)
+			throws AddressBookNotFoundException {
+		// checked up front, as the response has already been committed by the time the flux emits
+		if (this.addressBookService.findResponseById(withId)
+				.isEmpty()) {
+			throw new AddressBookNotFoundException();
+		}
+		return this.reactiveReadService.streamContacts(withId);
+	}
+}
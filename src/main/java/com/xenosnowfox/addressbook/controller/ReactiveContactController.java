@@ -0,0 +1,42 @@
+package com.xenosnowfox.addressbook.controller;
+
+import com.xenosnowfox.addressbook.exception.ContactNotFoundException;
+import com.xenosnowfox.addressbook.response.ContactResponse;
+import com.xenosnowfox.addressbook.service.ReactiveReadService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Asynchronous read endpoints for contacts, which release the request thread whilst reading.
+ */
+@RestController
+@RequestMapping("/reactive/contacts")
+public class ReactiveContactController {
+
+	@Autowired
+	private ReactiveReadService reactiveReadService;
+
+	/**
+	 * API endpoint for retrieving a Contact with the specified identifier, without holding the request thread.
+	 *
+	 * @param withId
+	 * 		Identifier of the contact to retrieve
+	 * @return Mono of the contact, which errors with {@link ContactNotFoundException} if the contact cannot be found.
+	 */
+	@GetMapping(value = "/{id}")
+	@Operation(
+			method = "GET"
+			, tags = {"Contact"}
+			, summary = "Get a Contact asynchronously"
+			, description = "Returns details of the specified Contact, read without holding the request thread"
+			, operationId = "getContactReactive"
+	)
+	public Mono<ContactResponse> getContact(@PathVariable("id") final Integer withId) {
+		return this.reactiveReadService.findContact(withId);
+	}
+}
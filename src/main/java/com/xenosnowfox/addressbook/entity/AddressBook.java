@@ -7,14 +7,19 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
+import javax.persistence.Version;
 import javax.validation.constraints.NotEmpty;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -22,6 +27,9 @@ import java.util.stream.Stream;
 
 @ToString
 @Entity
+@EntityListeners(AddressBookEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "address-book")
 @Getter
 @NoArgsConstructor
 @JsonIgnoreProperties({"hibernateLazyInitializer"})
@@ -35,6 +43,13 @@ public class AddressBook {
 	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	private Integer id;
 
+	/**
+	 * Version of the address book, incremented by Hibernate whenever the address book itself is updated.
+	 */
+	@Version
+	@JsonIgnore
+	private Integer version;
+
 	/**
 	 * Human readable name representing the address book.
 	 */
@@ -48,6 +63,7 @@ public class AddressBook {
 	 */
 	@JsonIgnore
 	@OneToMany(mappedBy = "addressBook", cascade = CascadeType.ALL)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "address-book-contacts")
 	private Set<AddressBookContact> addressBookContacts;
 
 	/**
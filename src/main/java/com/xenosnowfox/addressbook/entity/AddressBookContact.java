@@ -4,17 +4,27 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import java.util.Objects;
 
 @Entity
+@EntityListeners(AddressBookContactEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "address-book-contact")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,7 +32,12 @@ import java.util.Objects;
 public class AddressBookContact {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_book_contact_sequence")
+	@SequenceGenerator(
+			name = "address_book_contact_sequence"
+			, sequenceName = "address_book_contact_sequence"
+			, allocationSize = 50
+	)
 	private int id;
 
 	@ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -31,6 +46,7 @@ public class AddressBookContact {
 
 	@ManyToOne(fetch = FetchType.LAZY, optional = false)
 	@JoinColumn(name = "contact_id")
+	@OnDelete(action = OnDeleteAction.CASCADE)
 	private Contact contact;
 
 	public AddressBookContact(final AddressBook withAddressBook) {
@@ -0,0 +1,80 @@
+package com.xenosnowfox.addressbook.entity;
+
+import com.xenosnowfox.addressbook.event.ChangeType;
+import com.xenosnowfox.addressbook.event.MembershipChangedEvent;
+import com.xenosnowfox.addressbook.service.MembershipVersionTracker;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PrePersist;
+import javax.persistence.PreRemove;
+import java.util.function.Function;
+
+/**
+ * Publishes a {@link MembershipChangedEvent} whenever a contact is linked to, or unlinked from, an address book, and
+ * records the change so that the address book's membership version is incremented.
+ * <p>
+ * Instances are created by Hibernate through Spring, so dependencies can be injected.
+ */
+public class AddressBookContactEntityListener {
+
+	@Autowired
+	private ApplicationEventPublisher applicationEventPublisher;
+
+	/**
+	 * Resolved lazily, as the tracker depends upon the entity manager factory that creates this listener.
+	 */
+	@Lazy
+	@Autowired
+	private MembershipVersionTracker membershipVersionTracker;
+
+	@PrePersist
+	@PreRemove
+	void onChange(final AddressBookContact withAddressBookContact) {
+		if (withAddressBookContact.getAddressBook() != null) {
+			this.membershipVersionTracker.membershipChanged(
+					identifierOf(withAddressBookContact.getAddressBook(), AddressBook::getId));
+		}
+	}
+
+	@PostPersist
+	void onPersist(final AddressBookContact withAddressBookContact) {
+		this.publish(ChangeType.CREATED, withAddressBookContact);
+	}
+
+	@PostRemove
+	void onRemove(final AddressBookContact withAddressBookContact) {
+		this.publish(ChangeType.DELETED, withAddressBookContact);
+	}
+
+	private void publish(final ChangeType withChangeType, final AddressBookContact withAddressBookContact) {
+		this.applicationEventPublisher.publishEvent(new MembershipChangedEvent(
+				withChangeType
+				, identifierOf(withAddressBookContact.getAddressBook(), AddressBook::getId)
+				, identifierOf(withAddressBookContact.getContact(), Contact::getId)
+		));
+	}
+
+	/**
+	 * Returns the identifier of an entity without initializing it, should it be an uninitialized proxy.
+	 *
+	 * @param withEntity
+	 * 		Entity, or proxy, to return the identifier of.
+	 * @param withIdentifierFunction
+	 * 		Function that returns the identifier of an initialized entity.
+	 * @param <ENTITY> Data type of the entity.
+	 * @return Identifier of the entity.
+	 */
+	private static <ENTITY> Integer identifierOf(final ENTITY withEntity
+			, final Function<ENTITY, Integer> withIdentifierFunction) {
+		if (withEntity instanceof HibernateProxy) {
+			return (Integer) ((HibernateProxy) withEntity).getHibernateLazyInitializer()
+					.getIdentifier();
+		}
+		return withIdentifierFunction.apply(withEntity);
+	}
+}
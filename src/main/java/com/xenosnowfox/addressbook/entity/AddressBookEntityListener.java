@@ -0,0 +1,47 @@
+package com.xenosnowfox.addressbook.entity;
+
+import com.xenosnowfox.addressbook.event.AddressBookChangedEvent;
+import com.xenosnowfox.addressbook.event.ChangeType;
+import com.xenosnowfox.addressbook.service.MembershipVersionTracker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+
+/**
+ * Publishes an {@link AddressBookChangedEvent} whenever an address book is created or modified; deletions are published
+ * by {@link com.xenosnowfox.addressbook.service.AddressBookService}, as they bypass the entity listeners. Also records
+ * every address book created, so that its membership version is created along with it.
+ * <p>
+ * Instances are created by Hibernate through Spring, so dependencies can be injected.
+ */
+public class AddressBookEntityListener {
+
+	@Autowired
+	private ApplicationEventPublisher applicationEventPublisher;
+
+	/**
+	 * Resolved lazily, as the tracker depends upon the entity manager factory that creates this listener.
+	 */
+	@Lazy
+	@Autowired
+	private MembershipVersionTracker membershipVersionTracker;
+
+	@PostPersist
+	void onPersist(final AddressBook withAddressBook) {
+		this.membershipVersionTracker.addressBookCreated(withAddressBook.getId());
+		this.publish(ChangeType.CREATED, withAddressBook);
+	}
+
+	@PostUpdate
+	void onUpdate(final AddressBook withAddressBook) {
+		this.publish(ChangeType.UPDATED, withAddressBook);
+	}
+
+	private void publish(final ChangeType withChangeType, final AddressBook withAddressBook) {
+		this.applicationEventPublisher.publishEvent(
+				new AddressBookChangedEvent(withChangeType, withAddressBook.getId(), withAddressBook.getName()));
+	}
+}
@@ -0,0 +1,49 @@
+package com.xenosnowfox.addressbook.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Version of an address book's membership, incremented whenever a contact is added to, or removed from, the address
+ * book.
+ * <p>
+ * Held apart from the address book, and deliberately not cached, so that incrementing it with a bulk update neither
+ * writes the address book nor evicts it, or its collections, from the second level cache.
+ */
+@ToString
+@Entity
+@Table(name = "address_book_membership_version")
+@Getter
+@NoArgsConstructor
+public class AddressBookMembershipVersion {
+
+	/**
+	 * Identifier of the address book.
+	 */
+	@Id
+	@Column(name = "address_book_id")
+	private Integer addressBookId;
+
+	/**
+	 * Version of the address book's membership; only ever incremented in the database, by
+	 * {@link com.xenosnowfox.addressbook.service.MembershipVersionTracker}.
+	 */
+	@Column(nullable = false)
+	private long version;
+
+	/**
+	 * Instantiates the initial membership version of an address book.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 */
+	public AddressBookMembershipVersion(final Integer withAddressBookIdentifier) {
+		this.addressBookId = withAddressBookIdentifier;
+	}
+}
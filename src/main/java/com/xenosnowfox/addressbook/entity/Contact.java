@@ -3,27 +3,55 @@ package com.xenosnowfox.addressbook.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
+import com.xenosnowfox.addressbook.util.PhoneNumberUtil;
+import com.xenosnowfox.addressbook.util.SearchKeyUtil;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
 import javax.persistence.OneToMany;
+import javax.persistence.OrderColumn;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 import javax.validation.constraints.NotEmpty;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @ToString
 @Entity
+@EntityListeners(ContactEntityListener.class)
+@Table(indexes = {
+		@Index(name = "contact_search_name_idx", columnList = "search_name, id")
+		, @Index(name = "contact_duplicate_key_idx", columnList = "duplicate_key, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contact")
 @Getter
 @NoArgsConstructor
 @JsonIgnoreProperties({"hibernateLazyInitializer"})
@@ -33,10 +61,19 @@ public class Contact {
 	 * Identifier of the contact.
 	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contact_sequence")
+	@SequenceGenerator(name = "contact_sequence", sequenceName = "contact_sequence", allocationSize = 50)
 	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
 	private Integer id;
 
+	/**
+	 * Version of the contact, incremented by Hibernate on every update; including when only its phone numbers change,
+	 * which ensures the entity listeners are notified of such changes.
+	 */
+	@Version
+	@JsonIgnore
+	private Integer version;
+
 	/**
 	 * Contact person's name.
 	 */
@@ -46,16 +83,56 @@ public class Contact {
 	private String name;
 
 	/**
-	 * Phone numbers associated with this contact.
+	 * Phone numbers associated with this contact, each held at most once.
+	 * <p>
+	 * Each phone number is stored along with its position, so that changing one phone number only rewrites that row
+	 * rather than the entire collection. Phone numbers are indexed by their numeric key, so finding the contacts with a
+	 * phone number is a single index lookup.
 	 */
 	@ElementCollection
-	private List<String> phoneNumbers;
+	@CollectionTable(
+			name = "contact_phone_number"
+			, joinColumns = @JoinColumn(name = "contact_id")
+			, uniqueConstraints = @UniqueConstraint(
+					name = "contact_phone_number_unique", columnNames = {"contact_id", "phone_number"})
+			, indexes = @Index(name = "contact_phone_number_idx", columnList = "phone_number, contact_id")
+	)
+	@OrderColumn(name = "phone_number_position")
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contact-phone-numbers")
+	@Getter(AccessLevel.NONE)
+	private List<PhoneNumber> phoneNumbers;
+
+	/**
+	 * Lower case form of the contact's name, indexed for prefix searches.
+	 */
+	@JsonIgnore
+	@ToString.Exclude
+	@Column(name = "search_name", nullable = false)
+	private String searchName;
+
+	/**
+	 * Hash of the contact's phone numbers, ignoring their formatting and order.
+	 */
+	@JsonIgnore
+	@ToString.Exclude
+	@Column(name = "phone_numbers_hash", nullable = false, length = PhoneNumberUtil.HASH_LENGTH)
+	private String phoneNumbersHash;
+
+	/**
+	 * Key shared by the contact and all of its duplicates; its name, ignoring case and surrounding whitespace, followed
+	 * by the hash of its phone numbers. Indexed, so the unique contacts can be paged through in key order.
+	 */
+	@JsonIgnore
+	@ToString.Exclude
+	@Column(name = "duplicate_key", nullable = false, length = 256 + PhoneNumberUtil.HASH_LENGTH)
+	private String duplicateKey;
 
 	/**
 	 * Collection of address books that this contact is part of.
 	 */
 	@JsonIgnore
 	@OneToMany(mappedBy = "contact", cascade = CascadeType.ALL)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contact-address-book-contacts")
 	private final Set<AddressBookContact> addressBookContacts = new HashSet<>();
 
 	/**
@@ -70,10 +147,135 @@ public class Contact {
 	 */
 	public Contact(final String withName, final List<String> withPhoneNumbers, final AddressBook... withAddressBooks) {
 		this.name = withName;
-		this.phoneNumbers = List.copyOf(withPhoneNumbers);
+		this.replacePhoneNumbers(withPhoneNumbers);
 		this.addAddressBooks(withAddressBooks);
 	}
 
+	/**
+	 * Returns the contact's phone numbers, as they were entered.
+	 *
+	 * @return Phone numbers, in order.
+	 */
+	public List<String> getPhoneNumbers() {
+		if (this.phoneNumbers == null) {
+			return List.of();
+		}
+		return this.phoneNumbers.stream()
+				.map(PhoneNumber::getDisplay)
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	/**
+	 * Replaces the contact's phone numbers; used when a contact is deserialized.
+	 *
+	 * @param withPhoneNumbers
+	 * 		New phone numbers, in order.
+	 * @throws InvalidRequestException
+	 * 		if a phone number cannot be normalized, or is listed more than once.
+	 */
+	@JsonProperty("phoneNumbers")
+	public void setPhoneNumbers(final List<String> withPhoneNumbers) {
+		this.replacePhoneNumbers(withPhoneNumbers);
+	}
+
+	/**
+	 * Returns the persistent collection of phone numbers, without initializing it.
+	 *
+	 * @return Phone numbers, or {@code null} if the contact has none.
+	 */
+	List<PhoneNumber> phoneNumberCollection() {
+		return this.phoneNumbers;
+	}
+
+	/**
+	 * Replaces the contact's phone numbers with those specified, modifying the existing collection in place so that
+	 * only the positions whose phone number has changed are written to the database.
+	 * <p>
+	 * Should a phone number move to another position, the collection is replaced instead, as rewriting the positions
+	 * one at a time would briefly hold the same phone number twice.
+	 *
+	 * @param withPhoneNumbers
+	 * 		New phone numbers, in order.
+	 * @throws InvalidRequestException
+	 * 		if a phone number cannot be normalized, or is listed more than once.
+	 */
+	public void replacePhoneNumbers(final List<String> withPhoneNumbers) {
+		final List<PhoneNumber> replacements = normalize(withPhoneNumbers);
+		this.phoneNumbersHash = PhoneNumberUtil.hashOf(replacements.stream()
+				.mapToLong(PhoneNumber::getNumber)
+				.toArray());
+		this.updateSearchKeys();
+
+		if (this.phoneNumbers == null || this.movesPhoneNumbers(replacements)) {
+			this.phoneNumbers = new ArrayList<>(replacements);
+			return;
+		}
+
+		for (int i = 0; i < replacements.size(); i++) {
+			if (i >= this.phoneNumbers.size()) {
+				this.phoneNumbers.add(replacements.get(i));
+			} else if (!Objects.equals(this.phoneNumbers.get(i), replacements.get(i))) {
+				this.phoneNumbers.set(i, replacements.get(i));
+			}
+		}
+		while (this.phoneNumbers.size() > replacements.size()) {
+			this.phoneNumbers.remove(this.phoneNumbers.size() - 1);
+		}
+	}
+
+	/**
+	 * Derives the normalized search key, and the key shared with its duplicates, from the contact's name and the hash
+	 * of its phone numbers.
+	 * <p>
+	 * This is invoked automatically before the contact is inserted or updated, and whenever its phone numbers are
+	 * replaced.
+	 */
+	@PrePersist
+	@PreUpdate
+	public void updateSearchKeys() {
+		if (this.phoneNumbersHash == null) {
+			this.phoneNumbersHash = PhoneNumberUtil.hashOf();
+		}
+		this.searchName = SearchKeyUtil.nameKey(this.name);
+		this.duplicateKey = this.searchName.stripTrailing() + " " + this.phoneNumbersHash;
+	}
+
+	/**
+	 * Returns whether any of the replacement phone numbers is currently held at a different position.
+	 */
+	private boolean movesPhoneNumbers(final List<PhoneNumber> withReplacements) {
+		for (int i = 0; i < withReplacements.size(); i++) {
+			for (int j = 0; j < this.phoneNumbers.size(); j++) {
+				if (i != j && withReplacements.get(i)
+						.getNumber() == this.phoneNumbers.get(j)
+						.getNumber()) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Normalizes the phone numbers, as they were entered, rejecting any that are listed more than once.
+	 */
+	private static List<PhoneNumber> normalize(final List<String> withPhoneNumbers) {
+		if (withPhoneNumbers == null) {
+			return List.of();
+		}
+
+		final List<PhoneNumber> phoneNumbers = new ArrayList<>(withPhoneNumbers.size());
+		final Set<Long> numbers = new HashSet<>();
+		for (String phoneNumber : withPhoneNumbers) {
+			final PhoneNumber normalized = PhoneNumber.of(phoneNumber);
+			if (!numbers.add(normalized.getNumber())) {
+				throw new InvalidRequestException("Phone number is listed more than once: " + normalized.getDisplay());
+			}
+			phoneNumbers.add(normalized);
+		}
+		return phoneNumbers;
+	}
+
 	/**
 	 * Adds the contact to the specified address books.
 	 *
@@ -0,0 +1,64 @@
+package com.xenosnowfox.addressbook.entity;
+
+import com.xenosnowfox.addressbook.event.ChangeType;
+import com.xenosnowfox.addressbook.event.ContactChangedEvent;
+import com.xenosnowfox.addressbook.service.MembershipVersionTracker;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Publishes a {@link ContactChangedEvent} whenever a contact is written to the database, and records updates so that
+ * the membership version of each of the contact's address books is incremented.
+ * <p>
+ * Instances are created by Hibernate through Spring, so dependencies can be injected.
+ */
+public class ContactEntityListener {
+
+	@Autowired
+	private ApplicationEventPublisher applicationEventPublisher;
+
+	/**
+	 * Resolved lazily, as the tracker depends upon the entity manager factory that creates this listener.
+	 */
+	@Lazy
+	@Autowired
+	private MembershipVersionTracker membershipVersionTracker;
+
+	@PostLoad
+	void onLoad(final Contact withContact) {
+		this.membershipVersionTracker.contactLoaded();
+	}
+
+	@PostPersist
+	void onPersist(final Contact withContact) {
+		this.publish(ChangeType.CREATED, withContact);
+	}
+
+	@PostUpdate
+	void onUpdate(final Contact withContact) {
+		this.membershipVersionTracker.contactChanged(withContact.getId());
+		this.publish(ChangeType.UPDATED, withContact);
+	}
+
+	@PostRemove
+	void onRemove(final Contact withContact) {
+		this.applicationEventPublisher.publishEvent(
+				new ContactChangedEvent(ChangeType.DELETED, withContact.getId(), null, null));
+	}
+
+	private void publish(final ChangeType withChangeType, final Contact withContact) {
+		// phone numbers that were never loaded cannot have changed, and loading them mid-flush is not permitted
+		final boolean loaded = withContact.phoneNumberCollection() != null
+				&& Hibernate.isInitialized(withContact.phoneNumberCollection());
+		this.applicationEventPublisher.publishEvent(new ContactChangedEvent(
+				withChangeType, withContact.getId(), withContact.getName(),
+				loaded ? withContact.getPhoneNumbers() : null));
+	}
+}
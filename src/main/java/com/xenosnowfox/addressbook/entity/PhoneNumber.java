@@ -0,0 +1,55 @@
+package com.xenosnowfox.addressbook.entity;
+
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
+import com.xenosnowfox.addressbook.util.PhoneNumberUtil;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+/**
+ * Phone number of a contact, stored both as a numeric key that is indexed for exact lookups, and as it was entered,
+ * for display.
+ */
+@Embeddable
+@Getter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PhoneNumber {
+
+	/**
+	 * E.164 style numeric key of the phone number.
+	 */
+	@Column(name = "phone_number", nullable = false)
+	private long number;
+
+	/**
+	 * Phone number as it was entered.
+	 */
+	@Column(name = "display", nullable = false)
+	private String display;
+
+	private PhoneNumber(final long withNumber, final String withDisplay) {
+		this.number = withNumber;
+		this.display = withDisplay;
+	}
+
+	/**
+	 * Normalizes a phone number, as it was entered, into a new instance.
+	 *
+	 * @param withDisplay
+	 * 		Phone number, in any format.
+	 * @return Phone number.
+	 * @throws InvalidRequestException
+	 * 		if the phone number cannot be normalized.
+	 */
+	public static PhoneNumber of(@NonNull final String withDisplay) {
+		return new PhoneNumber(PhoneNumberUtil.normalize(withDisplay), withDisplay.strip());
+	}
+}
@@ -0,0 +1,83 @@
+package com.xenosnowfox.addressbook.event;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.Collection;
+
+/**
+ * Published whenever an address book is created, modified or deleted.
+ * <p>
+ * Address books are deleted with set-based statements, so no {@link MembershipChangedEvent} is published for the links
+ * that are removed along with it, nor a {@link ContactChangedEvent} for the contacts that belonged to no other address
+ * book; listeners must infer those from this event, which carries the identifiers of the contacts deleted.
+ */
+@Getter
+@ToString
+public class AddressBookChangedEvent {
+
+	/**
+	 * Kind of change that was made.
+	 */
+	private final ChangeType changeType;
+
+	/**
+	 * Identifier of the address book.
+	 */
+	private final int addressBookId;
+
+	/**
+	 * Name of the address book after the change, or {@code null} if it was deleted.
+	 */
+	private final String name;
+
+	/**
+	 * Identifiers of the contacts that were deleted along with the address book, as they belonged to no other address
+	 * book; empty unless the address book was deleted.
+	 */
+	@ToString.Exclude
+	private final int[] deletedContactIds;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withChangeType
+	 * 		Kind of change that was made.
+	 * @param withAddressBookId
+	 * 		Identifier of the address book.
+	 * @param withName
+	 * 		Name of the address book after the change.
+	 */
+	public AddressBookChangedEvent(@NonNull final ChangeType withChangeType, final int withAddressBookId
+			, final String withName) {
+		this(withChangeType, withAddressBookId, withName, new int[0]);
+	}
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withChangeType
+	 * 		Kind of change that was made.
+	 * @param withAddressBookId
+	 * 		Identifier of the address book.
+	 * @param withName
+	 * 		Name of the address book after the change.
+	 * @param withDeletedContactIds
+	 * 		Identifiers of the contacts that were deleted along with the address book.
+	 */
+	public AddressBookChangedEvent(@NonNull final ChangeType withChangeType, final int withAddressBookId
+			, final String withName, @NonNull final Collection<Integer> withDeletedContactIds) {
+		this(withChangeType, withAddressBookId, withName, withDeletedContactIds.stream()
+				.mapToInt(Integer::intValue)
+				.toArray());
+	}
+
+	private AddressBookChangedEvent(final ChangeType withChangeType, final int withAddressBookId
+			, final String withName, final int[] withDeletedContactIds) {
+		this.changeType = withChangeType;
+		this.addressBookId = withAddressBookId;
+		this.name = withName;
+		this.deletedContactIds = withDeletedContactIds;
+	}
+}
@@ -0,0 +1,22 @@
+package com.xenosnowfox.addressbook.event;
+
+/**
+ * Kind of change that was made to an entity.
+ */
+public enum ChangeType {
+
+	/**
+	 * The entity was created.
+	 */
+	CREATED,
+
+	/**
+	 * The entity was modified.
+	 */
+	UPDATED,
+
+	/**
+	 * The entity was deleted.
+	 */
+	DELETED
+}
@@ -0,0 +1,60 @@
+package com.xenosnowfox.addressbook.event;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Published whenever a contact is created, modified or deleted.
+ */
+@Getter
+@ToString
+public class ContactChangedEvent {
+
+	/**
+	 * Kind of change that was made.
+	 */
+	private final ChangeType changeType;
+
+	/**
+	 * Identifier of the contact.
+	 */
+	private final int contactId;
+
+	/**
+	 * Name of the contact after the change, or {@code null} if it was deleted.
+	 */
+	private final String name;
+
+	/**
+	 * Phone numbers of the contact after the change, or {@code null} if they were not loaded, and therefore unchanged,
+	 * or the contact was deleted.
+	 */
+	private final List<String> phoneNumbers;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withChangeType
+	 * 		Kind of change that was made.
+	 * @param withContactId
+	 * 		Identifier of the contact.
+	 * @param withName
+	 * 		Name of the contact after the change.
+	 * @param withPhoneNumbers
+	 * 		Phone numbers of the contact after the change, if known.
+	 */
+	public ContactChangedEvent(
+			@NonNull final ChangeType withChangeType
+			, final int withContactId
+			, final String withName
+			, final List<String> withPhoneNumbers
+	) {
+		this.changeType = withChangeType;
+		this.contactId = withContactId;
+		this.name = withName;
+		this.phoneNumbers = withPhoneNumbers == null ? null : List.copyOf(withPhoneNumbers);
+	}
+}
@@ -0,0 +1,22 @@
+package com.xenosnowfox.addressbook.event;
+
+/**
+ * Kind of entity that was changed.
+ */
+public enum EntityType {
+
+	/**
+	 * An address book.
+	 */
+	ADDRESS_BOOK,
+
+	/**
+	 * A contact.
+	 */
+	CONTACT,
+
+	/**
+	 * The link between a contact and an address book that it belongs to.
+	 */
+	MEMBERSHIP
+}
@@ -0,0 +1,45 @@
+package com.xenosnowfox.addressbook.event;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Published whenever a contact is added to, or removed from, an address book.
+ */
+@Getter
+@ToString
+public class MembershipChangedEvent {
+
+	/**
+	 * Either {@link ChangeType#CREATED} when the contact was added, or {@link ChangeType#DELETED} when it was removed.
+	 */
+	private final ChangeType changeType;
+
+	/**
+	 * Identifier of the address book.
+	 */
+	private final int addressBookId;
+
+	/**
+	 * Identifier of the contact.
+	 */
+	private final int contactId;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withChangeType
+	 * 		Kind of change that was made.
+	 * @param withAddressBookId
+	 * 		Identifier of the address book.
+	 * @param withContactId
+	 * 		Identifier of the contact.
+	 */
+	public MembershipChangedEvent(@NonNull final ChangeType withChangeType, final int withAddressBookId
+			, final int withContactId) {
+		this.changeType = withChangeType;
+		this.addressBookId = withAddressBookId;
+		this.contactId = withContactId;
+	}
+}
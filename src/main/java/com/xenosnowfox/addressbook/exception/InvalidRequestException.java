@@ -0,0 +1,23 @@
+package com.xenosnowfox.addressbook.exception;
+
+/**
+ * Exception that is thrown when a request contains parameters that cannot be understood by the system.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+	/**
+	 * Instantiates a new instance with a specified message.
+	 *
+	 * @param withMessage Error message.
+	 */
+	public InvalidRequestException(final String withMessage) {
+		super(withMessage);
+	}
+
+	/**
+	 * Default constructor.
+	 */
+	public InvalidRequestException() {
+		super();
+	}
+}
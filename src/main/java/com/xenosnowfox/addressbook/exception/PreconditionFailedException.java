@@ -0,0 +1,24 @@
+package com.xenosnowfox.addressbook.exception;
+
+/**
+ * Exception that is thrown when a conditional request's precondition, such as an {@code If-Match} header, does not hold
+ * for the current state of the resource.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+	/**
+	 * Instantiates a new instance with a specified message.
+	 *
+	 * @param withMessage Error message.
+	 */
+	public PreconditionFailedException(final String withMessage) {
+		super(withMessage);
+	}
+
+	/**
+	 * Default constructor.
+	 */
+	public PreconditionFailedException() {
+		super();
+	}
+}
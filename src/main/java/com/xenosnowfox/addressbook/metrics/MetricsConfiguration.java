@@ -0,0 +1,35 @@
+package com.xenosnowfox.addressbook.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires up the application specific metrics; the request, repository, Hibernate and connection pool metrics are
+ * provided by Spring Boot Actuator.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+	@Bean
+	public StatementCountingInspector statementCountingInspector() {
+		return new StatementCountingInspector();
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer statementCountingHibernatePropertiesCustomizer(
+			final StatementCountingInspector withStatementCountingInspector
+	) {
+		return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, withStatementCountingInspector);
+	}
+
+	@Bean
+	public StatementCountingFilter statementCountingFilter(
+			final StatementCountingInspector withStatementCountingInspector
+			, final MeterRegistry withMeterRegistry
+	) {
+		return new StatementCountingFilter(withStatementCountingInspector, withMeterRegistry);
+	}
+}
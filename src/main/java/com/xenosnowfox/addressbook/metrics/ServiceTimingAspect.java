@@ -0,0 +1,50 @@
+package com.xenosnowfox.addressbook.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the latency of every public method of the services, as the {@value #METRIC_NAME} timer tagged with the
+ * service class, method and the exception thrown, if any.
+ */
+@Aspect
+@Component
+public class ServiceTimingAspect {
+
+	/**
+	 * Name of the timer that service method latencies are recorded to.
+	 */
+	public static final String METRIC_NAME = "addressbook.service";
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Around("execution(public * com.xenosnowfox.addressbook.service..*(..))"
+			+ " && @within(org.springframework.stereotype.Service)")
+	public Object time(final ProceedingJoinPoint withJoinPoint) throws Throwable {
+		final Timer.Sample sample = Timer.start(this.meterRegistry);
+		String exception = "none";
+		try {
+			return withJoinPoint.proceed();
+		} catch (Throwable ex) {
+			exception = ex.getClass()
+					.getSimpleName();
+			throw ex;
+		} finally {
+			sample.stop(Timer.builder(METRIC_NAME)
+					.description("Latency of service method invocations")
+					.tag("class", withJoinPoint.getSignature()
+							.getDeclaringType()
+							.getSimpleName())
+					.tag("method", withJoinPoint.getSignature()
+							.getName())
+					.tag("exception", exception)
+					.register(this.meterRegistry));
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.xenosnowfox.addressbook.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Records the number of SQL statements executed while handling each request, as the {@value #METRIC_NAME} summary
+ * tagged with the URI template of the endpoint.
+ * <p>
+ * Statements executed on another thread, such as while writing a streaming response, are not counted.
+ */
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+	/**
+	 * Name of the summary that statement counts are recorded to.
+	 */
+	public static final String METRIC_NAME = "hibernate.statements.per.request";
+
+	private final StatementCountingInspector statementCountingInspector;
+
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withStatementCountingInspector
+	 * 		Inspector that Hibernate reports each statement to.
+	 * @param withMeterRegistry
+	 * 		Registry to record the counts to.
+	 */
+	public StatementCountingFilter(
+			@NonNull final StatementCountingInspector withStatementCountingInspector
+			, @NonNull final MeterRegistry withMeterRegistry
+	) {
+		this.statementCountingInspector = withStatementCountingInspector;
+		this.meterRegistry = withMeterRegistry;
+	}
+
+	@Override
+	protected void doFilterInternal(
+			final HttpServletRequest withRequest
+			, final HttpServletResponse withResponse
+			, final FilterChain withFilterChain
+	) throws ServletException, IOException {
+		this.statementCountingInspector.reset();
+		try {
+			withFilterChain.doFilter(withRequest, withResponse);
+		} finally {
+			final Object uri = withRequest.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			DistributionSummary.builder(METRIC_NAME)
+					.description("Number of SQL statements executed per request")
+					.tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+					.register(this.meterRegistry)
+					.record(this.statementCountingInspector.count());
+		}
+	}
+}
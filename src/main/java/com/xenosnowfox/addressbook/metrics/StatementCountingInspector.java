@@ -0,0 +1,33 @@
+package com.xenosnowfox.addressbook.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements that Hibernate prepares on the current thread, without altering them.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+	private final ThreadLocal<int[]> counts = ThreadLocal.withInitial(() -> new int[1]);
+
+	@Override
+	public String inspect(final String withSql) {
+		this.counts.get()[0]++;
+		return withSql;
+	}
+
+	/**
+	 * Resets the count for the current thread to zero.
+	 */
+	public void reset() {
+		this.counts.get()[0] = 0;
+	}
+
+	/**
+	 * Returns the number of statements prepared on the current thread since it was last reset.
+	 *
+	 * @return Number of statements.
+	 */
+	public int count() {
+		return this.counts.get()[0];
+	}
+}
@@ -0,0 +1,81 @@
+package com.xenosnowfox.addressbook.repository;
+
+import com.xenosnowfox.addressbook.entity.AddressBookContact;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Repository for persisting the links between Address Books and Contacts.
+ */
+@Repository
+public interface AddressBookContactRepository extends CrudRepository<AddressBookContact, Integer> {
+
+	/**
+	 * Retrieves the link between the specified address book and contact.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 * @param withContactIdentifier
+	 * 		Identifier of the contact.
+	 * @return Optional describing the link.
+	 */
+	Optional<AddressBookContact> findByAddressBookIdAndContactId(Integer withAddressBookIdentifier
+			, Integer withContactIdentifier);
+
+	/**
+	 * Retrieves the identifiers of every address book that any of the specified contacts belong to, without loading
+	 * either.
+	 *
+	 * @param withContactIdentifiers
+	 * 		Identifiers of the contacts.
+	 * @return List of distinct address book identifiers, ordered by identifier.
+	 */
+	@Query("select distinct abc.addressBook.id from AddressBookContact abc where abc.contact.id in :contactIds"
+			+ " order by abc.addressBook.id")
+	List<Integer> findAddressBookIdsByContactIdIn(@Param("contactIds") Collection<Integer> withContactIdentifiers);
+
+	/**
+	 * Streams the identifiers of every address book and contact that are linked, without loading either.
+	 * <p>
+	 * The stream must be consumed, and closed, within a transaction.
+	 *
+	 * @return Stream of memberships.
+	 */
+	@Query("select abc.addressBook.id as addressBookId, abc.contact.id as contactId from AddressBookContact abc")
+	Stream<Membership> streamAllMemberships();
+
+	/**
+	 * Deletes every link to the specified address book with a single statement.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 * @return Number of links deleted.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from AddressBookContact abc where abc.addressBook.id = :addressBookId")
+	int deleteAllByAddressBookId(@Param("addressBookId") Integer withAddressBookIdentifier);
+
+	/**
+	 * Identifiers of an address book and a contact that belongs to it.
+	 */
+	interface Membership {
+
+		/**
+		 * @return Identifier of the address book.
+		 */
+		Integer getAddressBookId();
+
+		/**
+		 * @return Identifier of the contact.
+		 */
+		Integer getContactId();
+	}
+}
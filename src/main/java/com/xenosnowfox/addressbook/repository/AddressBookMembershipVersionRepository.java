@@ -0,0 +1,32 @@
+package com.xenosnowfox.addressbook.repository;
+
+import com.xenosnowfox.addressbook.entity.AddressBookMembershipVersion;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+/**
+ * Repository for persisting the membership versions of Address Books.
+ */
+@Repository
+public interface AddressBookMembershipVersionRepository
+		extends CrudRepository<AddressBookMembershipVersion, Integer> {
+
+	/**
+	 * Increments the membership version of the specified address books, with a single statement.
+	 * <p>
+	 * Membership versions are not cached, so the update evicts nothing from the second level cache.
+	 *
+	 * @param withAddressBookIdentifiers
+	 * 		Identifiers of the address books.
+	 * @return Number of membership versions updated.
+	 */
+	@Modifying
+	@Query("update AddressBookMembershipVersion v set v.version = v.version + 1"
+			+ " where v.addressBookId in :addressBookIds")
+	int incrementVersions(@Param("addressBookIds") Collection<Integer> withAddressBookIdentifiers);
+}
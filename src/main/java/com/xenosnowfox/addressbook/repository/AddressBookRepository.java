@@ -1,12 +1,104 @@
 package com.xenosnowfox.addressbook.repository;
 
 import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.response.AddressBookResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Repository for persisting Address Books.
  */
 @Repository
 public interface AddressBookRepository extends CrudRepository<AddressBook, Integer> {
+
+	/**
+	 * Streams the identifier of every address book, without loading any entities.
+	 * <p>
+	 * The stream must be consumed, and closed, within a transaction.
+	 *
+	 * @return Stream of address book identifiers.
+	 */
+	@Query("select ab.id from AddressBook ab")
+	Stream<Integer> streamAllIds();
+
+	/**
+	 * Reads a page of the address books whose identifier is greater than the one specified, without loading any
+	 * entities.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier that the page should start after.
+	 * @param withPageable
+	 * 		Page size and ordering.
+	 * @return Slice of address books.
+	 */
+	@Query("select new com.xenosnowfox.addressbook.response.AddressBookResponse(ab.id, ab.name)"
+			+ " from AddressBook ab where ab.id > :id")
+	Slice<AddressBookResponse> findResponsesByIdGreaterThan(@Param("id") Integer withIdentifier
+			, Pageable withPageable);
+
+	/**
+	 * Reads the specified address book, without loading the entity.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier of the address book.
+	 * @return Optional describing the address book.
+	 */
+	@Query("select new com.xenosnowfox.addressbook.response.AddressBookResponse(ab.id, ab.name)"
+			+ " from AddressBook ab where ab.id = :id")
+	Optional<AddressBookResponse> findResponseById(@Param("id") Integer withIdentifier);
+
+	/**
+	 * Reads the specified address books in a single query, without loading any entities.
+	 *
+	 * @param withIdentifiers
+	 * 		Identifiers of the address books.
+	 * @return List of address books, ordered by identifier.
+	 */
+	@Query("select new com.xenosnowfox.addressbook.response.AddressBookResponse(ab.id, ab.name)"
+			+ " from AddressBook ab where ab.id in :ids order by ab.id")
+	List<AddressBookResponse> findResponsesByIdIn(@Param("ids") Collection<Integer> withIdentifiers);
+
+	/**
+	 * Reads the address books that the specified contact belongs to, without loading any entities.
+	 *
+	 * @param withContactIdentifier
+	 * 		Identifier of the contact.
+	 * @return List of address books, ordered by identifier.
+	 */
+	@Query("select new com.xenosnowfox.addressbook.response.AddressBookResponse(ab.id, ab.name)"
+			+ " from AddressBookContact abc join abc.addressBook ab where abc.contact.id = :contactId order by ab.id")
+	List<AddressBookResponse> findResponsesByContactId(@Param("contactId") Integer withContactIdentifier);
+
+	/**
+	 * Retrieves the membership version of the specified address book, by primary key, without loading the address
+	 * book or touching its contacts.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier of the address book.
+	 * @return Optional describing the membership version, which is empty if the address book does not exist.
+	 */
+	@Query("select coalesce(v.version, 0) from AddressBook ab"
+			+ " left join AddressBookMembershipVersion v on v.addressBookId = ab.id where ab.id = :id")
+	Optional<Long> findMembershipVersionById(@Param("id") Integer withIdentifier);
+
+	/**
+	 * Deletes the specified address book with a single statement, without cascading to its links.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier of the address book.
+	 * @return Number of address books deleted.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from AddressBook ab where ab.id = :id")
+	int deleteInBulkById(@Param("id") Integer withIdentifier);
 }
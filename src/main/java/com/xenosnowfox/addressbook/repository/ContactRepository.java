@@ -1,12 +1,309 @@
 package com.xenosnowfox.addressbook.repository;
 
 import com.xenosnowfox.addressbook.entity.Contact;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Repository for persisting Contacts.
  */
 @Repository
 public interface ContactRepository extends CrudRepository<Contact, Integer> {
+
+	/**
+	 * Retrieves a page of identifiers of the contacts whose identifier is greater than the one specified, without
+	 * loading the contacts.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier that the page should start after.
+	 * @param withPageable
+	 * 		Page size and ordering.
+	 * @return Slice of contact identifiers.
+	 */
+	@Query("select c.id from Contact c where c.id > :id")
+	Slice<Integer> findIdsByIdGreaterThan(@Param("id") Integer withIdentifier, Pageable withPageable);
+
+	/**
+	 * Retrieves a page of the normalized names and identifiers of the contacts whose normalized name starts with the
+	 * specified prefix, after the specified name and identifier, without loading the contacts.
+	 * <p>
+	 * Paged in order of name and then identifier, so each page is a range scan of the name index that starts where the
+	 * previous page ended, however many contacts share the prefix.
+	 *
+	 * @param withPrefix
+	 * 		Normalized name prefix.
+	 * @param withSearchName
+	 * 		Normalized name that the page should start at; the prefix for the first page.
+	 * @param withIdentifier
+	 * 		Identifier that the page should start after, amongst the contacts with that name.
+	 * @param withPageable
+	 * 		Page size; ordered by name and then identifier.
+	 * @return Slice of contact names.
+	 */
+	@Query("select c.id as id, c.searchName as searchName from Contact c"
+			+ " where c.searchName like :#{escape(#prefix)}% escape :#{escapeCharacter()}"
+			+ " and c.searchName >= :searchName and (c.searchName > :searchName or c.id > :id)")
+	Slice<SearchName> findSearchNamesByPrefix(@Param("prefix") String withPrefix
+			, @Param("searchName") String withSearchName, @Param("id") Integer withIdentifier, Pageable withPageable);
+
+	/**
+	 * Retrieves a page of identifiers of the contacts that have the specified phone number, using the phone number
+	 * index, without loading the contacts.
+	 *
+	 * @param withNumber
+	 * 		Numeric key of the phone number.
+	 * @param withIdentifier
+	 * 		Identifier that the page should start after.
+	 * @param withPageable
+	 * 		Page size and ordering.
+	 * @return Slice of contact identifiers.
+	 */
+	@Query("select c.id from Contact c join c.phoneNumbers p where p.number = :number and c.id > :id")
+	Slice<Integer> findIdsByPhoneNumberAndIdGreaterThan(@Param("number") long withNumber
+			, @Param("id") Integer withIdentifier, Pageable withPageable);
+
+	/**
+	 * Streams the numeric key of every phone number, along with the contact that it belongs to, without loading any
+	 * entities.
+	 * <p>
+	 * Rows are read from the database in batches as the stream is consumed, so the stream must be consumed, and
+	 * closed, within a transaction.
+	 *
+	 * @return Stream of phone number keys.
+	 */
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("select c.id as contactId, p.number as number from Contact c join c.phoneNumbers p")
+	Stream<PhoneNumberKey> streamAllPhoneNumberKeys();
+
+	/**
+	 * Reads every contact in the specified address book, along with its phone numbers, in a single query and without
+	 * loading any entities.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 * @return List of rows, one per phone number, ordered by contact identifier and then phone number position.
+	 */
+	@Query("select c.id as id, c.version as version, c.name as name"
+			+ ", index(p) as position, p.display as phoneNumber"
+			+ " from Contact c left join c.phoneNumbers p where c.id in ("
+			+ "select abc.contact.id from AddressBookContact abc where abc.addressBook.id = :addressBookId"
+			+ ") order by c.id, index(p)")
+	List<ContactRow> findRowsByAddressBookId(@Param("addressBookId") Integer withAddressBookIdentifier);
+
+	/**
+	 * Retrieves a page of identifiers of the contacts in the specified address book, whose identifier is greater than
+	 * the one specified, without loading the contacts.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 * @param withIdentifier
+	 * 		Identifier that the page should start after.
+	 * @param withPageable
+	 * 		Page size; the identifiers are always in ascending order.
+	 * @return List of contact identifiers.
+	 */
+	@Query("select abc.contact.id from AddressBookContact abc"
+			+ " where abc.addressBook.id = :addressBookId and abc.contact.id > :id order by abc.contact.id")
+	List<Integer> findIdsByAddressBookIdAndIdGreaterThan(@Param("addressBookId") Integer withAddressBookIdentifier
+			, @Param("id") Integer withIdentifier, Pageable withPageable);
+
+	/**
+	 * Reads the specified contacts, along with their phone numbers, in a single query and without loading any
+	 * entities.
+	 *
+	 * @param withIdentifiers
+	 * 		Identifiers of the contacts.
+	 * @return List of rows, one per phone number, ordered by contact identifier and then phone number position.
+	 */
+	@Query("select c.id as id, c.version as version, c.name as name"
+			+ ", index(p) as position, p.display as phoneNumber"
+			+ " from Contact c left join c.phoneNumbers p where c.id in :ids order by c.id, index(p)")
+	List<ContactRow> findRowsByIdIn(@Param("ids") Collection<Integer> withIdentifiers);
+
+	/**
+	 * Retrieves a page of the unique contacts across the specified address books, whose duplicate key is greater than
+	 * the one specified, in duplicate key order.
+	 * <p>
+	 * Contacts are considered duplicates of each other when they have the same name, ignoring case and surrounding
+	 * whitespace, and the same set of phone numbers, ignoring formatting; that is, when they have the same duplicate
+	 * key. Each page is a range scan over the duplicate key index, each group of duplicates being represented by the
+	 * contact with the lowest identifier.
+	 *
+	 * @param withAddressBookIdentifiers
+	 * 		Identifiers of the address books.
+	 * @param withDuplicateKey
+	 * 		Duplicate key that the page should start after.
+	 * @param withLimit
+	 * 		Maximum number of contacts to return.
+	 * @return List of unique contacts, in ascending duplicate key order.
+	 */
+	@Query(nativeQuery = true, value = "select min(c.id) as id, c.duplicate_key as duplicateKey from contact c"
+			+ " where c.duplicate_key > :duplicateKey"
+			+ " and exists ("
+			+ "select 1 from address_book_contact abc"
+			+ " where abc.contact_id = c.id and abc.addressbook_id in (:addressBookIds)"
+			+ ")"
+			+ " group by c.duplicate_key"
+			+ " order by c.duplicate_key"
+			+ " limit :limit")
+	List<DuplicateKey> findUniqueByAddressBookIds(@Param("addressBookIds") Collection<Integer> withAddressBookIdentifiers
+			, @Param("duplicateKey") String withDuplicateKey, @Param("limit") int withLimit);
+
+	/**
+	 * Retrieves the identifiers of the other contacts that share at least one phone number with the specified
+	 * contact, probing the phone number index once for each of its phone numbers.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier of the contact.
+	 * @return List of contact identifiers, in ascending order.
+	 */
+	@Query(nativeQuery = true, value = "select distinct other.contact_id from contact_phone_number p"
+			+ " join contact_phone_number other on other.phone_number = p.phone_number"
+			+ " where p.contact_id = :id and other.contact_id <> :id"
+			+ " order by other.contact_id")
+	List<Integer> findIdsSharingPhoneNumbersWithId(@Param("id") Integer withIdentifier);
+
+	/**
+	 * Deletes, with a single statement, the phone numbers of every contact that belongs to the specified address book
+	 * and to no other.
+	 * <p>
+	 * Bulk deletes do not cascade to element collections, so this must be called before
+	 * {@link #deleteAllExclusiveToAddressBook(Integer)}.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 * @return Number of phone numbers deleted.
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query(nativeQuery = true, value = "delete from contact_phone_number where contact_id in ("
+			+ "select abc.contact_id from address_book_contact abc where abc.addressbook_id = :addressBookId"
+			+ ") and not exists ("
+			+ "select other.id from address_book_contact other"
+			+ " where other.contact_id = contact_phone_number.contact_id and other.addressbook_id <> :addressBookId"
+			+ ")")
+	int deletePhoneNumbersExclusiveToAddressBook(@Param("addressBookId") Integer withAddressBookIdentifier);
+
+	/**
+	 * Retrieves the identifiers of every contact that belongs to the specified address book and to no other; the
+	 * contacts that deleting the address book deletes.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 * @return List of contact identifiers.
+	 */
+	@Query("select abc.contact.id from AddressBookContact abc where abc.addressBook.id = :addressBookId"
+			+ " and not exists ("
+			+ "select other.id from AddressBookContact other"
+			+ " where other.contact.id = abc.contact.id and other.addressBook.id <> :addressBookId"
+			+ ")")
+	List<Integer> findIdsExclusiveToAddressBook(@Param("addressBookId") Integer withAddressBookIdentifier);
+
+	/**
+	 * Deletes, with a single statement, every contact that belongs to the specified address book and to no other.
+	 * <p>
+	 * The database cascades the deletion to the address book links of the deleted contacts.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 * @return Number of contacts deleted.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Contact c where c.id in ("
+			+ "select abc.contact.id from AddressBookContact abc where abc.addressBook.id = :addressBookId"
+			+ ") and not exists ("
+			+ "select other.id from AddressBookContact other"
+			+ " where other.contact.id = c.id and other.addressBook.id <> :addressBookId"
+			+ ")")
+	int deleteAllExclusiveToAddressBook(@Param("addressBookId") Integer withAddressBookIdentifier);
+
+	/**
+	 * Normalized name of a contact, along with its identifier.
+	 */
+	interface SearchName {
+
+		/**
+		 * @return Identifier of the contact.
+		 */
+		Integer getId();
+
+		/**
+		 * @return Normalized name of the contact.
+		 */
+		String getSearchName();
+	}
+
+	/**
+	 * Key shared by a group of duplicate contacts, and the lowest identifier among them.
+	 */
+	interface DuplicateKey {
+
+		/**
+		 * @return Identifier of the contact.
+		 */
+		Integer getId();
+
+		/**
+		 * @return Duplicate key of the contact.
+		 */
+		String getDuplicateKey();
+	}
+
+	/**
+	 * Numeric key of a phone number and the contact that it belongs to.
+	 */
+	interface PhoneNumberKey {
+
+		/**
+		 * @return Identifier of the contact.
+		 */
+		Integer getContactId();
+
+		/**
+		 * @return Numeric key of the phone number.
+		 */
+		Long getNumber();
+	}
+
+	/**
+	 * A contact along with one of its phone numbers; a contact without any phone numbers is read as a single row
+	 * without a phone number.
+	 */
+	interface ContactRow {
+
+		/**
+		 * @return Identifier of the contact.
+		 */
+		Integer getId();
+
+		/**
+		 * @return Version of the contact.
+		 */
+		Integer getVersion();
+
+		/**
+		 * @return Contact person's name.
+		 */
+		String getName();
+
+		/**
+		 * @return Position of the phone number, or {@code null} if the contact has no phone numbers.
+		 */
+		Integer getPosition();
+
+		/**
+		 * @return Phone number at the position.
+		 */
+		String getPhoneNumber();
+	}
 }
@@ -0,0 +1,50 @@
+package com.xenosnowfox.addressbook.response;
+
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Response describing an address book, read directly from the database rather than from a managed entity.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class AddressBookResponse {
+
+	/**
+	 * Identifier of the address book.
+	 */
+	private final Integer id;
+
+	/**
+	 * Human readable name representing the address book.
+	 */
+	private final String name;
+
+	/**
+	 * Instantiates a new instance; also used by the repositories' constructor expressions.
+	 *
+	 * @param withId
+	 * 		Identifier of the address book.
+	 * @param withName
+	 * 		Name of the address book.
+	 */
+	public AddressBookResponse(@NonNull final Integer withId, @NonNull final String withName) {
+		this.id = withId;
+		this.name = withName;
+	}
+
+	/**
+	 * Creates a response describing an address book that has just been written.
+	 *
+	 * @param withAddressBook
+	 * 		Address book to describe.
+	 * @return Address book response.
+	 */
+	public static AddressBookResponse of(@NonNull final AddressBook withAddressBook) {
+		return new AddressBookResponse(withAddressBook.getId(), withAddressBook.getName());
+	}
+}
@@ -0,0 +1,76 @@
+package com.xenosnowfox.addressbook.response;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Response wrapper describing the usage of a single second-level cache region.
+ */
+@Getter
+@ToString
+public class CacheStatisticsResponse {
+
+	/**
+	 * Name of the cache region.
+	 */
+	private final String region;
+
+	/**
+	 * Number of lookups that were served from the cache.
+	 */
+	private final long hitCount;
+
+	/**
+	 * Number of lookups that had to go to the database.
+	 */
+	private final long missCount;
+
+	/**
+	 * Number of entries that have been put into the cache.
+	 */
+	private final long putCount;
+
+	/**
+	 * Number of entries currently held in memory, or a negative value if the cache provider does not report it.
+	 */
+	private final long elementCountInMemory;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withRegion
+	 * 		Name of the cache region.
+	 * @param withHitCount
+	 * 		Number of cache hits.
+	 * @param withMissCount
+	 * 		Number of cache misses.
+	 * @param withPutCount
+	 * 		Number of cache puts.
+	 * @param withElementCountInMemory
+	 * 		Number of entries held in memory.
+	 */
+	public CacheStatisticsResponse(
+			@NonNull final String withRegion
+			, final long withHitCount
+			, final long withMissCount
+			, final long withPutCount
+			, final long withElementCountInMemory
+	) {
+		this.region = withRegion;
+		this.hitCount = withHitCount;
+		this.missCount = withMissCount;
+		this.putCount = withPutCount;
+		this.elementCountInMemory = withElementCountInMemory;
+	}
+
+	/**
+	 * Returns the proportion of lookups that were served from the cache.
+	 *
+	 * @return Hit ratio between 0 and 1.
+	 */
+	public double getHitRatio() {
+		final long lookups = this.hitCount + this.missCount;
+		return lookups == 0 ? 0 : (double) this.hitCount / lookups;
+	}
+}
@@ -0,0 +1,116 @@
+package com.xenosnowfox.addressbook.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.xenosnowfox.addressbook.event.ChangeType;
+import com.xenosnowfox.addressbook.event.EntityType;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response describing a single committed change, as recorded in the change log.
+ * <p>
+ * The deletion of an address book implies that every contact was removed from it; each contact deleted along with it
+ * is recorded as a change of its own, but the links to contacts that remain in other address books are not.
+ */
+@Getter
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeResponse {
+
+	/**
+	 * Position of the change in the change log; every change has a greater sequence number than those committed
+	 * before it, without gaps.
+	 */
+	private final long sequence;
+
+	/**
+	 * When the change was committed.
+	 */
+	private final Instant occurredAt;
+
+	/**
+	 * Kind of entity that was changed.
+	 */
+	private final EntityType entityType;
+
+	/**
+	 * Kind of change that was made.
+	 */
+	private final ChangeType changeType;
+
+	/**
+	 * Identifier of the address book that was changed, or that the contact was added to or removed from.
+	 */
+	private final Integer addressBookId;
+
+	/**
+	 * Identifier of the contact that was changed, or that was added to or removed from the address book.
+	 */
+	private final Integer contactId;
+
+	/**
+	 * Name of the address book or contact after the change, if it was created or modified.
+	 */
+	private final String name;
+
+	/**
+	 * Phone numbers of the contact after the change, if they were modified.
+	 */
+	private final List<String> phoneNumbers;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withSequence
+	 * 		Position of the change in the change log, or zero if it has yet to be assigned one.
+	 * @param withOccurredAt
+	 * 		When the change was committed.
+	 * @param withEntityType
+	 * 		Kind of entity that was changed.
+	 * @param withChangeType
+	 * 		Kind of change that was made.
+	 * @param withAddressBookId
+	 * 		Identifier of the address book, if any.
+	 * @param withContactId
+	 * 		Identifier of the contact, if any.
+	 * @param withName
+	 * 		Name after the change, if any.
+	 * @param withPhoneNumbers
+	 * 		Phone numbers after the change, if any.
+	 */
+	public ChangeResponse(
+			final long withSequence
+			, @NonNull final Instant withOccurredAt
+			, @NonNull final EntityType withEntityType
+			, @NonNull final ChangeType withChangeType
+			, final Integer withAddressBookId
+			, final Integer withContactId
+			, final String withName
+			, final List<String> withPhoneNumbers
+	) {
+		this.sequence = withSequence;
+		this.occurredAt = withOccurredAt;
+		this.entityType = withEntityType;
+		this.changeType = withChangeType;
+		this.addressBookId = withAddressBookId;
+		this.contactId = withContactId;
+		this.name = withName;
+		this.phoneNumbers = withPhoneNumbers == null ? null : List.copyOf(withPhoneNumbers);
+	}
+
+	/**
+	 * Returns a copy of this change at the specified position in the change log.
+	 *
+	 * @param withSequence
+	 * 		Position of the change in the change log.
+	 * @return Copy of the change.
+	 */
+	public ChangeResponse withSequence(final long withSequence) {
+		return new ChangeResponse(withSequence, this.occurredAt, this.entityType, this.changeType
+				, this.addressBookId, this.contactId, this.name, this.phoneNumbers);
+	}
+}
@@ -1,10 +1,17 @@
 package com.xenosnowfox.addressbook.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.xenosnowfox.addressbook.util.CursorSlice;
+import com.xenosnowfox.addressbook.util.PaginationUtil;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
+import org.springframework.data.domain.Slice;
 
-import java.util.stream.StreamSupport;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
 
 /**
  * Response wrapper for returning a collection of items.
@@ -18,7 +25,24 @@ public class CollectionResponse<ENTITY> {
 	/**
 	 * Collection of items being returned from the request.
 	 */
-	Iterable<ENTITY> items;
+	Collection<ENTITY> items;
+
+	/**
+	 * Number of items contained in the response collection.
+	 */
+	long count;
+
+	/**
+	 * Total number of items available across all pages, or {@code null} if the response is not paginated.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	Long total;
+
+	/**
+	 * Cursor token that can be used to request the next page of items, or {@code null} if this is the last page.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	String nextCursor;
 
 	/**
 	 * Instantiates a new instance.
@@ -26,16 +50,90 @@ public class CollectionResponse<ENTITY> {
 	 * @param withItems Items to be returned.
 	 */
 	public CollectionResponse(@NonNull final Iterable<ENTITY> withItems) {
-		this.items = withItems;
+		this(withItems, null, null);
+	}
+
+	/**
+	 * Instantiates a new instance representing a single page of items.
+	 *
+	 * @param withItems Items to be returned.
+	 * @param withTotal Total number of items available across all pages, or {@code null} if unknown.
+	 * @param withNextCursor Cursor token for the next page, or {@code null} if this is the last page.
+	 */
+	public CollectionResponse(
+			@NonNull final Iterable<ENTITY> withItems
+			, final Long withTotal
+			, final String withNextCursor
+	) {
+		this.items = toCollection(withItems);
+		this.count = this.items.size();
+		this.total = withTotal;
+		this.nextCursor = withNextCursor;
+	}
+
+	/**
+	 * Creates a response from a slice of items that was retrieved using keyset pagination.
+	 *
+	 * @param withSlice Slice of items, ordered by identifier.
+	 * @param withTotal Total number of items available across all pages, or {@code null} if unknown.
+	 * @param withIdentifierFunction Function that returns the identifier of an item.
+	 * @param <ENTITY> Data type of the response object.
+	 * @return Collection response.
+	 */
+	public static <ENTITY> CollectionResponse<ENTITY> fromSlice(
+			@NonNull final Slice<ENTITY> withSlice
+			, final Long withTotal
+			, @NonNull final Function<ENTITY, Integer> withIdentifierFunction
+	) {
+		final List<ENTITY> items = withSlice.getContent();
+		final String nextCursor = withSlice.hasNext() && !items.isEmpty()
+				? PaginationUtil.encodeCursor(withIdentifierFunction.apply(items.get(items.size() - 1)))
+				: null;
+		return new CollectionResponse<>(items, withTotal, nextCursor);
+	}
+
+	/**
+	 * Creates a response from a slice of items that was retrieved using keyset pagination, where the total number of
+	 * items is not known.
+	 *
+	 * @param withSlice Slice of items, ordered by identifier.
+	 * @param withIdentifierFunction Function that returns the identifier of an item.
+	 * @param <ENTITY> Data type of the response object.
+	 * @return Collection response.
+	 */
+	public static <ENTITY> CollectionResponse<ENTITY> fromSlice(
+			@NonNull final Slice<ENTITY> withSlice
+			, @NonNull final Function<ENTITY, Integer> withIdentifierFunction
+	) {
+		return fromSlice(withSlice, null, withIdentifierFunction);
+	}
+
+	/**
+	 * Creates a response from a slice of items that was retrieved using keyset pagination over a key other than the
+	 * identifier, and so carries its own cursor token.
+	 *
+	 * @param withSlice Slice of items, along with the cursor token for the next page.
+	 * @param <ENTITY> Data type of the response object.
+	 * @return Collection response.
+	 */
+	public static <ENTITY> CollectionResponse<ENTITY> fromSlice(@NonNull final CursorSlice<ENTITY> withSlice) {
+		return new CollectionResponse<>(withSlice.getContent(), null, withSlice.getNextCursor());
 	}
 
 	/**
-	 * Returns the number of items contained in the response collection.
+	 * Returns the provided items as a collection, copying them only if they are not already one.
 	 *
-	 * @return Number of items.
+	 * @param withItems Items to be returned.
+	 * @param <ENTITY> Data type of the response object.
+	 * @return Collection of items.
 	 */
-	public long getCount() {
-		return StreamSupport.stream(this.items.spliterator(), false)
-				.count();
+	private static <ENTITY> Collection<ENTITY> toCollection(final Iterable<ENTITY> withItems) {
+		if (withItems instanceof Collection) {
+			return (Collection<ENTITY>) withItems;
+		}
+
+		final List<ENTITY> list = new ArrayList<>();
+		withItems.forEach(list::add);
+		return list;
 	}
 }
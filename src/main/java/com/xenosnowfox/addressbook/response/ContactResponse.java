@@ -0,0 +1,75 @@
+package com.xenosnowfox.addressbook.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.xenosnowfox.addressbook.entity.Contact;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Response describing a contact, read directly from the database rather than from a managed entity, so it can be
+ * serialized after the transaction, and its connection, have been released.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class ContactResponse {
+
+	/**
+	 * Identifier of the contact.
+	 */
+	private final Integer id;
+
+	/**
+	 * Version of the contact, from which its entity tag is derived.
+	 */
+	@JsonIgnore
+	private final Integer version;
+
+	/**
+	 * Contact person's name.
+	 */
+	private final String name;
+
+	/**
+	 * Phone numbers associated with this contact, in order.
+	 */
+	private final List<String> phoneNumbers;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withId
+	 * 		Identifier of the contact.
+	 * @param withVersion
+	 * 		Version of the contact.
+	 * @param withName
+	 * 		Contact person's name.
+	 * @param withPhoneNumbers
+	 * 		Phone numbers of the contact, in order.
+	 */
+	public ContactResponse(@NonNull final Integer withId, final Integer withVersion
+			, @NonNull final String withName, @NonNull final List<String> withPhoneNumbers) {
+		this.id = withId;
+		this.version = withVersion;
+		this.name = withName;
+		this.phoneNumbers = Collections.unmodifiableList(new ArrayList<>(withPhoneNumbers));
+	}
+
+	/**
+	 * Creates a response describing a contact that has just been written, whose phone numbers are already loaded.
+	 *
+	 * @param withContact
+	 * 		Contact to describe.
+	 * @return Contact response.
+	 */
+	public static ContactResponse of(@NonNull final Contact withContact) {
+		return new ContactResponse(withContact.getId(), withContact.getVersion(), withContact.getName()
+				, withContact.getPhoneNumbers() == null ? List.of() : withContact.getPhoneNumbers());
+	}
+}
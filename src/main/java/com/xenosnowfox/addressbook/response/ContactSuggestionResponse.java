@@ -0,0 +1,36 @@
+package com.xenosnowfox.addressbook.response;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Response describing a contact that matched a type-ahead query.
+ */
+@Getter
+@ToString
+public class ContactSuggestionResponse {
+
+	/**
+	 * Identifier of the contact.
+	 */
+	private final int id;
+
+	/**
+	 * Contact person's name.
+	 */
+	private final String name;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withId
+	 * 		Identifier of the contact.
+	 * @param withName
+	 * 		Contact person's name.
+	 */
+	public ContactSuggestionResponse(final int withId, @NonNull final String withName) {
+		this.id = withId;
+		this.name = withName;
+	}
+}
@@ -0,0 +1,69 @@
+package com.xenosnowfox.addressbook.response;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Response wrapper describing the outcome of a bulk import.
+ */
+@Getter
+@ToString
+public class ImportResponse {
+
+	/**
+	 * Number of items that were successfully imported.
+	 */
+	private final long imported;
+
+	/**
+	 * Items that could not be imported, along with the reason why.
+	 */
+	private final List<ImportError> errors;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withImported
+	 * 		Number of items that were successfully imported.
+	 * @param withErrors
+	 * 		Items that could not be imported.
+	 */
+	public ImportResponse(final long withImported, @NonNull final List<ImportError> withErrors) {
+		this.imported = withImported;
+		this.errors = withErrors;
+	}
+
+	/**
+	 * Describes a single item that could not be imported.
+	 */
+	@Getter
+	@ToString
+	public static class ImportError {
+
+		/**
+		 * Position of the item within the submitted data, starting from 1.
+		 */
+		private final long row;
+
+		/**
+		 * Human readable reason why the item could not be imported.
+		 */
+		private final String error;
+
+		/**
+		 * Instantiates a new instance.
+		 *
+		 * @param withRow
+		 * 		Position of the item within the submitted data.
+		 * @param withError
+		 * 		Human readable error message.
+		 */
+		public ImportError(final long withRow, @NonNull final String withError) {
+			this.row = withRow;
+			this.error = withError;
+		}
+	}
+}
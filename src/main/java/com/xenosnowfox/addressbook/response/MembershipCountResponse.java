@@ -0,0 +1,35 @@
+package com.xenosnowfox.addressbook.response;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Response describing the number of contacts that belong to an address book.
+ */
+@Getter
+@ToString
+public class MembershipCountResponse {
+
+	/**
+	 * Identifier of the address book.
+	 */
+	private final int addressBookId;
+
+	/**
+	 * Number of contacts belonging to the address book.
+	 */
+	private final long contacts;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withAddressBookId
+	 * 		Identifier of the address book.
+	 * @param withContacts
+	 * 		Number of contacts belonging to the address book.
+	 */
+	public MembershipCountResponse(final int withAddressBookId, final long withContacts) {
+		this.addressBookId = withAddressBookId;
+		this.contacts = withContacts;
+	}
+}
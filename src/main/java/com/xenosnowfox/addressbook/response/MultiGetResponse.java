@@ -0,0 +1,66 @@
+package com.xenosnowfox.addressbook.response;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Response wrapper for returning the items that were requested by their identifiers, along with the identifiers of
+ * those that could not be found.
+ *
+ * @param <ENTITY> Data type of the response object.
+ */
+@Getter
+@ToString(callSuper = true)
+public class MultiGetResponse<ENTITY> extends CollectionResponse<ENTITY> {
+
+	/**
+	 * Identifiers that were requested but do not exist, in ascending order.
+	 */
+	private final Collection<Integer> missing;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withItems Items that were found.
+	 * @param withMissing Identifiers that were not found.
+	 */
+	public MultiGetResponse(@NonNull final Iterable<ENTITY> withItems, @NonNull final Collection<Integer> withMissing) {
+		super(withItems);
+		this.missing = withMissing;
+	}
+
+	/**
+	 * Creates a response from the items that were found for the requested identifiers.
+	 *
+	 * @param withIdentifiers Requested identifiers, distinct and in ascending order, as returned by
+	 * {@link com.xenosnowfox.addressbook.util.IdentifierUtil#distinctOf(Collection)}.
+	 * @param withItems Items that were found.
+	 * @param withIdentifierFunction Function that returns the identifier of an item.
+	 * @param <ENTITY> Data type of the response object.
+	 * @return Multi-get response.
+	 */
+	public static <ENTITY> MultiGetResponse<ENTITY> of(
+			@NonNull final Collection<Integer> withIdentifiers
+			, @NonNull final List<ENTITY> withItems
+			, @NonNull final Function<ENTITY, Integer> withIdentifierFunction
+	) {
+		final Set<Integer> found = withItems.stream()
+				.map(withIdentifierFunction)
+				.collect(Collectors.toSet());
+		final List<Integer> missing = new ArrayList<>();
+		for (final Integer identifier : withIdentifiers) {
+			if (!found.contains(identifier)) {
+				missing.add(identifier);
+			}
+		}
+		return new MultiGetResponse<>(withItems, missing);
+	}
+}
@@ -0,0 +1,58 @@
+package com.xenosnowfox.addressbook.serialization;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Offers the Smile and CBOR binary encodings of the JSON representations, for clients that ask for them with an
+ * {@code Accept} or {@code Content-Type} header; JSON remains the default.
+ * <p>
+ * Both are written by Jackson from the same object model, and with the same configuration, as JSON, so the schema
+ * published in the API spec applies to every format. Smile additionally writes each repeated property name only once
+ * per response.
+ */
+@Configuration
+public class BinaryFormatConfiguration {
+
+	/**
+	 * Media type of the Smile encoding.
+	 */
+	public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+	/**
+	 * Reads and writes the Smile encoding.
+	 *
+	 * @param withObjectMapperBuilder
+	 * 		Builder configured with the application's Jackson settings.
+	 * @return HTTP message converter.
+	 */
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+			final Jackson2ObjectMapperBuilder withObjectMapperBuilder
+	) {
+		return new MappingJackson2SmileHttpMessageConverter(withObjectMapperBuilder.createXmlMapper(false)
+				.factory(new SmileFactory())
+				.build());
+	}
+
+	/**
+	 * Reads and writes the CBOR encoding.
+	 *
+	 * @param withObjectMapperBuilder
+	 * 		Builder configured with the application's Jackson settings.
+	 * @return HTTP message converter.
+	 */
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+			final Jackson2ObjectMapperBuilder withObjectMapperBuilder
+	) {
+		return new MappingJackson2CborHttpMessageConverter(withObjectMapperBuilder.createXmlMapper(false)
+				.factory(new CBORFactory())
+				.build());
+	}
+}
@@ -2,11 +2,27 @@ package com.xenosnowfox.addressbook.service;
 
 import com.xenosnowfox.addressbook.entity.AddressBook;
 import com.xenosnowfox.addressbook.entity.AddressBookContact;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.event.AddressBookChangedEvent;
+import com.xenosnowfox.addressbook.event.ChangeType;
+import com.xenosnowfox.addressbook.exception.ContactNotFoundException;
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
+import com.xenosnowfox.addressbook.repository.AddressBookContactRepository;
 import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.response.AddressBookResponse;
+import com.xenosnowfox.addressbook.util.IdentifierUtil;
+import com.xenosnowfox.addressbook.util.PaginationUtil;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -17,7 +33,13 @@ public class AddressBookService {
 	private AddressBookRepository addressBookRepository;
 
 	@Autowired
-	private ContactService contactService;
+	private AddressBookContactRepository addressBookContactRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private ApplicationEventPublisher applicationEventPublisher;
 
 	/**
 	 * Validates the provided address book.
@@ -45,6 +67,64 @@ public class AddressBookService {
 		return this.addressBookRepository.findById(withIdentifier);
 	}
 
+	/**
+	 * Reads an Address Book by its identifier value.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier of the address book to retrieve.
+	 * @return Optional describing an address book.
+	 */
+	@Transactional(readOnly = true)
+	public Optional<AddressBookResponse> findResponseById(final Integer withIdentifier) {
+		return this.addressBookRepository.findResponseById(withIdentifier);
+	}
+
+	/**
+	 * Reads the address books that the specified contact belongs to.
+	 *
+	 * @param withContactIdentifier
+	 * 		Identifier of the contact.
+	 * @return Optional describing the address books, ordered by identifier, which is empty if the contact does not
+	 * 		exist.
+	 */
+	@Transactional(readOnly = true)
+	public Optional<List<AddressBookResponse>> findAllByContact(final Integer withContactIdentifier) {
+		if (!this.contactRepository.existsById(withContactIdentifier)) {
+			return Optional.empty();
+		}
+		return Optional.of(this.addressBookRepository.findResponsesByContactId(withContactIdentifier));
+	}
+
+	/**
+	 * Reads the address books with the specified identifiers, with a single query per
+	 * {@link IdentifierUtil#CHUNK_SIZE} identifiers.
+	 *
+	 * @param withIdentifiers
+	 * 		Identifiers of the address books to retrieve.
+	 * @return List of the Address Books that exist, ordered by identifier.
+	 * @throws InvalidRequestException
+	 * 		if no identifiers, or too many identifiers, were specified.
+	 */
+	@Transactional(readOnly = true)
+	public List<AddressBookResponse> findAllById(final Collection<Integer> withIdentifiers) {
+		return IdentifierUtil.findInChunks(IdentifierUtil.distinctOf(withIdentifiers)
+				, this.addressBookRepository::findResponsesByIdIn);
+	}
+
+	/**
+	 * Computes the value of an entity tag for the contacts of the specified address book, from the address book's membership
+	 * version alone, which is incremented whenever a contact is added to, removed from, or updated within, it.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier of the address book.
+	 * @return Optional describing the unquoted entity tag, which is empty if the address book does not exist.
+	 */
+	@Transactional(readOnly = true)
+	public Optional<String> findContactsETag(final Integer withIdentifier) {
+		return this.addressBookRepository.findMembershipVersionById(withIdentifier)
+				.map(String::valueOf);
+	}
+
 	/**
 	 * Retrieves all instances of address book.
 	 *
@@ -60,23 +140,107 @@ public class AddressBookService {
 	}
 
 	/**
-	 * Deletes the specified address book.
+	 * Counts every address book in the system, without loading them.
+	 *
+	 * @return Number of address books.
+	 */
+	@Transactional(readOnly = true)
+	public long count() {
+		return this.addressBookRepository.count();
+	}
+
+	/**
+	 * Reads a single page of address books, ordered by identifier.
+	 *
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, or {@code null} for the first page.
+	 * @param withLimit
+	 * 		Maximum number of address books to return.
+	 * @return Slice of Address Books.
+	 */
+	@Transactional(readOnly = true)
+	public Slice<AddressBookResponse> findPage(final String withCursor, final int withLimit) {
+		return this.findPage(PaginationUtil.decodeCursor(withCursor), withLimit);
+	}
+
+	/**
+	 * Reads a single page of address books, ordered by identifier.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier that the page should start after.
+	 * @param withLimit
+	 * 		Maximum number of address books to return.
+	 * @return Slice of Address Books.
+	 */
+	@Transactional(readOnly = true)
+	public Slice<AddressBookResponse> findPage(final int withIdentifier, final int withLimit) {
+		return this.addressBookRepository.findResponsesByIdGreaterThan(withIdentifier
+				, PaginationUtil.pageOf(withLimit));
+	}
+
+	/**
+	 * Deletes the specified address book, along with any contacts that do not belong to another address book.
+	 * <p>
+	 * The deletion is performed with a fixed number of set-based statements, regardless of the size of the address
+	 * book, so no contacts or links are loaded.
 	 *
 	 * @param withAddressBook
 	 * 		Address book to be deleted.
 	 */
+	@Transactional
 	public void delete(final AddressBook withAddressBook) {
-		Set<AddressBookContact> addressBookContacts = withAddressBook.getAddressBookContacts();
+		final Integer identifier = withAddressBook.getId();
+
+		// delete all contacts that would be orphaned, which also removes their links, noting which they were first
+		final List<Integer> deletedContactIds = this.contactRepository.findIdsExclusiveToAddressBook(identifier);
+		this.contactRepository.deletePhoneNumbersExclusiveToAddressBook(identifier);
+		this.contactRepository.deleteAllExclusiveToAddressBook(identifier);
+
+		// unlink the contacts that are shared with other address books
+		this.addressBookContactRepository.deleteAllByAddressBookId(identifier);
 
 		// delete the address book itself
-		this.addressBookRepository.delete(withAddressBook);
-
-		// delete all orphaned contacts
-		addressBookContacts.stream()
-				.map(AddressBookContact::getContact)
-				.filter(x -> x.getAddressBookContacts()
-						.isEmpty())
-				.forEach(this.contactService::delete);
+		this.addressBookRepository.deleteInBulkById(identifier);
+
+		// none of the above statements invoke the entity listeners
+		this.applicationEventPublisher.publishEvent(
+				new AddressBookChangedEvent(ChangeType.DELETED, identifier, null, deletedContactIds));
+	}
+
+	/**
+	 * Removes the specified contact from the address book, deleting the contact entirely if it does not belong to
+	 * another address book.
+	 *
+	 * @param withAddressBook
+	 * 		Address book to remove the contact from.
+	 * @param withContactIdentifier
+	 * 		Identifier of the contact to remove.
+	 * @throws ContactNotFoundException
+	 * 		if the contact does not exist, or isn't part of the address book.
+	 */
+	@Transactional
+	public void removeContact(final AddressBook withAddressBook, final Integer withContactIdentifier) {
+		final AddressBookContact addressBookContact = this.addressBookContactRepository
+				.findByAddressBookIdAndContactId(withAddressBook.getId(), withContactIdentifier)
+				.orElseThrow(ContactNotFoundException::new);
+
+		// unlink the contact from both sides, so neither re-saves the link through its cascade; the address book may
+		// have been loaded outside of this transaction, in which case its links were never loaded and cannot cascade
+		final Contact contact = addressBookContact.getContact();
+		contact.getAddressBookContacts()
+				.remove(addressBookContact);
+		if (withAddressBook.getAddressBookContacts() != null
+				&& Hibernate.isInitialized(withAddressBook.getAddressBookContacts())) {
+			withAddressBook.getAddressBookContacts()
+					.remove(addressBookContact);
+		}
+		this.addressBookContactRepository.delete(addressBookContact);
+
+		// delete the contact if it is now orphaned
+		if (contact.getAddressBookContacts()
+				.isEmpty()) {
+			this.contactRepository.delete(contact);
+		}
 	}
 
 	/**
@@ -0,0 +1,43 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.xenosnowfox.addressbook.response.CacheStatisticsResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class CacheStatisticsService {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	/**
+	 * Retrieves the usage statistics of every second-level cache region.
+	 *
+	 * @return List of cache region statistics, ordered by region name.
+	 */
+	public List<CacheStatisticsResponse> findAll() {
+		final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		return Stream.of(statistics.getSecondLevelCacheRegionNames())
+				.sorted()
+				.map(region -> {
+					final CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+					return new CacheStatisticsResponse(
+							region
+							, regionStatistics.getHitCount()
+							, regionStatistics.getMissCount()
+							, regionStatistics.getPutCount()
+							, regionStatistics.getElementCountInMemory()
+					);
+				})
+				.collect(Collectors.toList());
+	}
+}
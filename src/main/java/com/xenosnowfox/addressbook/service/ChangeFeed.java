@@ -0,0 +1,181 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xenosnowfox.addressbook.event.ChangeType;
+import com.xenosnowfox.addressbook.event.EntityType;
+import com.xenosnowfox.addressbook.response.ChangeResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Feed of the committed changes recorded in the change log, either read from a given sequence number or followed as
+ * they are written.
+ * <p>
+ * Followers are handed each batch of changes by the {@link ChangeLogWriter} once it has been written, through a
+ * bounded buffer per follower that is added to without waiting, so neither the writer nor the other followers are
+ * held up by a slow follower. A follower whose buffer overflows is disconnected with an error instead, and can resume
+ * from the sequence number of the last change it received.
+ */
+@Service
+public class ChangeFeed {
+
+	/**
+	 * Number of changes read from the change log per query whilst catching a follower up.
+	 */
+	public static final int PAGE_SIZE = 500;
+
+	private static final String SELECT_SINCE = "select id, occurred_at, entity_type, change_type, address_book_id"
+			+ ", contact_id, name, phone_numbers from change_event where id > ? order by id limit ?";
+
+	private static final TypeReference<List<String>> PHONE_NUMBERS = new TypeReference<>() {
+	};
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	/**
+	 * Maximum number of changes waiting to be sent to a single follower.
+	 */
+	@Value("${addressbook.change-feed.buffer-size:1000}")
+	private int bufferSize;
+
+	private final Set<Sinks.Many<ChangeResponse>> followers = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Retrieves the changes that follow the specified sequence number, in order.
+	 *
+	 * @param withSequence
+	 * 		Sequence number of the last change already known about, or zero for the first change.
+	 * @param withLimit
+	 * 		Maximum number of changes to return.
+	 * @return List of changes.
+	 */
+	public List<ChangeResponse> findSince(final long withSequence, final int withLimit) {
+		return this.jdbcTemplate.query(SELECT_SINCE, this.rowMapper(), withSequence, withLimit);
+	}
+
+	/**
+	 * Streams the changes that follow the specified sequence number; first those already in the change log, then
+	 * every change as it is written, without gaps or duplicates.
+	 *
+	 * @param withSequence
+	 * 		Sequence number of the last change already known about, or zero for the first change.
+	 * @return Flux of changes, which errors should the subscriber fall too far behind.
+	 */
+	public Flux<ChangeResponse> follow(final long withSequence) {
+		return Flux.defer(() -> {
+			// registered before the change log is read, so a batch written in the meantime is either read or buffered
+			final Sinks.Many<ChangeResponse> follower = Sinks.many()
+					.unicast()
+					.onBackpressureBuffer(new ArrayBlockingQueue<ChangeResponse>(this.bufferSize));
+			this.followers.add(follower);
+
+			final AtomicLong last = new AtomicLong(withSequence);
+			return Flux.concat(this.readSince(withSequence), follower.asFlux())
+					.filter(change -> change.getSequence() > last.get())
+					.doOnNext(change -> last.set(change.getSequence()))
+					.doFinally(signal -> this.followers.remove(follower));
+		});
+	}
+
+	/**
+	 * Returns the number of subscribers currently following the change log.
+	 *
+	 * @return Number of followers.
+	 */
+	public int countFollowers() {
+		return this.followers.size();
+	}
+
+	/**
+	 * Hands a batch of newly written changes to every follower, disconnecting any that have fallen too far behind.
+	 * <p>
+	 * Called by the change log writer, which never calls it concurrently.
+	 *
+	 * @param withChanges
+	 * 		Changes in the order that they were written.
+	 */
+	void publish(final List<ChangeResponse> withChanges) {
+		for (final Sinks.Many<ChangeResponse> follower : this.followers) {
+			for (final ChangeResponse change : withChanges) {
+				final Sinks.EmitResult result = follower.tryEmitNext(change);
+				if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+					follower.tryEmitError(new IllegalStateException("Fell more than " + this.bufferSize
+							+ " changes behind the change feed."));
+				}
+				if (result.isFailure()) {
+					this.followers.remove(follower);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a flux that reads the change log one page at a time, on demand, until the last change written.
+	 *
+	 * @param withSequence
+	 * 		Sequence number that the first page starts after.
+	 * @return Flux of changes.
+	 */
+	private Flux<ChangeResponse> readSince(final long withSequence) {
+		return Flux.<List<ChangeResponse>, Long>generate(() -> withSequence, (after, sink) -> {
+					final List<ChangeResponse> page = this.findSince(after, PAGE_SIZE);
+					if (!page.isEmpty()) {
+						sink.next(page);
+					}
+					if (page.size() < PAGE_SIZE) {
+						sink.complete();
+						return after;
+					}
+					return page.get(page.size() - 1)
+							.getSequence();
+				})
+				.subscribeOn(Schedulers.boundedElastic())
+				.concatMapIterable(Function.identity(), 1);
+	}
+
+	private RowMapper<ChangeResponse> rowMapper() {
+		return (resultSet, row) -> new ChangeResponse(
+				resultSet.getLong("id")
+				, resultSet.getTimestamp("occurred_at")
+				.toInstant()
+				, EntityType.valueOf(resultSet.getString("entity_type"))
+				, ChangeType.valueOf(resultSet.getString("change_type"))
+				, resultSet.getObject("address_book_id", Integer.class)
+				, resultSet.getObject("contact_id", Integer.class)
+				, resultSet.getString("name")
+				, this.fromJson(resultSet.getString("phone_numbers"))
+		);
+	}
+
+	private List<String> fromJson(final String withPhoneNumbers) {
+		if (withPhoneNumbers == null) {
+			return null;
+		}
+
+		try {
+			return this.objectMapper.readValue(withPhoneNumbers, PHONE_NUMBERS);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
@@ -0,0 +1,383 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xenosnowfox.addressbook.event.AddressBookChangedEvent;
+import com.xenosnowfox.addressbook.event.ChangeType;
+import com.xenosnowfox.addressbook.event.ContactChangedEvent;
+import com.xenosnowfox.addressbook.event.EntityType;
+import com.xenosnowfox.addressbook.event.MembershipChangedEvent;
+import com.xenosnowfox.addressbook.response.ChangeResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appends every committed change to the {@code change_event} table, without adding to the latency of the transaction
+ * that made it.
+ * <p>
+ * The change events published by the entity listeners are queued as each transaction commits, and written on a
+ * background thread in batches; whenever a full batch is waiting, or after the flush interval has elapsed. The queue
+ * is lock-free but bounded, so once it is full the committing threads wait for the writer to catch up rather than
+ * exhausting memory; should it not catch up within the backpressure timeout, as when the database keeps failing, the
+ * change is dropped and counted instead. Everything still queued is written when the application shuts down
+ * gracefully, but may be lost should it be killed.
+ * <p>
+ * Entries are always written in a transaction of their own, even when written synchronously as another transaction
+ * completes.
+ * <p>
+ * Each change is given its sequence number as it is written, by whichever thread holds the lock on the writer, so
+ * the change log only ever grows by whole batches of consecutive sequence numbers. Each batch is then handed to the
+ * {@link ChangeFeed}.
+ */
+@Slf4j
+@Service
+public class ChangeLogWriter implements SmartLifecycle {
+
+	private static final String INSERT = "insert into change_event"
+			+ " (id, occurred_at, entity_type, change_type, address_book_id, contact_id, name, phone_numbers)"
+			+ " values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private static final String SELECT_LAST_SEQUENCE = "select coalesce(max(id), 0) from change_event";
+
+	/**
+	 * How long a committing thread waits before checking again whether the full queue has space.
+	 */
+	private static final long BACKPRESSURE_PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Runs each write in a new transaction, rather than in the one whose commit queued the entries.
+	 */
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ChangeFeed changeFeed;
+
+	/**
+	 * Maximum number of entries waiting to be written.
+	 */
+	@Value("${addressbook.change-log.capacity:10000}")
+	private int capacity;
+
+	/**
+	 * Maximum number of entries written in a single batch.
+	 */
+	@Value("${addressbook.change-log.batch-size:500}")
+	private int batchSize;
+
+	/**
+	 * Longest an entry waits to be written when there is less than a full batch waiting.
+	 */
+	@Value("${addressbook.change-log.flush-interval:1s}")
+	private Duration flushInterval;
+
+	/**
+	 * Longest a committing thread waits for space in the full queue before dropping its entry.
+	 */
+	@Value("${addressbook.change-log.backpressure-timeout:5s}")
+	private Duration backpressureTimeout;
+
+	private final Queue<ChangeResponse> queue = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Number of entries that have been queued, or are about to be, but are not yet written.
+	 */
+	private final AtomicInteger pending = new AtomicInteger();
+
+	/**
+	 * Entries that were taken from the queue but could not be written, retried before any other entry.
+	 */
+	private final List<ChangeResponse> unwritten = new ArrayList<>();
+
+	/**
+	 * Sequence number of the last change written, or {@code null} until it has been read from the change log.
+	 */
+	private Long lastSequence;
+
+	private volatile boolean running;
+
+	private volatile Thread writer;
+
+	/**
+	 * Creates the template that each batch is written with.
+	 *
+	 * @param withTransactionManager
+	 * 		Transaction manager.
+	 */
+	@Autowired
+	void setTransactionManager(final PlatformTransactionManager withTransactionManager) {
+		this.transactionTemplate = new TransactionTemplate(withTransactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	/**
+	 * Records a change to a contact once the transaction that made it has committed.
+	 *
+	 * @param withEvent
+	 * 		Event describing the change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onContactChanged(final ContactChangedEvent withEvent) {
+		this.append(EntityType.CONTACT, withEvent.getChangeType(), null, withEvent.getContactId()
+				, withEvent.getName(), withEvent.getPhoneNumbers());
+	}
+
+	/**
+	 * Records a contact being added to, or removed from, an address book once the transaction that made it has
+	 * committed.
+	 *
+	 * @param withEvent
+	 * 		Event describing the change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onMembershipChanged(final MembershipChangedEvent withEvent) {
+		this.append(EntityType.MEMBERSHIP, withEvent.getChangeType(), withEvent.getAddressBookId()
+				, withEvent.getContactId(), null, null);
+	}
+
+	/**
+	 * Records a change to an address book once the transaction that made it has committed.
+	 * <p>
+	 * An address book is deleted in bulk, without its contacts being removed one by one, so the deletion of each of
+	 * the contacts that belonged to it alone is recorded here, before the address book's own. Links to the contacts
+	 * that it shared with other address books are not recorded individually.
+	 *
+	 * @param withEvent
+	 * 		Event describing the change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onAddressBookChanged(final AddressBookChangedEvent withEvent) {
+		for (int contactId : withEvent.getDeletedContactIds()) {
+			this.append(EntityType.CONTACT, ChangeType.DELETED, null, contactId, null, null);
+		}
+		this.append(EntityType.ADDRESS_BOOK, withEvent.getChangeType(), withEvent.getAddressBookId(), null
+				, withEvent.getName(), null);
+	}
+
+	/**
+	 * Writes every queued entry immediately, on the calling thread.
+	 *
+	 * @return {@code true} if every entry was written, or {@code false} if some are to be retried.
+	 */
+	public synchronized boolean flush() {
+		if (!this.unwritten.isEmpty() && !this.write(this.unwritten)) {
+			return false;
+		}
+		if (this.lastSequence == null) {
+			try {
+				this.lastSequence = this.transactionTemplate.execute(
+						status -> this.jdbcTemplate.queryForObject(SELECT_LAST_SEQUENCE, Long.class));
+			} catch (DataAccessException ex) {
+				log.error("Unable to read the last change log sequence number, will retry", ex);
+				return false;
+			}
+		}
+
+		final List<ChangeResponse> batch = new ArrayList<>(this.batchSize);
+		ChangeResponse entry;
+		while ((entry = this.queue.poll()) != null) {
+			batch.add(entry.withSequence(++this.lastSequence));
+			if (batch.size() == this.batchSize && !this.write(batch)) {
+				return false;
+			}
+		}
+		return this.write(batch);
+	}
+
+	@Override
+	public void start() {
+		Gauge.builder("addressbook.change.log.pending", this.pending, AtomicInteger::get)
+				.description("Number of change log entries waiting to be written")
+				.register(this.meterRegistry);
+		// registered up front, so that it is exported before anything has been dropped
+		this.dropped();
+
+		this.running = true;
+		this.writer = new Thread(this::run, "change-log-writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	@Override
+	public void stop() {
+		this.running = false;
+		LockSupport.unpark(this.writer);
+		try {
+			this.writer.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread()
+					.interrupt();
+		}
+
+		// entries queued whilst the writer was finishing up
+		this.flush();
+		if (this.pending.get() > 0) {
+			log.error("{} change log entries could not be written before shutdown", this.pending.get());
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	/**
+	 * Stops after the web server, and so after the last request has committed, but before the data source is closed.
+	 *
+	 * @return Lifecycle phase.
+	 */
+	@Override
+	public int getPhase() {
+		return 0;
+	}
+
+	private void run() {
+		boolean written = true;
+		while (this.running) {
+			if (!written) {
+				// after a failure, wait out the flush interval before retrying, however often committing threads wake
+				// the writer
+				final long retryAt = System.nanoTime() + this.flushInterval.toNanos();
+				long remaining;
+				while (this.running && (remaining = retryAt - System.nanoTime()) > 0) {
+					LockSupport.parkNanos(this, remaining);
+				}
+			} else if (this.pending.get() < this.batchSize) {
+				LockSupport.parkNanos(this, this.flushInterval.toNanos());
+			}
+			written = this.flush();
+		}
+		this.flush();
+	}
+
+	private void append(final EntityType withEntityType, final ChangeType withChangeType
+			, final Integer withAddressBookId, final Integer withContactId, final String withName
+			, final List<String> withPhoneNumbers) {
+		final ChangeResponse entry = new ChangeResponse(0, Instant.now(), withEntityType, withChangeType
+				, withAddressBookId, withContactId, withName, withPhoneNumbers);
+
+		// reserve space for the entry, waiting for the writer to make some if the queue is full, but only for so long
+		final long deadline = System.nanoTime() + this.backpressureTimeout.toNanos();
+		while (this.pending.incrementAndGet() > this.capacity) {
+			this.pending.decrementAndGet();
+			if (System.nanoTime() - deadline > 0) {
+				this.dropped()
+						.increment();
+				log.error("Change log is full, dropping {} {} change", withEntityType, withChangeType);
+				return;
+			}
+			if (this.running) {
+				LockSupport.unpark(this.writer);
+				LockSupport.parkNanos(this, BACKPRESSURE_PAUSE_NANOS);
+			} else if (!this.flush()) {
+				LockSupport.parkNanos(this, BACKPRESSURE_PAUSE_NANOS);
+			}
+		}
+		this.queue.offer(entry);
+
+		if (!this.running) {
+			// the writer has stopped, or has yet to start
+			this.flush();
+		} else if (this.pending.get() >= this.batchSize) {
+			LockSupport.unpark(this.writer);
+		}
+	}
+
+	/**
+	 * Writes a batch of entries in a single transaction, keeping them to be retried should that fail, and then
+	 * publishes them to the change feed.
+	 *
+	 * @param withBatch
+	 * 		Entries to write, which is emptied when they have been written.
+	 * @return {@code true} if the entries were written.
+	 */
+	private boolean write(final List<ChangeResponse> withBatch) {
+		if (withBatch.isEmpty()) {
+			return true;
+		}
+
+		final List<Object[]> rows = new ArrayList<>(withBatch.size());
+		for (final ChangeResponse entry : withBatch) {
+			rows.add(new Object[]{
+					entry.getSequence()
+					, Timestamp.from(entry.getOccurredAt())
+					, entry.getEntityType()
+							.name()
+					, entry.getChangeType()
+							.name()
+					, entry.getAddressBookId()
+					, entry.getContactId()
+					, entry.getName()
+					, this.toJson(entry.getPhoneNumbers())
+			});
+		}
+
+		try {
+			this.transactionTemplate.executeWithoutResult(status -> this.jdbcTemplate.batchUpdate(INSERT, rows));
+		} catch (DataAccessException ex) {
+			log.error("Unable to write {} change log entries, will retry", withBatch.size(), ex);
+			if (withBatch != this.unwritten) {
+				this.unwritten.addAll(withBatch);
+			}
+			return false;
+		}
+
+		this.pending.addAndGet(-withBatch.size());
+		this.changeFeed.publish(List.copyOf(withBatch));
+		withBatch.clear();
+		return true;
+	}
+
+	/**
+	 * Returns the counter of entries that were dropped as the queue stayed full for longer than the backpressure
+	 * timeout.
+	 */
+	private Counter dropped() {
+		return Counter.builder("addressbook.change.log.dropped")
+				.description("Number of change log entries dropped as the queue stayed full")
+				.register(this.meterRegistry);
+	}
+
+	private String toJson(final List<String> withPhoneNumbers) {
+		if (withPhoneNumbers == null) {
+			return null;
+		}
+
+		try {
+			return this.objectMapper.writeValueAsString(withPhoneNumbers);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
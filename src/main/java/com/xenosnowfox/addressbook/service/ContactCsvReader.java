@@ -0,0 +1,108 @@
+package com.xenosnowfox.addressbook.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads contacts, one per line, from CSV data in the form {@code name,phone number,phone number,...}.
+ * <p>
+ * Fields may be enclosed in double quotes, blank lines are skipped and an optional header line, whose first field is
+ * {@code name}, is ignored. Lines are read lazily, so arbitrarily large inputs can be processed.
+ */
+class ContactCsvReader implements Iterator<ContactImportRow> {
+
+	private final BufferedReader reader;
+
+	private long lineNumber = 0;
+
+	private List<String> nextFields;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withReader
+	 * 		Reader supplying the CSV data.
+	 */
+	ContactCsvReader(final BufferedReader withReader) {
+		this.reader = withReader;
+		this.advance();
+		if (this.nextFields != null && "name".equalsIgnoreCase(this.nextFields.get(0))) {
+			this.advance();
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		return this.nextFields != null;
+	}
+
+	@Override
+	public ContactImportRow next() {
+		if (this.nextFields == null) {
+			throw new NoSuchElementException();
+		}
+
+		final List<String> fields = this.nextFields;
+		final long number = this.lineNumber;
+		this.advance();
+		return ContactImportRow.of(number, fields.get(0), fields.subList(1, fields.size()));
+	}
+
+	/**
+	 * Reads ahead to the next non-blank line.
+	 */
+	private void advance() {
+		try {
+			String line;
+			do {
+				line = this.reader.readLine();
+				this.lineNumber++;
+			} while (line != null && line.isBlank());
+			this.nextFields = line == null ? null : parseLine(line);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Splits a single CSV line into its fields.
+	 *
+	 * @param withLine
+	 * 		Line to split.
+	 * @return List of trimmed field values.
+	 */
+	static List<String> parseLine(final String withLine) {
+		final List<String> fields = new ArrayList<>();
+		final StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < withLine.length(); i++) {
+			final char c = withLine.charAt(i);
+			if (quoted) {
+				if (c != '"') {
+					field.append(c);
+				} else if (i + 1 < withLine.length() && withLine.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else {
+					quoted = false;
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString()
+						.trim());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString()
+				.trim());
+		return fields;
+	}
+}
@@ -0,0 +1,76 @@
+package com.xenosnowfox.addressbook.service;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Single contact read from a bulk import, or the reason why it could not be read.
+ */
+@Getter
+@ToString
+class ContactImportRow {
+
+	/**
+	 * Position of the contact within the submitted data, starting from 1.
+	 */
+	private final long number;
+
+	/**
+	 * Contact's name.
+	 */
+	private final String name;
+
+	/**
+	 * Contact's phone numbers.
+	 */
+	private final List<String> phoneNumbers;
+
+	/**
+	 * Reason why the contact could not be read, or {@code null} if it was read successfully.
+	 */
+	private final String error;
+
+	private ContactImportRow(final long withNumber, final String withName, final List<String> withPhoneNumbers
+			, final String withError) {
+		this.number = withNumber;
+		this.name = withName;
+		this.phoneNumbers = withPhoneNumbers;
+		this.error = withError;
+	}
+
+	/**
+	 * Creates a row that was read successfully.
+	 *
+	 * @param withNumber
+	 * 		Position of the contact within the submitted data.
+	 * @param withName
+	 * 		Contact's name.
+	 * @param withPhoneNumbers
+	 * 		Contact's phone numbers, or {@code null} if none were provided.
+	 * @return Import row.
+	 */
+	static ContactImportRow of(final long withNumber, final String withName, final List<String> withPhoneNumbers) {
+		final List<String> phoneNumbers = withPhoneNumbers == null
+				? List.of()
+				: withPhoneNumbers.stream()
+				.filter(phoneNumber -> phoneNumber != null && !phoneNumber.isBlank())
+				.collect(Collectors.toUnmodifiableList());
+		return new ContactImportRow(withNumber, withName, phoneNumbers, null);
+	}
+
+	/**
+	 * Creates a row that could not be read.
+	 *
+	 * @param withNumber
+	 * 		Position of the contact within the submitted data.
+	 * @param withError
+	 * 		Reason why the contact could not be read.
+	 * @return Import row.
+	 */
+	static ContactImportRow invalid(final long withNumber, final String withError) {
+		return new ContactImportRow(withNumber, null, List.of(), withError);
+	}
+}
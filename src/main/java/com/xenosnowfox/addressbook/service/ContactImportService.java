@@ -0,0 +1,222 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.exception.AddressBookNotFoundException;
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.response.ImportResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+@Service
+public class ContactImportService {
+
+	/**
+	 * Number of contacts persisted per transaction.
+	 */
+	private static final int CHUNK_SIZE = 500;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private ContactService contactService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Imports a JSON array of contacts into the specified address book.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book to add the contacts to.
+	 * @param withInputStream
+	 * 		Stream containing the JSON array.
+	 * @return Import response listing any contacts that could not be imported.
+	 * @throws AddressBookNotFoundException
+	 * 		if the specified address book does not exist.
+	 * @throws InvalidRequestException
+	 * 		if the stream does not contain JSON.
+	 * @throws IOException
+	 * 		if the stream cannot be read.
+	 */
+	public ImportResponse importJson(final Integer withAddressBookIdentifier, final InputStream withInputStream)
+			throws IOException {
+		this.assertAddressBookExists(withAddressBookIdentifier);
+
+		final MappingIterator<Contact> contacts;
+		try {
+			contacts = this.objectMapper.readerFor(Contact.class)
+					.readValues(withInputStream);
+		} catch (JsonProcessingException ex) {
+			throw new InvalidRequestException("Malformed JSON.");
+		}
+
+		try (contacts) {
+			return this.importRows(withAddressBookIdentifier, new ContactJsonReader(contacts));
+		}
+	}
+
+	/**
+	 * Imports CSV data, one contact per line, into the specified address book.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book to add the contacts to.
+	 * @param withInputStream
+	 * 		Stream containing the UTF-8 encoded CSV data.
+	 * @return Import response listing any contacts that could not be imported.
+	 * @throws AddressBookNotFoundException
+	 * 		if the specified address book does not exist.
+	 * @throws IOException
+	 * 		if the stream cannot be read.
+	 */
+	public ImportResponse importCsv(final Integer withAddressBookIdentifier, final InputStream withInputStream)
+			throws IOException {
+		this.assertAddressBookExists(withAddressBookIdentifier);
+
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(withInputStream, StandardCharsets.UTF_8))) {
+			return this.importRows(withAddressBookIdentifier, new ContactCsvReader(reader));
+		}
+	}
+
+	private void assertAddressBookExists(final Integer withAddressBookIdentifier) {
+		if (!this.addressBookRepository.existsById(withAddressBookIdentifier)) {
+			throw new AddressBookNotFoundException();
+		}
+	}
+
+	/**
+	 * Validates and persists the provided rows, in chunks, collecting an error for every row that cannot be imported.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book to add the contacts to.
+	 * @param withRows
+	 * 		Rows to import.
+	 * @return Import response.
+	 */
+	private ImportResponse importRows(final Integer withAddressBookIdentifier
+			, final Iterator<ContactImportRow> withRows) {
+		final List<ImportResponse.ImportError> errors = new ArrayList<>();
+		final List<ContactImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+		long imported = 0;
+
+		while (withRows.hasNext()) {
+			final ContactImportRow row = withRows.next();
+			if (row.getError() != null) {
+				errors.add(new ImportResponse.ImportError(row.getNumber(), row.getError()));
+				continue;
+			}
+
+			chunk.add(row);
+			if (chunk.size() == CHUNK_SIZE) {
+				imported += this.persistChunk(withAddressBookIdentifier, chunk, errors);
+				chunk.clear();
+			}
+		}
+
+		if (!chunk.isEmpty()) {
+			imported += this.persistChunk(withAddressBookIdentifier, chunk, errors);
+		}
+
+		errors.sort(Comparator.comparingLong(ImportResponse.ImportError::getRow));
+		return new ImportResponse(imported, errors);
+	}
+
+	/**
+	 * Persists a chunk of rows in a single transaction, falling back to one transaction per row if the chunk fails so
+	 * that only the offending rows are rejected.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book to add the contacts to.
+	 * @param withChunk
+	 * 		Rows to persist.
+	 * @param withErrors
+	 * 		List that errors will be added to.
+	 * @return Number of contacts persisted.
+	 */
+	private int persistChunk(final Integer withAddressBookIdentifier, final List<ContactImportRow> withChunk
+			, final List<ImportResponse.ImportError> withErrors) {
+		final List<ImportResponse.ImportError> chunkErrors = new ArrayList<>();
+		try {
+			final int persisted = this.persist(withAddressBookIdentifier, withChunk, chunkErrors);
+			withErrors.addAll(chunkErrors);
+			return persisted;
+		} catch (RuntimeException ex) {
+			this.entityManager.clear();
+		}
+
+		int persisted = 0;
+		for (final ContactImportRow row : withChunk) {
+			try {
+				persisted += this.persist(withAddressBookIdentifier, List.of(row), withErrors);
+			} catch (RuntimeException ex) {
+				this.entityManager.clear();
+				withErrors.add(new ImportResponse.ImportError(row.getNumber(), "Contact could not be saved."));
+			}
+		}
+		return persisted;
+	}
+
+	/**
+	 * Validates and persists the provided rows within a single transaction.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book to add the contacts to.
+	 * @param withRows
+	 * 		Rows to persist.
+	 * @param withErrors
+	 * 		List that validation errors will be added to.
+	 * @return Number of contacts persisted.
+	 */
+	private int persist(final Integer withAddressBookIdentifier, final List<ContactImportRow> withRows
+			, final List<ImportResponse.ImportError> withErrors) {
+		final Integer persisted = this.transactionTemplate.execute(status -> {
+			final AddressBook addressBook = this.entityManager.getReference(
+					AddressBook.class, withAddressBookIdentifier);
+			final List<Contact> contacts = new ArrayList<>(withRows.size());
+			for (final ContactImportRow row : withRows) {
+				try {
+					final Contact contact = new Contact(row.getName(), row.getPhoneNumbers(), addressBook);
+					this.contactService.validate(contact);
+					contacts.add(contact);
+				} catch (IllegalStateException | InvalidRequestException ex) {
+					withErrors.add(new ImportResponse.ImportError(row.getNumber(), ex.getMessage()));
+				}
+			}
+
+			this.contactRepository.saveAll(contacts);
+			this.entityManager.flush();
+			this.entityManager.clear();
+			return contacts.size();
+		});
+		return persisted == null ? 0 : persisted;
+	}
+}
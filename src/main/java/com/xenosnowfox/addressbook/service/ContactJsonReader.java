@@ -0,0 +1,80 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.xenosnowfox.addressbook.entity.Contact;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads contacts, one at a time, from a JSON array of contacts.
+ * <p>
+ * A contact that cannot be mapped is reported as an invalid row and reading continues with the next contact; once the
+ * JSON itself becomes unreadable, a final invalid row is reported and reading stops.
+ */
+class ContactJsonReader implements Iterator<ContactImportRow> {
+
+	private final MappingIterator<Contact> contacts;
+
+	private long number = 0;
+
+	private String fatalError;
+
+	private boolean finished = false;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withContacts
+	 * 		Iterator over the contacts in the JSON array.
+	 */
+	ContactJsonReader(final MappingIterator<Contact> withContacts) {
+		this.contacts = withContacts;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (this.finished) {
+			return false;
+		}
+
+		if (this.fatalError != null) {
+			return true;
+		}
+
+		try {
+			this.finished = !this.contacts.hasNextValue();
+		} catch (IOException ex) {
+			this.fatalError = "Malformed JSON: " + originalMessage(ex);
+		}
+		return !this.finished;
+	}
+
+	@Override
+	public ContactImportRow next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		this.number++;
+		if (this.fatalError != null) {
+			this.finished = true;
+			return ContactImportRow.invalid(this.number, this.fatalError);
+		}
+
+		try {
+			final Contact contact = this.contacts.nextValue();
+			return ContactImportRow.of(this.number, contact.getName(), contact.getPhoneNumbers());
+		} catch (IOException ex) {
+			return ContactImportRow.invalid(this.number, "Invalid contact: " + originalMessage(ex));
+		}
+	}
+
+	private static String originalMessage(final IOException withException) {
+		return withException instanceof JsonProcessingException
+				? ((JsonProcessingException) withException).getOriginalMessage()
+				: withException.getMessage();
+	}
+}
@@ -0,0 +1,573 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.xenosnowfox.addressbook.event.AddressBookChangedEvent;
+import com.xenosnowfox.addressbook.event.ChangeType;
+import com.xenosnowfox.addressbook.event.ContactChangedEvent;
+import com.xenosnowfox.addressbook.event.MembershipChangedEvent;
+import com.xenosnowfox.addressbook.repository.AddressBookContactRepository;
+import com.xenosnowfox.addressbook.response.ContactSuggestionResponse;
+import com.xenosnowfox.addressbook.util.SearchKeyUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of contact names and phone numbers, used to answer type-ahead queries without touching the
+ * database.
+ * <p>
+ * Every word of a contact's name, the name as a whole and the digits of each phone number are stored as terms in a
+ * sorted map, each pointing at a sorted array of the identifiers of the contacts containing it, so a prefix query is a
+ * range scan over the terms that stops as soon as enough contacts have been found. Each address book also holds its
+ * own sorted map of the terms of its contacts, so a query restricted to an address book is a range scan over those
+ * terms alone, however small the address book is relative to the index as a whole.
+ * <p>
+ * The index is rebuilt from the database at start up, and then kept up to date from the change events published by
+ * the entity listeners, as each transaction commits.
+ */
+@Service
+public class ContactSearchIndex {
+
+	/**
+	 * Upper bound on the number of suggestions that can be returned by a single query.
+	 */
+	public static final int MAXIMUM_LIMIT = 100;
+
+	/**
+	 * Characters that may appear in a query for it to be treated as a phone number.
+	 */
+	private static final Pattern PHONE_NUMBER_QUERY = Pattern.compile("[0-9+()\\-.\\s]*[0-9][0-9+()\\-.\\s]*");
+
+	/**
+	 * Separator between the words of a name.
+	 */
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private static final int[] NO_CONTACTS = new int[0];
+
+	private static final String[] NO_TERMS = new String[0];
+
+	private static final int[] NO_ADDRESS_BOOKS = new int[0];
+
+	@Autowired
+	private ContactService contactService;
+
+	@Autowired
+	private AddressBookContactRepository addressBookContactRepository;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Sorted identifiers of the contacts containing each term, keyed by term.
+	 */
+	private final NavigableMap<String, int[]> postings = new TreeMap<>();
+
+	/**
+	 * Indexed details of each contact, keyed by contact identifier.
+	 */
+	private final Map<Integer, IndexedContact> contacts = new HashMap<>();
+
+	/**
+	 * Identifiers of the contacts belonging to each address book, keyed by address book identifier.
+	 */
+	private final Map<Integer, BitSet> members = new HashMap<>();
+
+	/**
+	 * Sorted identifiers of the contacts containing each term, keyed by term, for each address book, keyed by address
+	 * book identifier; holds only the contacts belonging to that address book.
+	 */
+	private final Map<Integer, NavigableMap<String, int[]>> addressBookPostings = new HashMap<>();
+
+	/**
+	 * Discards the contents of the index and reloads every contact, and address book membership, from the database.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void rebuild() {
+		this.lock.writeLock()
+				.lock();
+		try {
+			this.postings.clear();
+			this.contacts.clear();
+			this.members.clear();
+			this.addressBookPostings.clear();
+
+			// postings are collected in growable buffers and built once per term, rather than copied on every insert
+			final Map<String, PostingsBuffer> buffers = new HashMap<>();
+			this.contactService.export(contact -> {
+				final IndexedContact indexed = this.contacts.computeIfAbsent(contact.getId()
+						, id -> new IndexedContact());
+				indexed.name = contact.getName();
+				indexed.nameTerms = nameTerms(contact.getName());
+				indexed.phoneNumberTerms = phoneNumberTerms(contact.getPhoneNumbers());
+				for (String term : indexed.nameTerms) {
+					buffers.computeIfAbsent(term, key -> new PostingsBuffer())
+							.add(contact.getId());
+				}
+				for (String term : indexed.phoneNumberTerms) {
+					buffers.computeIfAbsent(term, key -> new PostingsBuffer())
+							.add(contact.getId());
+				}
+			});
+			buffers.forEach((term, buffer) -> this.postings.put(term, buffer.toSortedArray()));
+
+			final Map<Integer, Map<String, PostingsBuffer>> addressBookBuffers = new HashMap<>();
+			try (Stream<AddressBookContactRepository.Membership> memberships = this.addressBookContactRepository
+					.streamAllMemberships()) {
+				memberships.forEach(membership -> {
+					final IndexedContact contact = this.recordMembership(membership.getAddressBookId()
+							, membership.getContactId());
+					if (contact == null) {
+						return;
+					}
+					final Map<String, PostingsBuffer> termBuffers = addressBookBuffers.computeIfAbsent(
+							membership.getAddressBookId(), id -> new HashMap<>());
+					for (String term : contact.terms()) {
+						termBuffers.computeIfAbsent(term, key -> new PostingsBuffer())
+								.add(membership.getContactId());
+					}
+				});
+			}
+			addressBookBuffers.forEach((addressBookId, termBuffers) -> {
+				final NavigableMap<String, int[]> addressBookPostings = new TreeMap<>();
+				termBuffers.forEach((term, buffer) -> addressBookPostings.put(term, buffer.toSortedArray()));
+				this.addressBookPostings.put(addressBookId, addressBookPostings);
+			});
+		} finally {
+			this.lock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Returns the contacts whose name, or any word within it, starts with the query, or, if the query looks like a
+	 * phone number, that have a phone number starting with its digits. Matches are ordered by the term that they
+	 * matched on, then by identifier.
+	 *
+	 * @param withQuery
+	 * 		Text entered so far.
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book to restrict the matches to, or {@code null} to match all contacts.
+	 * @param withLimit
+	 * 		Maximum number of suggestions to return.
+	 * @return List of suggestions.
+	 */
+	public List<ContactSuggestionResponse> suggest(final String withQuery, final Integer withAddressBookIdentifier
+			, final int withLimit) {
+		final String prefix = PHONE_NUMBER_QUERY.matcher(withQuery)
+				.matches()
+				? SearchKeyUtil.phoneNumberKey(withQuery)
+				: nameKey(withQuery);
+		if (prefix.isEmpty() || withLimit < 1) {
+			return List.of();
+		}
+
+		this.lock.readLock()
+				.lock();
+		try {
+			final NavigableMap<String, int[]> postings = withAddressBookIdentifier == null
+					? this.postings
+					: this.addressBookPostings.get(withAddressBookIdentifier);
+			if (postings == null) {
+				return List.of();
+			}
+
+			final Set<Integer> matches = new LinkedHashSet<>();
+			for (Map.Entry<String, int[]> entry : postings.tailMap(prefix, true)
+					.entrySet()) {
+				if (!entry.getKey()
+						.startsWith(prefix)) {
+					break;
+				}
+				for (int contactId : entry.getValue()) {
+					if (matches.add(contactId) && matches.size() == withLimit) {
+						return this.toSuggestions(matches);
+					}
+				}
+			}
+			return this.toSuggestions(matches);
+		} finally {
+			this.lock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Applies a committed change to a contact.
+	 *
+	 * @param withEvent
+	 * 		Event describing the change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onContactChanged(final ContactChangedEvent withEvent) {
+		this.lock.writeLock()
+				.lock();
+		try {
+			if (withEvent.getChangeType() == ChangeType.DELETED) {
+				this.removeContact(withEvent.getContactId());
+			} else {
+				this.indexContact(withEvent.getContactId(), withEvent.getName(), withEvent.getPhoneNumbers());
+			}
+		} finally {
+			this.lock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Applies a committed change to the membership of an address book.
+	 *
+	 * @param withEvent
+	 * 		Event describing the change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onMembershipChanged(final MembershipChangedEvent withEvent) {
+		this.lock.writeLock()
+				.lock();
+		try {
+			if (withEvent.getChangeType() == ChangeType.DELETED) {
+				this.removeMembership(withEvent.getAddressBookId(), withEvent.getContactId());
+			} else {
+				this.addMembership(withEvent.getAddressBookId(), withEvent.getContactId());
+			}
+		} finally {
+			this.lock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Applies the committed deletion of an address book, dropping the contacts that belonged to no other address book
+	 * just as the database does.
+	 *
+	 * @param withEvent
+	 * 		Event describing the change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onAddressBookChanged(final AddressBookChangedEvent withEvent) {
+		if (withEvent.getChangeType() != ChangeType.DELETED) {
+			return;
+		}
+
+		this.lock.writeLock()
+				.lock();
+		try {
+			// the terms of the address book are dropped as a whole, rather than contact by contact
+			this.addressBookPostings.remove(withEvent.getAddressBookId());
+			final BitSet bookMembers = this.members.get(withEvent.getAddressBookId());
+			if (bookMembers == null) {
+				return;
+			}
+			for (int contactId = bookMembers.nextSetBit(0); contactId >= 0;
+					contactId = bookMembers.nextSetBit(contactId + 1)) {
+				this.removeMembership(withEvent.getAddressBookId(), contactId);
+				final IndexedContact contact = this.contacts.get(contactId);
+				if (contact != null && contact.addressBookIds.length == 0) {
+					this.removeContact(contactId);
+				}
+			}
+		} finally {
+			this.lock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Adds or replaces the terms of a contact. Must be called whilst holding the write lock.
+	 */
+	private void indexContact(final int withContactId, final String withName, final List<String> withPhoneNumbers) {
+		final IndexedContact contact = this.contacts.computeIfAbsent(withContactId, id -> new IndexedContact());
+
+		final String[] nameTerms = nameTerms(withName);
+		this.replaceTerms(contact, withContactId, contact.nameTerms, nameTerms);
+		contact.nameTerms = nameTerms;
+		contact.name = withName;
+
+		// phone numbers are only provided when they may have changed
+		if (withPhoneNumbers != null) {
+			final String[] phoneNumberTerms = phoneNumberTerms(withPhoneNumbers);
+			this.replaceTerms(contact, withContactId, contact.phoneNumberTerms, phoneNumberTerms);
+			contact.phoneNumberTerms = phoneNumberTerms;
+		}
+	}
+
+	/**
+	 * Removes a contact, and all of its memberships, from the index. Must be called whilst holding the write lock.
+	 */
+	private void removeContact(final int withContactId) {
+		final IndexedContact contact = this.contacts.remove(withContactId);
+		if (contact == null) {
+			return;
+		}
+
+		this.replaceTerms(contact, withContactId, contact.nameTerms, NO_TERMS);
+		this.replaceTerms(contact, withContactId, contact.phoneNumberTerms, NO_TERMS);
+		for (int addressBookId : contact.addressBookIds) {
+			final BitSet bookMembers = this.members.get(addressBookId);
+			if (bookMembers != null) {
+				bookMembers.clear(withContactId);
+				if (bookMembers.isEmpty()) {
+					this.members.remove(addressBookId);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Records that a contact belongs to an address book. Must be called whilst holding the write lock.
+	 */
+	private void addMembership(final int withAddressBookId, final int withContactId) {
+		final IndexedContact contact = this.recordMembership(withAddressBookId, withContactId);
+		if (contact == null) {
+			return;
+		}
+
+		final NavigableMap<String, int[]> addressBookPostings = this.addressBookPostings.computeIfAbsent(
+				withAddressBookId, id -> new TreeMap<>());
+		for (String term : contact.terms()) {
+			addressBookPostings.put(term, insert(addressBookPostings.getOrDefault(term, NO_CONTACTS), withContactId));
+		}
+	}
+
+	/**
+	 * Records that a contact belongs to an address book, without adding its terms to those of the address book. Must
+	 * be called whilst holding the write lock.
+	 *
+	 * @return The contact, or {@code null} if it already belonged to the address book.
+	 */
+	private IndexedContact recordMembership(final int withAddressBookId, final int withContactId) {
+		final BitSet bookMembers = this.members.computeIfAbsent(withAddressBookId, id -> new BitSet());
+		if (bookMembers.get(withContactId)) {
+			return null;
+		}
+
+		bookMembers.set(withContactId);
+		final IndexedContact contact = this.contacts.computeIfAbsent(withContactId, id -> new IndexedContact());
+		contact.addressBookIds = insert(contact.addressBookIds, withAddressBookId);
+		return contact;
+	}
+
+	/**
+	 * Records that a contact no longer belongs to an address book. Must be called whilst holding the write lock.
+	 */
+	private void removeMembership(final int withAddressBookId, final int withContactId) {
+		final BitSet bookMembers = this.members.get(withAddressBookId);
+		if (bookMembers == null || !bookMembers.get(withContactId)) {
+			return;
+		}
+
+		bookMembers.clear(withContactId);
+		if (bookMembers.isEmpty()) {
+			this.members.remove(withAddressBookId);
+		}
+		final IndexedContact contact = this.contacts.get(withContactId);
+		if (contact == null) {
+			return;
+		}
+
+		contact.addressBookIds = remove(contact.addressBookIds, withAddressBookId);
+		final NavigableMap<String, int[]> addressBookPostings = this.addressBookPostings.get(withAddressBookId);
+		if (addressBookPostings != null) {
+			removeTerms(addressBookPostings, withContactId, contact.terms());
+			if (addressBookPostings.isEmpty()) {
+				this.addressBookPostings.remove(withAddressBookId);
+			}
+		}
+	}
+
+	/**
+	 * Moves a contact from the postings of its previous terms to those of its current terms, both across the index
+	 * and within each of its address books.
+	 */
+	private void replaceTerms(final IndexedContact withContact, final int withContactId
+			, final String[] withPreviousTerms, final String[] withTerms) {
+		final Set<String> current = Set.of(withTerms);
+		final String[] removedTerms = Arrays.stream(withPreviousTerms)
+				.filter(term -> !current.contains(term))
+				.toArray(String[]::new);
+
+		removeTerms(this.postings, withContactId, removedTerms);
+		addTerms(this.postings, withContactId, withTerms);
+		for (int addressBookId : withContact.addressBookIds) {
+			final NavigableMap<String, int[]> addressBookPostings = this.addressBookPostings.computeIfAbsent(
+					addressBookId, id -> new TreeMap<>());
+			removeTerms(addressBookPostings, withContactId, removedTerms);
+			addTerms(addressBookPostings, withContactId, withTerms);
+			if (addressBookPostings.isEmpty()) {
+				this.addressBookPostings.remove(addressBookId);
+			}
+		}
+	}
+
+	private static void addTerms(final NavigableMap<String, int[]> withPostings, final int withContactId
+			, final String[] withTerms) {
+		for (String term : withTerms) {
+			withPostings.put(term, insert(withPostings.getOrDefault(term, NO_CONTACTS), withContactId));
+		}
+	}
+
+	private static void removeTerms(final NavigableMap<String, int[]> withPostings, final int withContactId
+			, final String[] withTerms) {
+		for (String term : withTerms) {
+			withPostings.computeIfPresent(term, (key, ids) -> {
+				final int[] remaining = remove(ids, withContactId);
+				return remaining.length == 0 ? null : remaining;
+			});
+		}
+	}
+
+	private List<ContactSuggestionResponse> toSuggestions(final Set<Integer> withContactIds) {
+		final List<ContactSuggestionResponse> suggestions = new ArrayList<>(withContactIds.size());
+		for (Integer contactId : withContactIds) {
+			suggestions.add(new ContactSuggestionResponse(contactId, this.contacts.get(contactId).name));
+		}
+		return suggestions;
+	}
+
+	/**
+	 * Normalizes a name for indexing, collapsing runs of whitespace into a single space.
+	 */
+	private static String nameKey(final String withName) {
+		return WHITESPACE.matcher(SearchKeyUtil.nameKey(withName)
+						.strip())
+				.replaceAll(" ");
+	}
+
+	/**
+	 * Returns the terms that a name is indexed under; the name as a whole, plus each of its words.
+	 */
+	private static String[] nameTerms(final String withName) {
+		final String name = nameKey(withName);
+		if (name.isEmpty()) {
+			return NO_TERMS;
+		}
+
+		final Set<String> terms = new LinkedHashSet<>();
+		terms.add(name);
+		terms.addAll(Arrays.asList(name.split(" ")));
+		return terms.toArray(NO_TERMS);
+	}
+
+	/**
+	 * Returns the terms that phone numbers are indexed under; the digits of each.
+	 */
+	private static String[] phoneNumberTerms(final List<String> withPhoneNumbers) {
+		return withPhoneNumbers.stream()
+				.map(SearchKeyUtil::phoneNumberKey)
+				.filter(key -> !key.isEmpty())
+				.distinct()
+				.toArray(String[]::new);
+	}
+
+	/**
+	 * Returns a copy of the sorted array with the value added, or the array itself if it already contains the value.
+	 * Only used for incremental updates, which copy the postings of a term so that they are never modified in place.
+	 */
+	private static int[] insert(final int[] withIds, final int withId) {
+		final int index = Arrays.binarySearch(withIds, withId);
+		if (index >= 0) {
+			return withIds;
+		}
+
+		final int position = -index - 1;
+		final int[] ids = new int[withIds.length + 1];
+		System.arraycopy(withIds, 0, ids, 0, position);
+		ids[position] = withId;
+		System.arraycopy(withIds, position, ids, position + 1, withIds.length - position);
+		return ids;
+	}
+
+	/**
+	 * Returns a copy of the sorted array with the value removed, or the array itself if it does not contain the value.
+	 */
+	private static int[] remove(final int[] withIds, final int withId) {
+		final int index = Arrays.binarySearch(withIds, withId);
+		if (index < 0) {
+			return withIds;
+		}
+
+		final int[] ids = new int[withIds.length - 1];
+		System.arraycopy(withIds, 0, ids, 0, index);
+		System.arraycopy(withIds, index + 1, ids, index, withIds.length - index - 1);
+		return ids;
+	}
+
+	/**
+	 * Growable buffer of the identifiers of the contacts containing a term, used whilst rebuilding the index.
+	 */
+	private static class PostingsBuffer {
+
+		private int[] ids = new int[4];
+
+		private int size;
+
+		private void add(final int withId) {
+			// contacts are read in identifier order, so a contact adding the same term twice does so consecutively
+			if (this.size > 0 && this.ids[this.size - 1] == withId) {
+				return;
+			}
+			if (this.size == this.ids.length) {
+				this.ids = Arrays.copyOf(this.ids, this.size * 2);
+			}
+			this.ids[this.size++] = withId;
+		}
+
+		/**
+		 * Returns the identifiers as a sorted array without duplicates.
+		 */
+		private int[] toSortedArray() {
+			final int[] sorted = Arrays.copyOf(this.ids, this.size);
+			Arrays.sort(sorted);
+			int distinct = 0;
+			for (int id : sorted) {
+				if (distinct == 0 || sorted[distinct - 1] != id) {
+					sorted[distinct++] = id;
+				}
+			}
+			return distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+		}
+	}
+
+	/**
+	 * Details held for each indexed contact.
+	 */
+	private static class IndexedContact {
+
+		private String name;
+
+		private String[] nameTerms = NO_TERMS;
+
+		private String[] phoneNumberTerms = NO_TERMS;
+
+		/**
+		 * Sorted identifiers of the address books that the contact belongs to.
+		 */
+		private int[] addressBookIds = NO_ADDRESS_BOOKS;
+
+		/**
+		 * Returns every term that the contact is indexed under.
+		 */
+		private String[] terms() {
+			final String[] terms = Arrays.copyOf(this.nameTerms, this.nameTerms.length + this.phoneNumberTerms.length);
+			System.arraycopy(this.phoneNumberTerms, 0, terms, this.nameTerms.length, this.phoneNumberTerms.length);
+			return terms;
+		}
+	}
+}
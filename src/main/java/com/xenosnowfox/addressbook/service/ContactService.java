@@ -1,20 +1,59 @@
 package com.xenosnowfox.addressbook.service;
 
 import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.exception.ContactNotFoundException;
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
+import com.xenosnowfox.addressbook.exception.PreconditionFailedException;
 import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.response.ContactResponse;
+import com.xenosnowfox.addressbook.util.CursorSlice;
+import com.xenosnowfox.addressbook.util.ETagUtil;
+import com.xenosnowfox.addressbook.util.IdentifierUtil;
+import com.xenosnowfox.addressbook.util.PaginationUtil;
+import com.xenosnowfox.addressbook.util.PhoneNumberUtil;
+import com.xenosnowfox.addressbook.util.SearchKeyUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class ContactService {
 
+	/**
+	 * Number of contacts read by each query of an export.
+	 */
+	private static final int EXPORT_BATCH_SIZE = 500;
+
 	@Autowired
 	private ContactRepository contactRepository;
 
+	@PersistenceContext
+	private EntityManager entityManager;
+
 	/**
 	 * Validates the provided contact.
 	 *
@@ -24,7 +63,7 @@ public class ContactService {
 	 * 		if the given contact does not contain a name or isn't assigned to at least one address book.
 	 */
 	public void validate(final Contact withContact) {
-		if (withContact.getName()
+		if (withContact.getName() == null || withContact.getName()
 				.isBlank()) {
 			throw new IllegalStateException("Contact name cannot be blank.");
 		}
@@ -46,6 +85,34 @@ public class ContactService {
 		return this.contactRepository.findById(withIdentifier);
 	}
 
+	/**
+	 * Reads a Contact, with its phone numbers, by its identifier value.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier of the contact to retrieve.
+	 * @return Optional describing a contact.
+	 */
+	@Transactional(readOnly = true)
+	public Optional<ContactResponse> findResponseById(final Integer withIdentifier) {
+		return toResponses(this.contactRepository.findRowsByIdIn(List.of(withIdentifier))).stream()
+				.findFirst();
+	}
+
+	/**
+	 * Reads the contacts with the specified identifiers, with their phone numbers, using a single query per
+	 * {@link IdentifierUtil#CHUNK_SIZE} identifiers.
+	 *
+	 * @param withIdentifiers
+	 * 		Identifiers of the contacts to retrieve.
+	 * @return List of the Contacts that exist, ordered by identifier.
+	 * @throws InvalidRequestException
+	 * 		if no identifiers, or too many identifiers, were specified.
+	 */
+	@Transactional(readOnly = true)
+	public List<ContactResponse> findAllById(final Collection<Integer> withIdentifiers) {
+		return IdentifierUtil.findInChunks(IdentifierUtil.distinctOf(withIdentifiers), this::findResponses);
+	}
+
 	/**
 	 * Retrieves all instances of contact.
 	 *
@@ -60,6 +127,213 @@ public class ContactService {
 		return contactSet;
 	}
 
+	/**
+	 * Reads every contact that belongs to the specified address book, with their phone numbers, in a single query.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 * @return List of Contacts, ordered by identifier.
+	 */
+	@Transactional(readOnly = true)
+	public List<ContactResponse> findAllByAddressBook(final Integer withAddressBookIdentifier) {
+		return toResponses(this.contactRepository.findRowsByAddressBookId(withAddressBookIdentifier));
+	}
+
+	/**
+	 * Counts every contact in the system, without loading them.
+	 *
+	 * @return Number of contacts.
+	 */
+	@Transactional(readOnly = true)
+	public long count() {
+		return this.contactRepository.count();
+	}
+
+	/**
+	 * Reads a single page of contacts, with their phone numbers, ordered by identifier.
+	 *
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, or {@code null} for the first page.
+	 * @param withLimit
+	 * 		Maximum number of contacts to return.
+	 * @return Slice of Contacts.
+	 */
+	@Transactional(readOnly = true)
+	public Slice<ContactResponse> findPage(final String withCursor, final int withLimit) {
+		return this.findResponses(this.contactRepository.findIdsByIdGreaterThan(
+				PaginationUtil.decodeCursor(withCursor), PaginationUtil.pageOf(withLimit)));
+	}
+
+	/**
+	 * Reads a single page of the contacts that belong to the specified address book, with their phone numbers,
+	 * ordered by identifier.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 * @param withIdentifier
+	 * 		Identifier that the page should start after.
+	 * @param withLimit
+	 * 		Maximum number of contacts to return.
+	 * @return List of Contacts.
+	 */
+	@Transactional(readOnly = true)
+	public List<ContactResponse> findPageByAddressBook(final Integer withAddressBookIdentifier
+			, final int withIdentifier, final int withLimit) {
+		return this.findResponses(this.contactRepository.findIdsByAddressBookIdAndIdGreaterThan(
+				withAddressBookIdentifier, withIdentifier, PageRequest.of(0, withLimit)));
+	}
+
+	/**
+	 * Reads a single page of the unique contacts across the specified address books, ordered by name.
+	 * <p>
+	 * Contacts with the same name, ignoring case, and the same phone numbers, ignoring formatting, are considered
+	 * duplicates; only the one with the lowest identifier is returned. Duplicates share a persisted, indexed key, so
+	 * each page is a range scan of that index, and only the contacts on the requested page are loaded.
+	 *
+	 * @param withAddressBookIdentifiers
+	 * 		Identifiers of the address books.
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, or {@code null} for the first page.
+	 * @param withLimit
+	 * 		Maximum number of contacts to return.
+	 * @return Slice of Contacts, along with the cursor token of the following page, if any.
+	 * @throws InvalidRequestException
+	 * 		if no address books were specified.
+	 */
+	@Transactional(readOnly = true)
+	public CursorSlice<ContactResponse> findUnique(final Collection<Integer> withAddressBookIdentifiers
+			, final String withCursor, final int withLimit) {
+		if (withAddressBookIdentifiers == null || withAddressBookIdentifiers.isEmpty()) {
+			throw new InvalidRequestException("At least one address book must be specified.");
+		}
+
+		final Pageable pageable = PaginationUtil.pageOf(withLimit);
+		final List<ContactRepository.DuplicateKey> keys = this.contactRepository.findUniqueByAddressBookIds(
+				withAddressBookIdentifiers, PaginationUtil.decodeKeyCursor(withCursor), pageable.getPageSize() + 1);
+
+		// one more contact than requested is retrieved, to determine whether there is a following page
+		final boolean hasNext = keys.size() > pageable.getPageSize();
+		final List<ContactRepository.DuplicateKey> page = hasNext ? keys.subList(0, pageable.getPageSize()) : keys;
+
+		final String nextCursor = hasNext
+				? PaginationUtil.encodeKeyCursor(page.get(page.size() - 1)
+						.getDuplicateKey())
+				: null;
+		return new CursorSlice<>(this.findResponsesInOrder(page.stream()
+				.map(ContactRepository.DuplicateKey::getId)
+				.collect(Collectors.toList())), pageable, nextCursor);
+	}
+
+	/**
+	 * Reads a single page of contacts whose name starts with the specified prefix, ignoring case, ordered by name and
+	 * then identifier.
+	 *
+	 * @param withPrefix
+	 * 		Name prefix to search for.
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, or {@code null} for the first page.
+	 * @param withLimit
+	 * 		Maximum number of contacts to return.
+	 * @return Slice of Contacts, along with the cursor token of the following page, if any.
+	 * @throws InvalidRequestException
+	 * 		if the prefix is blank.
+	 */
+	@Transactional(readOnly = true)
+	public CursorSlice<ContactResponse> searchByName(final String withPrefix, final String withCursor
+			, final int withLimit) {
+		final String prefix = SearchKeyUtil.nameKey(withPrefix);
+		if (prefix.isBlank()) {
+			throw new InvalidRequestException("Name must not be blank.");
+		}
+
+		// the first page starts at the prefix itself, any other after the last contact of the previous page
+		final String searchName = PaginationUtil.decodeCursorKey(withCursor);
+		final boolean isAfterPrefix = searchName.compareTo(prefix) >= 0;
+		final Pageable pageable = PaginationUtil.pageOf(withLimit);
+		final Slice<ContactRepository.SearchName> names = this.contactRepository.findSearchNamesByPrefix(prefix
+				, isAfterPrefix ? searchName : prefix
+				, isAfterPrefix ? PaginationUtil.decodeCursorIdentifier(withCursor) : PaginationUtil.FIRST_IDENTIFIER
+				, PageRequest.of(0, pageable.getPageSize(), Sort.by("searchName", "id")));
+
+		final List<ContactRepository.SearchName> page = names.getContent();
+		final String nextCursor = names.hasNext() && !page.isEmpty()
+				? PaginationUtil.encodeCursor(page.get(page.size() - 1)
+						.getSearchName(), page.get(page.size() - 1)
+						.getId())
+				: null;
+		return new CursorSlice<>(this.findResponsesInOrder(page.stream()
+				.map(ContactRepository.SearchName::getId)
+				.collect(Collectors.toList())), names.getPageable(), nextCursor);
+	}
+
+	/**
+	 * Reads a single page of contacts that have the specified phone number, ordered by identifier. Phone numbers
+	 * are compared by their normalized numeric key, so formatting is ignored.
+	 *
+	 * @param withPhoneNumber
+	 * 		Phone number to search for.
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, or {@code null} for the first page.
+	 * @param withLimit
+	 * 		Maximum number of contacts to return.
+	 * @return Slice of Contacts.
+	 * @throws InvalidRequestException
+	 * 		if the phone number cannot be normalized.
+	 */
+	@Transactional(readOnly = true)
+	public Slice<ContactResponse> searchByPhoneNumber(final String withPhoneNumber, final String withCursor
+			, final int withLimit) {
+		return this.findResponses(this.contactRepository.findIdsByPhoneNumberAndIdGreaterThan(
+				PhoneNumberUtil.normalize(withPhoneNumber), PaginationUtil.decodeCursor(withCursor)
+				, PaginationUtil.pageOf(withLimit)));
+	}
+
+	/**
+	 * Reads the other contacts that share at least one phone number with the specified contact, and so are likely to
+	 * be duplicates of it.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier of the contact.
+	 * @return Optional describing the list of Contacts, ordered by identifier; empty if the contact does not exist.
+	 */
+	@Transactional(readOnly = true)
+	public Optional<List<ContactResponse>> findSharingPhoneNumbers(final Integer withIdentifier) {
+		if (!this.contactRepository.existsById(withIdentifier)) {
+			return Optional.empty();
+		}
+		return Optional.of(IdentifierUtil.findInChunks(
+				new TreeSet<>(this.contactRepository.findIdsSharingPhoneNumbersWithId(withIdentifier))
+				, this::findResponses));
+	}
+
+	/**
+	 * Passes every contact, in identifier order, to the provided consumer, reading them a page of
+	 * {@link #EXPORT_BATCH_SIZE} at a time.
+	 * <p>
+	 * Each page is read by identifier, as a projection, so no entity is loaded and memory usage remains flat
+	 * regardless of the number of contacts. Without a surrounding transaction, each page is read in a transaction of
+	 * its own, so no connection is held whilst the consumer handles a page.
+	 *
+	 * @param withConsumer
+	 * 		Consumer that will receive each contact.
+	 * @return Number of contacts exported.
+	 */
+	public long export(final Consumer<ContactResponse> withConsumer) {
+		final Pageable pageable = PaginationUtil.pageOf(EXPORT_BATCH_SIZE);
+		long total = 0;
+		int identifier = PaginationUtil.FIRST_IDENTIFIER;
+		Slice<Integer> identifiers;
+		do {
+			identifiers = this.contactRepository.findIdsByIdGreaterThan(identifier, pageable);
+			for (ContactResponse contact : this.findResponses(identifiers.getContent())) {
+				withConsumer.accept(contact);
+				identifier = contact.getId();
+				total++;
+			}
+		} while (identifiers.hasNext());
+		return total;
+	}
+
 	/**
 	 * Deletes the specified contact.
 	 *
@@ -70,6 +344,49 @@ public class ContactService {
 		this.contactRepository.delete(withContact);
 	}
 
+	/**
+	 * Replaces the name and phone numbers of the specified contact, within a single transaction.
+	 * <p>
+	 * When an {@code If-Match} value is provided, the contact is only updated if it still matches the contact's entity
+	 * tag; the contact's version is also checked when the update is written, so a concurrent update is never lost.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier of the contact to update.
+	 * @param withIfMatch
+	 * 		Value of the {@code If-Match} header, if any.
+	 * @param withContact
+	 * 		Details to update the contact with.
+	 * @return The updated contact.
+	 * @throws ContactNotFoundException
+	 * 		if the contact does not exist.
+	 * @throws PreconditionFailedException
+	 * 		if the {@code If-Match} value does not match the contact's entity tag.
+	 * @throws ObjectOptimisticLockingFailureException
+	 * 		if the contact was updated by another transaction after it was read.
+	 */
+	@Transactional
+	public ContactResponse update(final Integer withIdentifier, final String withIfMatch, final Contact withContact) {
+		final Contact contact = this.contactRepository.findById(withIdentifier)
+				.orElseThrow(ContactNotFoundException::new);
+		if (withIfMatch != null && !ETagUtil.matches(withIfMatch, ETagUtil.of(contact.getVersion()))) {
+			throw new PreconditionFailedException("Contact has been modified.");
+		}
+
+		contact.setName(withContact.getName());
+		contact.replacePhoneNumbers(withContact.getPhoneNumbers());
+		this.validate(contact);
+		contact.updateSearchKeys();
+
+		// flushed now, so the version is incremented, or found to be stale, before the response is built
+		try {
+			this.entityManager.flush();
+		} catch (PersistenceException ex) {
+			final DataAccessException translated = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(ex);
+			throw translated != null ? translated : ex;
+		}
+		return ContactResponse.of(contact);
+	}
+
 	/**
 	 * Saves the specified contact.
 	 *
@@ -79,6 +396,79 @@ public class ContactService {
 	 */
 	public Contact save(final Contact withContact) {
 		this.validate(withContact);
+		withContact.updateSearchKeys();
 		return this.contactRepository.save(withContact);
 	}
+
+	/**
+	 * Reads the contacts on a page of identifiers.
+	 *
+	 * @param withIdentifiers
+	 * 		Slice of contact identifiers.
+	 * @return Slice of Contacts.
+	 */
+	private Slice<ContactResponse> findResponses(final Slice<Integer> withIdentifiers) {
+		return new SliceImpl<>(this.findResponses(withIdentifiers.getContent()), withIdentifiers.getPageable()
+				, withIdentifiers.hasNext());
+	}
+
+	/**
+	 * Reads the specified contacts, with their phone numbers, in a single query.
+	 *
+	 * @param withIdentifiers
+	 * 		Identifiers of the contacts.
+	 * @return List of Contacts, ordered by identifier.
+	 */
+	private List<ContactResponse> findResponses(final Collection<Integer> withIdentifiers) {
+		return withIdentifiers.isEmpty()
+				? List.of()
+				: toResponses(this.contactRepository.findRowsByIdIn(withIdentifiers));
+	}
+
+	/**
+	 * Reads the specified contacts, with their phone numbers, in a single query, returning them in the order given.
+	 *
+	 * @param withIdentifiers
+	 * 		Identifiers of the contacts, in the order to return them.
+	 * @return List of the Contacts that still exist, in the order of the identifiers.
+	 */
+	private List<ContactResponse> findResponsesInOrder(final List<Integer> withIdentifiers) {
+		final Map<Integer, ContactResponse> contacts = new HashMap<>();
+		this.findResponses(withIdentifiers)
+				.forEach(contact -> contacts.put(contact.getId(), contact));
+		return withIdentifiers.stream()
+				.map(contacts::get)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Combines the rows read for each contact, one per phone number, into a single response per contact.
+	 *
+	 * @param withRows
+	 * 		Rows ordered by contact identifier and then phone number position.
+	 * @return List of Contacts, in the order of the rows.
+	 */
+	private static List<ContactResponse> toResponses(final List<ContactRepository.ContactRow> withRows) {
+		final List<ContactResponse> contacts = new ArrayList<>();
+		int start = 0;
+		while (start < withRows.size()) {
+			final ContactRepository.ContactRow first = withRows.get(start);
+			final List<String> phoneNumbers = new ArrayList<>();
+			int end = start;
+			while (end < withRows.size() && withRows.get(end)
+					.getId()
+					.equals(first.getId())) {
+				if (withRows.get(end)
+						.getPosition() != null) {
+					phoneNumbers.add(withRows.get(end)
+							.getPhoneNumber());
+				}
+				end++;
+			}
+			contacts.add(new ContactResponse(first.getId(), first.getVersion(), first.getName(), phoneNumbers));
+			start = end;
+		}
+		return contacts;
+	}
 }
@@ -0,0 +1,344 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.xenosnowfox.addressbook.event.AddressBookChangedEvent;
+import com.xenosnowfox.addressbook.event.ChangeType;
+import com.xenosnowfox.addressbook.event.ContactChangedEvent;
+import com.xenosnowfox.addressbook.event.MembershipChangedEvent;
+import com.xenosnowfox.addressbook.exception.AddressBookNotFoundException;
+import com.xenosnowfox.addressbook.repository.AddressBookContactRepository;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.response.CollectionResponse;
+import com.xenosnowfox.addressbook.response.MembershipCountResponse;
+import com.xenosnowfox.addressbook.util.PaginationUtil;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of address book membership, used to answer set queries across address books without touching the
+ * database.
+ * <p>
+ * The identifiers of the contacts belonging to each address book are held in a compressed (Roaring) bitmap, so the
+ * intersection, union or difference of several address books is computed a container of up to 65536 identifiers at a
+ * time, and the number of contacts in an address book is a constant time lookup.
+ * <p>
+ * The index is rebuilt from the database at start up, and then kept up to date from the change events published by
+ * the entity listeners, as each transaction commits.
+ */
+@Service
+public class MembershipIndex {
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private AddressBookContactRepository addressBookContactRepository;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Identifiers of the contacts belonging to each address book, keyed by address book identifier. Every address book
+	 * is present, even once it no longer has any contacts.
+	 */
+	private final NavigableMap<Integer, RoaringBitmap> members = new TreeMap<>();
+
+	/**
+	 * Discards the contents of the index and reloads every address book, and its members, from the database.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void rebuild() {
+		this.lock.writeLock()
+				.lock();
+		try {
+			this.members.clear();
+
+			try (Stream<Integer> addressBookIds = this.addressBookRepository.streamAllIds()) {
+				addressBookIds.forEach(addressBookId -> this.members.put(addressBookId, new RoaringBitmap()));
+			}
+			try (Stream<AddressBookContactRepository.Membership> memberships = this.addressBookContactRepository
+					.streamAllMemberships()) {
+				memberships.forEach(membership -> this.members.computeIfAbsent(
+								membership.getAddressBookId(), id -> new RoaringBitmap())
+						.add(membership.getContactId()));
+			}
+			this.members.values()
+					.forEach(RoaringBitmap::runOptimize);
+		} finally {
+			this.lock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Returns a page of the contacts that belong to every one of the specified address books.
+	 *
+	 * @param withAddressBookIdentifiers
+	 * 		Identifiers of the address books.
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, if any.
+	 * @param withLimit
+	 * 		Maximum number of contact identifiers to return.
+	 * @return Page of contact identifiers, in ascending order, along with the total number of matching contacts.
+	 * @throws AddressBookNotFoundException
+	 * 		if any of the address books do not exist.
+	 */
+	public CollectionResponse<Integer> intersection(final Collection<Integer> withAddressBookIdentifiers
+			, final String withCursor, final int withLimit) {
+		final Pageable pageable = PaginationUtil.pageOf(withLimit);
+		this.lock.readLock()
+				.lock();
+		try {
+			return pageOf(FastAggregation.and(this.bitmapsOf(withAddressBookIdentifiers)), withCursor, pageable);
+		} finally {
+			this.lock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Returns a page of the contacts that belong to any of the specified address books.
+	 *
+	 * @param withAddressBookIdentifiers
+	 * 		Identifiers of the address books.
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, if any.
+	 * @param withLimit
+	 * 		Maximum number of contact identifiers to return.
+	 * @return Page of contact identifiers, in ascending order, along with the total number of matching contacts.
+	 * @throws AddressBookNotFoundException
+	 * 		if any of the address books do not exist.
+	 */
+	public CollectionResponse<Integer> union(final Collection<Integer> withAddressBookIdentifiers
+			, final String withCursor, final int withLimit) {
+		final Pageable pageable = PaginationUtil.pageOf(withLimit);
+		this.lock.readLock()
+				.lock();
+		try {
+			return pageOf(FastAggregation.or(this.bitmapsOf(withAddressBookIdentifiers)), withCursor, pageable);
+		} finally {
+			this.lock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Returns a page of the contacts that belong to an address book, but to none of the excluded address books.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 * @param withExcludedAddressBookIdentifiers
+	 * 		Identifiers of the address books whose contacts are excluded.
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, if any.
+	 * @param withLimit
+	 * 		Maximum number of contact identifiers to return.
+	 * @return Page of contact identifiers, in ascending order, along with the total number of matching contacts.
+	 * @throws AddressBookNotFoundException
+	 * 		if any of the address books do not exist.
+	 */
+	public CollectionResponse<Integer> difference(final Integer withAddressBookIdentifier
+			, final Collection<Integer> withExcludedAddressBookIdentifiers, final String withCursor, final int withLimit) {
+		final Pageable pageable = PaginationUtil.pageOf(withLimit);
+		this.lock.readLock()
+				.lock();
+		try {
+			final RoaringBitmap included = this.bitmapOf(withAddressBookIdentifier);
+			final RoaringBitmap excluded = FastAggregation.or(this.bitmapsOf(withExcludedAddressBookIdentifiers));
+			return pageOf(RoaringBitmap.andNot(included, excluded), withCursor, pageable);
+		} finally {
+			this.lock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Returns a page of address books, along with the number of contacts belonging to each.
+	 *
+	 * @param withCursor
+	 * 		Cursor token returned with the previous page, if any.
+	 * @param withLimit
+	 * 		Maximum number of address books to return.
+	 * @return Slice of membership counts, ordered by address book identifier.
+	 */
+	public Slice<MembershipCountResponse> countPage(final String withCursor, final int withLimit) {
+		final Pageable pageable = PaginationUtil.pageOf(withLimit);
+		final int after = PaginationUtil.decodeCursor(withCursor);
+		this.lock.readLock()
+				.lock();
+		try {
+			final List<MembershipCountResponse> counts = new ArrayList<>(pageable.getPageSize());
+			for (Map.Entry<Integer, RoaringBitmap> entry : this.members.tailMap(after, false)
+					.entrySet()) {
+				if (counts.size() == pageable.getPageSize()) {
+					return new SliceImpl<>(counts, pageable, true);
+				}
+				counts.add(new MembershipCountResponse(entry.getKey(), entry.getValue()
+						.getLongCardinality()));
+			}
+			return new SliceImpl<>(counts, pageable, false);
+		} finally {
+			this.lock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Returns the identifiers of the address books that a contact belongs to.
+	 *
+	 * @param withContactIdentifier
+	 * 		Identifier of the contact.
+	 * @return Identifiers of the address books, in ascending order; empty if the contact does not exist, as every
+	 * 		contact belongs to at least one address book.
+	 */
+	public List<Integer> findAddressBookIds(final int withContactIdentifier) {
+		this.lock.readLock()
+				.lock();
+		try {
+			final List<Integer> addressBookIds = new ArrayList<>();
+			this.members.forEach((addressBookId, bookMembers) -> {
+				if (bookMembers.contains(withContactIdentifier)) {
+					addressBookIds.add(addressBookId);
+				}
+			});
+			return addressBookIds;
+		} finally {
+			this.lock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Applies a committed change to the membership of an address book.
+	 *
+	 * @param withEvent
+	 * 		Event describing the change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onMembershipChanged(final MembershipChangedEvent withEvent) {
+		this.lock.writeLock()
+				.lock();
+		try {
+			if (withEvent.getChangeType() == ChangeType.DELETED) {
+				final RoaringBitmap bookMembers = this.members.get(withEvent.getAddressBookId());
+				if (bookMembers != null) {
+					bookMembers.remove(withEvent.getContactId());
+				}
+			} else {
+				this.members.computeIfAbsent(withEvent.getAddressBookId(), id -> new RoaringBitmap())
+						.add(withEvent.getContactId());
+			}
+		} finally {
+			this.lock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Applies the committed creation, or deletion, of an address book. The links of a deleted address book are
+	 * removed along with it, and any contact that belonged to no other address book is deleted, so dropping its bitmap
+	 * is all that is needed.
+	 *
+	 * @param withEvent
+	 * 		Event describing the change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onAddressBookChanged(final AddressBookChangedEvent withEvent) {
+		if (withEvent.getChangeType() == ChangeType.UPDATED) {
+			return;
+		}
+
+		this.lock.writeLock()
+				.lock();
+		try {
+			if (withEvent.getChangeType() == ChangeType.DELETED) {
+				this.members.remove(withEvent.getAddressBookId());
+			} else {
+				this.members.putIfAbsent(withEvent.getAddressBookId(), new RoaringBitmap());
+			}
+		} finally {
+			this.lock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Applies the committed deletion of a contact, should any of its links not have been removed individually.
+	 *
+	 * @param withEvent
+	 * 		Event describing the change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onContactChanged(final ContactChangedEvent withEvent) {
+		if (withEvent.getChangeType() != ChangeType.DELETED) {
+			return;
+		}
+
+		this.lock.writeLock()
+				.lock();
+		try {
+			this.members.values()
+					.forEach(bookMembers -> bookMembers.remove(withEvent.getContactId()));
+		} finally {
+			this.lock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Returns the bitmap of an address book. Must be called whilst holding the read lock.
+	 */
+	private RoaringBitmap bitmapOf(final Integer withAddressBookIdentifier) {
+		final RoaringBitmap bookMembers = this.members.get(withAddressBookIdentifier);
+		if (bookMembers == null) {
+			throw new AddressBookNotFoundException();
+		}
+		return bookMembers;
+	}
+
+	/**
+	 * Returns the bitmaps of several address books. Must be called whilst holding the read lock.
+	 */
+	private RoaringBitmap[] bitmapsOf(final Collection<Integer> withAddressBookIdentifiers) {
+		return withAddressBookIdentifiers.stream()
+				.map(this::bitmapOf)
+				.toArray(RoaringBitmap[]::new);
+	}
+
+	/**
+	 * Returns the contacts of a result that follow the cursor, up to the size of the page.
+	 */
+	private static CollectionResponse<Integer> pageOf(final RoaringBitmap withContacts, final String withCursor
+			, final Pageable withPageable) {
+		final int after = PaginationUtil.decodeCursor(withCursor);
+		final List<Integer> contactIds = new ArrayList<>(withPageable.getPageSize());
+		final PeekableIntIterator iterator = withContacts.getIntIterator();
+		iterator.advanceIfNeeded(after + 1);
+		while (iterator.hasNext() && contactIds.size() < withPageable.getPageSize()) {
+			contactIds.add(iterator.next());
+		}
+		final String nextCursor = iterator.hasNext() && !contactIds.isEmpty()
+				? PaginationUtil.encodeCursor(contactIds.get(contactIds.size() - 1))
+				: null;
+		return new CollectionResponse<>(contactIds, withContacts.getLongCardinality(), nextCursor);
+	}
+}
@@ -0,0 +1,169 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.xenosnowfox.addressbook.entity.AddressBookMembershipVersion;
+import com.xenosnowfox.addressbook.repository.AddressBookContactRepository;
+import com.xenosnowfox.addressbook.repository.AddressBookMembershipVersionRepository;
+import com.xenosnowfox.addressbook.util.IdentifierUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Increments the membership version of every address book that a contact was added to, removed from, or updated
+ * within, during the current transaction, and creates the membership version of every address book created within it.
+ * The membership version therefore changes whenever the contacts of an address book do, so it alone serves as the
+ * version of those contacts.
+ * <p>
+ * A contact that is deleted is unlinked from each of its address books, which is recorded as a change in membership.
+ * <p>
+ * The versions are incremented just before the transaction commits, with a single atomic statement, so concurrent
+ * changes to the same address book neither conflict nor lose an increment. They are held apart from the cached
+ * address books, so incrementing them leaves the second level cache untouched.
+ */
+@Service
+public class MembershipVersionTracker {
+
+	@Autowired
+	private AddressBookContactRepository addressBookContactRepository;
+
+	@Autowired
+	private AddressBookMembershipVersionRepository addressBookMembershipVersionRepository;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Records that the specified address book has been created within the current transaction, so that its membership
+	 * version is created along with it.
+	 * <p>
+	 * Address books created outside of a transaction are not recorded.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 */
+	public void addressBookCreated(final Integer withAddressBookIdentifier) {
+		final Changes changes = this.changes();
+		if (changes != null && withAddressBookIdentifier != null) {
+			changes.created.add(withAddressBookIdentifier);
+		}
+	}
+
+	/**
+	 * Records that the membership of the specified address book has changed within the current transaction.
+	 * <p>
+	 * Changes made outside of a transaction are not recorded.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 */
+	public void membershipChanged(final Integer withAddressBookIdentifier) {
+		final Changes changes = this.changes();
+		if (changes != null && withAddressBookIdentifier != null) {
+			changes.changed.add(withAddressBookIdentifier);
+		}
+	}
+
+	/**
+	 * Records that the specified contact has been updated within the current transaction, so that the membership
+	 * version of each of its address books is incremented.
+	 * <p>
+	 * Changes made outside of a transaction are not recorded.
+	 *
+	 * @param withContactIdentifier
+	 * 		Identifier of the contact.
+	 */
+	public void contactChanged(final Integer withContactIdentifier) {
+		final Changes changes = this.changes();
+		if (changes != null && withContactIdentifier != null) {
+			changes.contacts.add(withContactIdentifier);
+		}
+	}
+
+	/**
+	 * Records that a contact has been loaded within the current transaction, unless it is read-only.
+	 * <p>
+	 * Hibernate may only write changes to the contact as the transaction commits, by which time it is too late to
+	 * register for the versions to be incremented, so this registers for it in advance of any such change.
+	 */
+	public void contactLoaded() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			this.changes();
+		}
+	}
+
+	/**
+	 * Returns the changes recorded within the current transaction, registering them to be applied before it commits.
+	 *
+	 * @return Changes, or {@code null} if there is no current transaction.
+	 */
+	private Changes changes() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return null;
+		}
+
+		Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+		if (changes == null) {
+			changes = new Changes();
+			TransactionSynchronizationManager.bindResource(this, changes);
+			TransactionSynchronizationManager.registerSynchronization(new IncrementSynchronization(changes));
+		}
+		return changes;
+	}
+
+	/**
+	 * Address books created, address books whose membership changed, and contacts updated, within a transaction.
+	 */
+	private static class Changes {
+
+		private final Set<Integer> created = new HashSet<>();
+
+		private final Set<Integer> changed = new HashSet<>();
+
+		private final SortedSet<Integer> contacts = new TreeSet<>();
+	}
+
+	/**
+	 * Creates, and increments, the recorded membership versions before the transaction commits.
+	 */
+	private class IncrementSynchronization implements TransactionSynchronization {
+
+		private final Changes changes;
+
+		IncrementSynchronization(final Changes withChanges) {
+			this.changes = withChanges;
+		}
+
+		@Override
+		public void beforeCommit(final boolean withReadOnly) {
+			// flushing may create address books, link, unlink, or update, further contacts, which are recorded into
+			// the same changes
+			MembershipVersionTracker.this.entityManager.flush();
+			if (!this.changes.contacts.isEmpty()) {
+				this.changes.changed.addAll(IdentifierUtil.findInChunks(this.changes.contacts
+						, MembershipVersionTracker.this.addressBookContactRepository::findAddressBookIdsByContactIdIn));
+			}
+			if (!this.changes.created.isEmpty()) {
+				this.changes.created.forEach(addressBookIdentifier -> MembershipVersionTracker.this.entityManager
+						.persist(new AddressBookMembershipVersion(addressBookIdentifier)));
+				MembershipVersionTracker.this.entityManager.flush();
+			}
+			if (!this.changes.changed.isEmpty()) {
+				MembershipVersionTracker.this.addressBookMembershipVersionRepository.incrementVersions(
+						this.changes.changed);
+			}
+		}
+
+		@Override
+		public void afterCompletion(final int withStatus) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(MembershipVersionTracker.this);
+		}
+	}
+}
@@ -0,0 +1,638 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.xenosnowfox.addressbook.event.AddressBookChangedEvent;
+import com.xenosnowfox.addressbook.event.ChangeType;
+import com.xenosnowfox.addressbook.event.ContactChangedEvent;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.util.PhoneNumberUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of phone numbers, used to identify the contacts holding a phone number without touching the
+ * database.
+ * <p>
+ * The numeric key of every phone number is held once, alongside the identifier of the contact holding it, or the
+ * identifiers of the contacts sharing it, in an open addressing hash table of primitive arrays, so finding a phone
+ * number neither allocates nor follows more than one reference. Its contacts are then either handed to a consumer
+ * one by one, with {@link #forEachContact(long, IntConsumer)}, which allocates nothing, or copied into a new array,
+ * with {@link #findContactIds(long)}. The table occupies 12 bytes per slot,
+ * and is never more than half full; its memory, along with an estimate of the memory occupied by the phone numbers of
+ * each contact, is exposed as the {@code addressbook.phone.index.bytes} metric.
+ * <p>
+ * The index is rebuilt from the database at start up, and then kept up to date from the change events published by
+ * the entity listeners, as each transaction commits.
+ */
+@Service
+public class PhoneNumberIndex {
+
+	private static final int[] NO_CONTACTS = new int[0];
+
+	private static final long[] NO_NUMBERS = new long[0];
+
+	/**
+	 * Memory occupied by the header of an array, assuming compressed references.
+	 */
+	private static final long ARRAY_HEADER_BYTES = 16;
+
+	/**
+	 * Memory occupied by a reference, assuming compressed references.
+	 */
+	private static final long REFERENCE_BYTES = 4;
+
+	/**
+	 * Estimated memory occupied by each entry of a {@code HashMap}, other than its value; the entry itself, its boxed
+	 * key and its share of the table of buckets.
+	 */
+	private static final long MAP_ENTRY_BYTES = 32 + 16 + 8;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Identifiers of the contacts holding each phone number.
+	 */
+	private final PhoneNumberTable contactsByNumber = new PhoneNumberTable();
+
+	/**
+	 * Numeric keys of the phone numbers held by each contact, keyed by contact identifier, so the previous numbers of a
+	 * contact can be removed once it changes; only read as contacts change, never by a lookup.
+	 */
+	private final Map<Integer, long[]> numbersByContact = new HashMap<>();
+
+	/**
+	 * Estimated memory occupied by {@link #numbersByContact}.
+	 */
+	private long numbersByContactBytes;
+
+	/**
+	 * Discards the contents of the index and reloads every phone number from the database.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void rebuild() {
+		this.lock.writeLock()
+				.lock();
+		try {
+			this.contactsByNumber.clear();
+			this.numbersByContact.clear();
+
+			// a contact never holds the same phone number twice, so each is appended without searching its contacts
+			try (Stream<ContactRepository.PhoneNumberKey> keys = this.contactRepository.streamAllPhoneNumberKeys()) {
+				keys.forEach(key -> {
+					this.contactsByNumber.append(key.getNumber(), key.getContactId());
+					this.numbersByContact.merge(key.getContactId(), new long[]{key.getNumber()}
+							, PhoneNumberIndex::concat);
+				});
+			}
+			this.contactsByNumber.sort();
+
+			this.numbersByContactBytes = 0;
+			this.numbersByContact.values()
+					.forEach(numbers -> this.numbersByContactBytes += bytesOf(numbers));
+		} finally {
+			this.lock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Returns the contacts holding the specified phone number.
+	 *
+	 * @param withNumber
+	 * 		Numeric key of the phone number.
+	 * @return Identifiers of the contacts, in ascending order; the same empty array whenever there are none.
+	 */
+	public int[] findContactIds(final long withNumber) {
+		this.lock.readLock()
+				.lock();
+		try {
+			return this.contactsByNumber.get(withNumber);
+		} finally {
+			this.lock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Hands each of the contacts holding the specified phone number to a consumer, without copying them.
+	 * <p>
+	 * The consumer is called whilst holding the read lock, so it must not change the index.
+	 *
+	 * @param withNumber
+	 * 		Numeric key of the phone number.
+	 * @param withConsumer
+	 * 		Consumer of the identifiers of the contacts, called in ascending order.
+	 * @return Number of contacts holding the phone number.
+	 */
+	public int forEachContact(final long withNumber, final IntConsumer withConsumer) {
+		this.lock.readLock()
+				.lock();
+		try {
+			return this.contactsByNumber.forEach(withNumber, withConsumer);
+		} finally {
+			this.lock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Applies a committed change to a contact.
+	 *
+	 * @param withEvent
+	 * 		Event describing the change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onContactChanged(final ContactChangedEvent withEvent) {
+		// phone numbers are only provided when they may have changed
+		if (withEvent.getChangeType() != ChangeType.DELETED && withEvent.getPhoneNumbers() == null) {
+			return;
+		}
+
+		this.lock.writeLock()
+				.lock();
+		try {
+			if (withEvent.getChangeType() == ChangeType.DELETED) {
+				this.removeContact(withEvent.getContactId());
+			} else {
+				this.indexContact(withEvent.getContactId(), withEvent.getPhoneNumbers());
+			}
+		} finally {
+			this.lock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Applies the committed deletion of an address book, dropping the contacts that belonged to no other address book.
+	 * <p>
+	 * Those contacts are deleted in bulk, without publishing any events of their own, so their identifiers are carried
+	 * by the event instead.
+	 *
+	 * @param withEvent
+	 * 		Event describing the change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onAddressBookChanged(final AddressBookChangedEvent withEvent) {
+		if (withEvent.getChangeType() != ChangeType.DELETED || withEvent.getDeletedContactIds().length == 0) {
+			return;
+		}
+
+		this.lock.writeLock()
+				.lock();
+		try {
+			for (int contactId : withEvent.getDeletedContactIds()) {
+				this.removeContact(contactId);
+			}
+		} finally {
+			this.lock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Returns the estimated memory occupied by the index; its hash table and the phone numbers of each contact.
+	 *
+	 * @return Size in bytes.
+	 */
+	public long bytes() {
+		this.lock.readLock()
+				.lock();
+		try {
+			return this.contactsByNumber.bytes() + this.numbersByContactBytes;
+		} finally {
+			this.lock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Exposes the size of the index as metrics.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void registerMetrics() {
+		Gauge.builder("addressbook.phone.index.numbers", this.contactsByNumber, PhoneNumberTable::size)
+				.description("Number of phone numbers held by the phone number index")
+				.register(this.meterRegistry);
+		Gauge.builder("addressbook.phone.index.bytes", this, PhoneNumberIndex::bytes)
+				.description("Estimated memory occupied by the phone number index")
+				.baseUnit(BaseUnits.BYTES)
+				.register(this.meterRegistry);
+	}
+
+	/**
+	 * Replaces the phone numbers of a contact. Must be called whilst holding the write lock.
+	 */
+	private void indexContact(final int withContactId, final List<String> withPhoneNumbers) {
+		final long[] numbers = withPhoneNumbers.stream()
+				.mapToLong(PhoneNumberUtil::normalize)
+				.distinct()
+				.toArray();
+		final long[] previousNumbers = this.numbersByContact.getOrDefault(withContactId, NO_NUMBERS);
+
+		for (long number : previousNumbers) {
+			if (!contains(numbers, number)) {
+				this.contactsByNumber.remove(number, withContactId);
+			}
+		}
+		for (long number : numbers) {
+			this.contactsByNumber.put(number, withContactId);
+		}
+
+		if (previousNumbers.length > 0) {
+			this.numbersByContactBytes -= bytesOf(previousNumbers);
+		}
+		if (numbers.length == 0) {
+			this.numbersByContact.remove(withContactId);
+		} else {
+			this.numbersByContact.put(withContactId, numbers);
+			this.numbersByContactBytes += bytesOf(numbers);
+		}
+	}
+
+	/**
+	 * Removes every phone number of a contact. Must be called whilst holding the write lock.
+	 */
+	private void removeContact(final int withContactId) {
+		final long[] numbers = this.numbersByContact.remove(withContactId);
+		if (numbers == null) {
+			return;
+		}
+
+		this.numbersByContactBytes -= bytesOf(numbers);
+		for (long number : numbers) {
+			this.contactsByNumber.remove(number, withContactId);
+		}
+	}
+
+	private static boolean contains(final long[] withNumbers, final long withNumber) {
+		for (long number : withNumbers) {
+			if (number == withNumber) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static long bytesOf(final long[] withNumbers) {
+		return MAP_ENTRY_BYTES + ARRAY_HEADER_BYTES + (long) withNumbers.length * Long.BYTES;
+	}
+
+	private static long[] concat(final long[] withNumbers, final long[] withMoreNumbers) {
+		final long[] numbers = Arrays.copyOf(withNumbers, withNumbers.length + withMoreNumbers.length);
+		System.arraycopy(withMoreNumbers, 0, numbers, withNumbers.length, withMoreNumbers.length);
+		return numbers;
+	}
+
+	/**
+	 * Hash table from each phone number to the contacts holding it, held in primitive arrays.
+	 * <p>
+	 * Each phone number occupies a single slot, found by probing linearly from the slot that it hashes to, so every
+	 * phone number lies within the run of occupied slots that starts at or before that slot, and a number held by many
+	 * contacts lengthens no run by more than one slot. A slot holds the identifier of the only contact holding its
+	 * phone number or, once several contacts hold it, the index of their identifiers within the postings, negated and
+	 * less one. A slot is empty when it holds zero, which is never given to a contact, so any phone number, including
+	 * zero, is a valid key.
+	 */
+	private static class PhoneNumberTable {
+
+		private static final int MINIMUM_CAPACITY = 1 << 10;
+
+		private static final int MINIMUM_POSTINGS = 1 << 4;
+
+		/**
+		 * Fractional part of the golden ratio, used to spread numbers that share their low digits across the table.
+		 */
+		private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+		private long[] numbers;
+
+		private int[] values;
+
+		/**
+		 * Identifiers of the contacts sharing each phone number, in ascending order, followed by any spare capacity;
+		 * {@code null} once released.
+		 */
+		private int[][] postings;
+
+		/**
+		 * Number of identifiers held by each of the postings.
+		 */
+		private int[] postingSizes;
+
+		/**
+		 * Indexes of the released postings, reused before any new index, as a stack.
+		 */
+		private int[] releasedPostings;
+
+		private int releasedPostingCount;
+
+		/**
+		 * Number of postings indexes ever used, including those released.
+		 */
+		private int postingCount;
+
+		/**
+		 * Memory occupied by the arrays of every posting.
+		 */
+		private long postingBytes;
+
+		private int mask;
+
+		private int shift;
+
+		private int size;
+
+		private PhoneNumberTable() {
+			this.clear();
+		}
+
+		/**
+		 * Returns the contacts holding a phone number, in ascending order.
+		 */
+		private int[] get(final long withNumber) {
+			final int slot = this.find(withNumber);
+			if (slot < 0) {
+				return NO_CONTACTS;
+			}
+
+			final int value = this.values[slot];
+			if (value > 0) {
+				return new int[]{value};
+			}
+			final int posting = -value - 1;
+			return Arrays.copyOf(this.postings[posting], this.postingSizes[posting]);
+		}
+
+		/**
+		 * Hands each of the contacts holding a phone number to a consumer, in ascending order, returning how many
+		 * there were.
+		 */
+		private int forEach(final long withNumber, final IntConsumer withConsumer) {
+			final int slot = this.find(withNumber);
+			if (slot < 0) {
+				return 0;
+			}
+
+			final int value = this.values[slot];
+			if (value > 0) {
+				withConsumer.accept(value);
+				return 1;
+			}
+			final int posting = -value - 1;
+			final int[] ids = this.postings[posting];
+			final int size = this.postingSizes[posting];
+			for (int index = 0; index < size; index++) {
+				withConsumer.accept(ids[index]);
+			}
+			return size;
+		}
+
+		/**
+		 * Adds a contact to a phone number, unless it already holds it, doubling the capacity of the table once it
+		 * would be more than half full.
+		 */
+		private void put(final long withNumber, final int withContactId) {
+			this.add(withNumber, withContactId, true);
+		}
+
+		/**
+		 * Adds a contact, which does not yet hold it, to a phone number, without keeping the contacts of the number in
+		 * order; {@link #sort()} must be called once every contact has been added.
+		 */
+		private void append(final long withNumber, final int withContactId) {
+			this.add(withNumber, withContactId, false);
+		}
+
+		/**
+		 * Restores the order of the contacts of every phone number, after they have been appended.
+		 */
+		private void sort() {
+			for (int posting = 0; posting < this.postingCount; posting++) {
+				if (this.postings[posting] != null) {
+					Arrays.sort(this.postings[posting], 0, this.postingSizes[posting]);
+				}
+			}
+		}
+
+		/**
+		 * Removes a contact from a phone number, if it holds it.
+		 */
+		private void remove(final long withNumber, final int withContactId) {
+			final int slot = this.find(withNumber);
+			if (slot < 0) {
+				return;
+			}
+
+			final int value = this.values[slot];
+			if (value > 0) {
+				if (value == withContactId) {
+					this.removeSlot(slot);
+				}
+				return;
+			}
+
+			final int posting = -value - 1;
+			final int[] ids = this.postings[posting];
+			final int size = this.postingSizes[posting];
+			final int index = Arrays.binarySearch(ids, 0, size, withContactId);
+			if (index < 0) {
+				return;
+			}
+			if (size == 2) {
+				// the remaining contact is held in the slot itself
+				this.values[slot] = ids[1 - index];
+				this.releasePosting(posting);
+				return;
+			}
+			System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+			this.postingSizes[posting] = size - 1;
+		}
+
+		private void clear() {
+			this.allocate(MINIMUM_CAPACITY);
+			this.postings = new int[MINIMUM_POSTINGS][];
+			this.postingSizes = new int[MINIMUM_POSTINGS];
+			this.releasedPostings = new int[MINIMUM_POSTINGS];
+			this.releasedPostingCount = 0;
+			this.postingCount = 0;
+			this.postingBytes = 0;
+		}
+
+		private int size() {
+			return this.size;
+		}
+
+		private long bytes() {
+			return (long) this.values.length * (Long.BYTES + Integer.BYTES)
+					+ (long) this.postings.length * (REFERENCE_BYTES + Integer.BYTES + Integer.BYTES)
+					+ this.postingBytes;
+		}
+
+		private int slotOf(final long withNumber) {
+			return (int) ((withNumber * GOLDEN_RATIO) >>> this.shift);
+		}
+
+		/**
+		 * Returns the slot holding a phone number, or {@code -1} if no contact holds it.
+		 */
+		private int find(final long withNumber) {
+			for (int slot = this.slotOf(withNumber); this.values[slot] != 0; slot = (slot + 1) & this.mask) {
+				if (this.numbers[slot] == withNumber) {
+					return slot;
+				}
+			}
+			return -1;
+		}
+
+		private void add(final long withNumber, final int withContactId, final boolean withOrdered) {
+			int slot = this.slotOf(withNumber);
+			for (; this.values[slot] != 0; slot = (slot + 1) & this.mask) {
+				if (this.numbers[slot] == withNumber) {
+					this.addToSlot(slot, withContactId, withOrdered);
+					return;
+				}
+			}
+
+			if ((this.size + 1) * 2 > this.values.length) {
+				this.resize(this.values.length * 2);
+				slot = this.slotOf(withNumber);
+				while (this.values[slot] != 0) {
+					slot = (slot + 1) & this.mask;
+				}
+			}
+			this.numbers[slot] = withNumber;
+			this.values[slot] = withContactId;
+			this.size++;
+		}
+
+		/**
+		 * Adds a contact to the phone number held in a slot, moving its contacts to the postings once there are
+		 * several of them.
+		 */
+		private void addToSlot(final int withSlot, final int withContactId, final boolean withOrdered) {
+			final int value = this.values[withSlot];
+			if (value > 0) {
+				if (value != withContactId) {
+					final int posting = this.allocatePosting();
+					this.postings[posting][0] = Math.min(value, withContactId);
+					this.postings[posting][1] = Math.max(value, withContactId);
+					this.postingSizes[posting] = 2;
+					this.values[withSlot] = -posting - 1;
+				}
+				return;
+			}
+
+			final int posting = -value - 1;
+			int[] ids = this.postings[posting];
+			final int size = this.postingSizes[posting];
+			int index = size;
+			if (withOrdered) {
+				index = Arrays.binarySearch(ids, 0, size, withContactId);
+				if (index >= 0) {
+					return;
+				}
+				index = -index - 1;
+			}
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				this.postings[posting] = ids;
+				this.postingBytes += (long) size * Integer.BYTES;
+			}
+			System.arraycopy(ids, index, ids, index + 1, size - index);
+			ids[index] = withContactId;
+			this.postingSizes[posting] = size + 1;
+		}
+
+		private int allocatePosting() {
+			final int posting;
+			if (this.releasedPostingCount > 0) {
+				posting = this.releasedPostings[--this.releasedPostingCount];
+			} else {
+				if (this.postingCount == this.postings.length) {
+					this.postings = Arrays.copyOf(this.postings, this.postingCount * 2);
+					this.postingSizes = Arrays.copyOf(this.postingSizes, this.postingCount * 2);
+					this.releasedPostings = Arrays.copyOf(this.releasedPostings, this.postingCount * 2);
+				}
+				posting = this.postingCount++;
+			}
+			this.postings[posting] = new int[2];
+			this.postingBytes += ARRAY_HEADER_BYTES + 2 * Integer.BYTES;
+			return posting;
+		}
+
+		private void releasePosting(final int withPosting) {
+			this.postingBytes -= ARRAY_HEADER_BYTES + (long) this.postings[withPosting].length * Integer.BYTES;
+			this.postings[withPosting] = null;
+			this.postingSizes[withPosting] = 0;
+			this.releasedPostings[this.releasedPostingCount++] = withPosting;
+		}
+
+		/**
+		 * Empties a slot, moving back any later phone number of the same run that could otherwise no longer be reached
+		 * from the slot that it hashes to.
+		 */
+		private void removeSlot(final int withSlot) {
+			int gap = withSlot;
+			for (int slot = (gap + 1) & this.mask; this.values[slot] != 0; slot = (slot + 1) & this.mask) {
+				final int home = this.slotOf(this.numbers[slot]);
+				if (((slot - home) & this.mask) >= ((slot - gap) & this.mask)) {
+					this.numbers[gap] = this.numbers[slot];
+					this.values[gap] = this.values[slot];
+					gap = slot;
+				}
+			}
+			this.numbers[gap] = 0;
+			this.values[gap] = 0;
+			this.size--;
+		}
+
+		private void allocate(final int withCapacity) {
+			this.numbers = new long[withCapacity];
+			this.values = new int[withCapacity];
+			this.mask = withCapacity - 1;
+			this.shift = Long.SIZE - Integer.numberOfTrailingZeros(withCapacity);
+			this.size = 0;
+		}
+
+		private void resize(final int withCapacity) {
+			final long[] previousNumbers = this.numbers;
+			final int[] previousValues = this.values;
+			final int previousSize = this.size;
+			this.allocate(withCapacity);
+
+			for (int index = 0; index < previousValues.length; index++) {
+				if (previousValues[index] != 0) {
+					int slot = this.slotOf(previousNumbers[index]);
+					while (this.values[slot] != 0) {
+						slot = (slot + 1) & this.mask;
+					}
+					this.numbers[slot] = previousNumbers[index];
+					this.values[slot] = previousValues[index];
+				}
+			}
+			this.size = previousSize;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.xenosnowfox.addressbook.exception.ContactNotFoundException;
+import com.xenosnowfox.addressbook.response.AddressBookResponse;
+import com.xenosnowfox.addressbook.response.ContactResponse;
+import com.xenosnowfox.addressbook.util.PaginationUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Asynchronous read access to address books and contacts.
+ * <p>
+ * The repositories are blocking, so every query is run on the bounded elastic scheduler rather than on the calling
+ * thread. Collections are read one page at a time, each page in its own short transaction, and the next page is only
+ * read once the subscriber has requested more, so a slow subscriber holds neither a database connection nor more than
+ * a single page in memory.
+ */
+@Service
+public class ReactiveReadService {
+
+	/**
+	 * Number of items read from the database per query.
+	 */
+	public static final int PAGE_SIZE = 500;
+
+	@Autowired
+	private AddressBookService addressBookService;
+
+	@Autowired
+	private ContactService contactService;
+
+	/**
+	 * Streams every address book, ordered by identifier.
+	 *
+	 * @return Flux of address books.
+	 */
+	public Flux<AddressBookResponse> streamAddressBooks() {
+		return paginate(after -> this.addressBookService.findPage(after, PAGE_SIZE)
+				.getContent(), AddressBookResponse::getId);
+	}
+
+	/**
+	 * Streams the contacts that belong to the specified address book, with their phone numbers, ordered by
+	 * identifier.
+	 *
+	 * @param withAddressBookIdentifier
+	 * 		Identifier of the address book.
+	 * @return Flux of contacts.
+	 */
+	public Flux<ContactResponse> streamContacts(final Integer withAddressBookIdentifier) {
+		return paginate(after -> this.contactService.findPageByAddressBook(withAddressBookIdentifier, after
+				, PAGE_SIZE), ContactResponse::getId);
+	}
+
+	/**
+	 * Retrieves the specified contact, with its phone numbers.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier of the contact.
+	 * @return Mono of the contact, which errors with {@link ContactNotFoundException} if the contact does not exist.
+	 */
+	public Mono<ContactResponse> findContact(final Integer withIdentifier) {
+		return Mono.fromCallable(() -> this.contactService.findResponseById(withIdentifier)
+						.orElseThrow(ContactNotFoundException::new))
+				.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	/**
+	 * Creates a flux that reads pages on demand, each page starting after the identifier of the last item of the
+	 * previous page.
+	 *
+	 * @param withPageReader
+	 * 		Function that reads the page starting after the given identifier.
+	 * @param withIdentifierFunction
+	 * 		Function that returns the identifier of an item.
+	 * @param <T>
+	 * 		Type of item.
+	 * @return Flux of items.
+	 */
+	private static <T> Flux<T> paginate(final IntFunction<List<T>> withPageReader
+			, final Function<T, Integer> withIdentifierFunction) {
+		return Flux.<List<T>, Integer>generate(() -> PaginationUtil.FIRST_IDENTIFIER, (after, sink) -> {
+					final List<T> page = withPageReader.apply(after);
+					if (!page.isEmpty()) {
+						sink.next(page);
+					}
+					if (page.size() < PAGE_SIZE) {
+						sink.complete();
+						return after;
+					}
+					return withIdentifierFunction.apply(page.get(page.size() - 1));
+				})
+				// requests, and therefore the generator, are run on the scheduler rather than the subscriber's thread
+				.subscribeOn(Schedulers.boundedElastic())
+				.concatMapIterable(Function.identity(), 1);
+	}
+}
@@ -0,0 +1,42 @@
+package com.xenosnowfox.addressbook.util;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * Slice of items retrieved using keyset pagination over a key other than the identifier, along with the cursor token of
+ * the following page, as that key is not part of the items themselves.
+ *
+ * @param <ENTITY> Data type of the items.
+ */
+public class CursorSlice<ENTITY> extends SliceImpl<ENTITY> {
+
+	/**
+	 * Cursor token that can be used to request the next page of items, or {@code null} if this is the last page.
+	 */
+	private final String nextCursor;
+
+	/**
+	 * Instantiates a new instance.
+	 *
+	 * @param withContent
+	 * 		Items on the page.
+	 * @param withPageable
+	 * 		Page request that the items were retrieved with.
+	 * @param withNextCursor
+	 * 		Cursor token for the next page, or {@code null} if this is the last page.
+	 */
+	public CursorSlice(final List<ENTITY> withContent, final Pageable withPageable, final String withNextCursor) {
+		super(withContent, withPageable, withNextCursor != null);
+		this.nextCursor = withNextCursor;
+	}
+
+	/**
+	 * @return Cursor token for the next page, or {@code null} if this is the last page.
+	 */
+	public String getNextCursor() {
+		return this.nextCursor;
+	}
+}
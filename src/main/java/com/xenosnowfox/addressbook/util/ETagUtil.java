@@ -0,0 +1,53 @@
+package com.xenosnowfox.addressbook.util;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Helper methods for building and comparing entity tags.
+ */
+@UtilityClass
+public class ETagUtil {
+
+	/**
+	 * Builds a strong entity tag from the version of an entity.
+	 *
+	 * @param withVersion
+	 * 		Version of the entity.
+	 * @return Quoted entity tag.
+	 */
+	public String of(final Integer withVersion) {
+		return "\"" + withVersion + "\"";
+	}
+
+	/**
+	 * Builds a weak entity tag, for a representation that is semantically, but not byte for byte, the same whenever the
+	 * tag matches; such as one that can be content negotiated or compressed.
+	 *
+	 * @param withValue
+	 * 		Unquoted value of the entity tag.
+	 * @return Quoted entity tag, prefixed with {@code W/}.
+	 */
+	public String weak(final String withValue) {
+		return "W/\"" + withValue + "\"";
+	}
+
+	/**
+	 * Determines whether the value of an {@code If-Match} header matches the specified entity tag, using the strong
+	 * comparison function, so weak entity tags never match.
+	 *
+	 * @param withIfMatch
+	 * 		Value of the {@code If-Match} header; a comma separated list of entity tags, or {@code *}.
+	 * @param withETag
+	 * 		Quoted, current entity tag of the resource.
+	 * @return {@code true} if the header matches.
+	 */
+	public boolean matches(final String withIfMatch, final String withETag) {
+		for (final String candidate : withIfMatch.split(",")) {
+			final String eTag = candidate.trim();
+			if (eTag.equals("*") || eTag.equals(withETag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,79 @@
+package com.xenosnowfox.addressbook.util;
+
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Helper methods for retrieving many entities by their identifiers at once.
+ */
+@UtilityClass
+public class IdentifierUtil {
+
+	/**
+	 * Upper bound on the number of distinct identifiers that can be requested at once.
+	 */
+	public final int MAXIMUM_IDENTIFIERS = PaginationUtil.MAXIMUM_PAGE_SIZE;
+
+	/**
+	 * Number of identifiers bound to the {@code IN} clause of a single query.
+	 */
+	public final int CHUNK_SIZE = 500;
+
+	/**
+	 * Validates the requested identifiers, removing any duplicates.
+	 *
+	 * @param withIdentifiers
+	 * 		Requested identifiers.
+	 * @return Distinct identifiers, in ascending order.
+	 * @throws InvalidRequestException
+	 * 		if no identifiers, a missing identifier, or too many identifiers were requested.
+	 */
+	public SortedSet<Integer> distinctOf(final Collection<Integer> withIdentifiers) {
+		if (withIdentifiers == null || withIdentifiers.isEmpty()) {
+			throw new InvalidRequestException("At least one identifier must be specified.");
+		}
+		if (withIdentifiers.stream()
+				.anyMatch(Objects::isNull)) {
+			throw new InvalidRequestException("Identifiers must not be blank.");
+		}
+
+		final SortedSet<Integer> identifiers = new TreeSet<>(withIdentifiers);
+		if (identifiers.size() > MAXIMUM_IDENTIFIERS) {
+			throw new InvalidRequestException("At most " + MAXIMUM_IDENTIFIERS + " identifiers can be specified.");
+		}
+		return identifiers;
+	}
+
+	/**
+	 * Retrieves the entities with the specified identifiers, with one query per chunk of identifiers rather than one
+	 * per identifier.
+	 *
+	 * @param withIdentifiers
+	 * 		Distinct identifiers, in ascending order.
+	 * @param withFinder
+	 * 		Function that retrieves the entities with a chunk of identifiers, ordered by identifier.
+	 * @param <ENTITY> Data type of the entities.
+	 * @return List of the entities that were found, ordered by identifier.
+	 */
+	public <ENTITY> List<ENTITY> findInChunks(final SortedSet<Integer> withIdentifiers
+			, final Function<Collection<Integer>, List<ENTITY>> withFinder) {
+		if (withIdentifiers.size() <= CHUNK_SIZE) {
+			return withFinder.apply(withIdentifiers);
+		}
+
+		final List<Integer> identifiers = new ArrayList<>(withIdentifiers);
+		final List<ENTITY> entities = new ArrayList<>(identifiers.size());
+		for (int i = 0; i < identifiers.size(); i += CHUNK_SIZE) {
+			entities.addAll(withFinder.apply(identifiers.subList(i, Math.min(i + CHUNK_SIZE, identifiers.size()))));
+		}
+		return entities;
+	}
+}
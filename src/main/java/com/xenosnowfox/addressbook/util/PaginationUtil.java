@@ -0,0 +1,187 @@
+package com.xenosnowfox.addressbook.util;
+
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Helper methods for keyset (cursor) based pagination over entity identifiers, or other unique keys.
+ */
+@UtilityClass
+public class PaginationUtil {
+
+	/**
+	 * Number of items returned per page when the client does not specify a limit; declared as a string constant, and
+	 * explicitly static, so that it can be used as the default value of a request parameter.
+	 */
+	public static final String DEFAULT_PAGE_SIZE = "100";
+
+	/**
+	 * Upper bound on the number of items that can be returned in a single page.
+	 */
+	public final int MAXIMUM_PAGE_SIZE = 1000;
+
+	/**
+	 * Identifier that every page request starts after when no cursor is provided.
+	 */
+	public final int FIRST_IDENTIFIER = 0;
+
+	/**
+	 * Separator between the identifier and the key of a cursor; identifiers never contain it, keys may.
+	 */
+	private final String CURSOR_SEPARATOR = ":";
+
+	/**
+	 * Encodes the identifier of the last item on a page into an opaque cursor token.
+	 *
+	 * @param withIdentifier
+	 * 		Identifier of the last item returned.
+	 * @return Cursor token.
+	 */
+	public String encodeCursor(final Integer withIdentifier) {
+		return Base64.getUrlEncoder()
+				.withoutPadding()
+				.encodeToString(String.valueOf(withIdentifier)
+						.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a cursor token back into the identifier that the next page should start after.
+	 *
+	 * @param withCursor
+	 * 		Cursor token, or {@code null} to start from the first page.
+	 * @return Identifier to start after.
+	 * @throws InvalidRequestException
+	 * 		if the cursor token is malformed.
+	 */
+	public int decodeCursor(final String withCursor) {
+		if (withCursor == null || withCursor.isBlank()) {
+			return FIRST_IDENTIFIER;
+		}
+
+		try {
+			final String value = new String(Base64.getUrlDecoder()
+					.decode(withCursor), StandardCharsets.UTF_8);
+			return Integer.parseInt(value);
+		} catch (IllegalArgumentException ex) {
+			throw new InvalidRequestException("Invalid cursor.");
+		}
+	}
+
+	/**
+	 * Encodes the key of the last item on a page, for pages ordered by a key other than the identifier, into an opaque
+	 * cursor token.
+	 *
+	 * @param withKey
+	 * 		Key of the last item returned.
+	 * @return Cursor token.
+	 */
+	public String encodeKeyCursor(final String withKey) {
+		return Base64.getUrlEncoder()
+				.withoutPadding()
+				.encodeToString(withKey.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a cursor token back into the key that the next page should start after.
+	 *
+	 * @param withCursor
+	 * 		Cursor token, or {@code null} to start from the first page.
+	 * @return Key to start after; an empty string for the first page.
+	 * @throws InvalidRequestException
+	 * 		if the cursor token is malformed.
+	 */
+	public String decodeKeyCursor(final String withCursor) {
+		if (withCursor == null || withCursor.isBlank()) {
+			return "";
+		}
+
+		try {
+			return new String(Base64.getUrlDecoder()
+					.decode(withCursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException ex) {
+			throw new InvalidRequestException("Invalid cursor.");
+		}
+	}
+
+	/**
+	 * Encodes the key and identifier of the last item on a page, for pages ordered by a key that is not unique and
+	 * then by identifier, into an opaque cursor token.
+	 *
+	 * @param withKey
+	 * 		Key of the last item returned.
+	 * @param withIdentifier
+	 * 		Identifier of the last item returned.
+	 * @return Cursor token.
+	 */
+	public String encodeCursor(final String withKey, final Integer withIdentifier) {
+		return encodeKeyCursor(withIdentifier + CURSOR_SEPARATOR + withKey);
+	}
+
+	/**
+	 * Decodes a cursor token, encoded with {@link #encodeCursor(String, Integer)}, back into the key that the next
+	 * page should start after.
+	 *
+	 * @param withCursor
+	 * 		Cursor token, or {@code null} to start from the first page.
+	 * @return Key to start after; an empty string for the first page.
+	 * @throws InvalidRequestException
+	 * 		if the cursor token is malformed.
+	 */
+	public String decodeCursorKey(final String withCursor) {
+		final String value = decodeKeyCursor(withCursor);
+		return value.isEmpty() ? value : value.substring(separatorOf(value) + 1);
+	}
+
+	/**
+	 * Decodes a cursor token, encoded with {@link #encodeCursor(String, Integer)}, back into the identifier that the
+	 * next page should start after, amongst the items with the same key.
+	 *
+	 * @param withCursor
+	 * 		Cursor token, or {@code null} to start from the first page.
+	 * @return Identifier to start after.
+	 * @throws InvalidRequestException
+	 * 		if the cursor token is malformed.
+	 */
+	public int decodeCursorIdentifier(final String withCursor) {
+		final String value = decodeKeyCursor(withCursor);
+		if (value.isEmpty()) {
+			return FIRST_IDENTIFIER;
+		}
+
+		try {
+			return Integer.parseInt(value.substring(0, separatorOf(value)));
+		} catch (NumberFormatException ex) {
+			throw new InvalidRequestException("Invalid cursor.");
+		}
+	}
+
+	/**
+	 * Builds a page request, ordered by identifier, for the requested number of items.
+	 *
+	 * @param withLimit
+	 * 		Requested number of items.
+	 * @return Page request.
+	 * @throws InvalidRequestException
+	 * 		if the limit is outside of the supported range.
+	 */
+	public Pageable pageOf(final int withLimit) {
+		if (withLimit < 1 || withLimit > MAXIMUM_PAGE_SIZE) {
+			throw new InvalidRequestException("Limit must be between 1 and " + MAXIMUM_PAGE_SIZE + ".");
+		}
+		return PageRequest.of(0, withLimit, Sort.by("id"));
+	}
+
+	private int separatorOf(final String withValue) {
+		final int separator = withValue.indexOf(CURSOR_SEPARATOR);
+		if (separator < 0) {
+			throw new InvalidRequestException("Invalid cursor.");
+		}
+		return separator;
+	}
+}
@@ -0,0 +1,98 @@
+package com.xenosnowfox.addressbook.util;
+
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Helper methods for normalizing phone numbers into E.164 style numeric keys, so that the same number is stored, and
+ * matched, identically however it was formatted.
+ * <p>
+ * A number starting with {@code +} already includes its country code. Any other number is treated as a national
+ * number, dropping its trunk prefix ({@code 0}), if any, and prepending {@link #DEFAULT_COUNTRY_CODE}. The same rules
+ * are applied to existing phone numbers by the {@code V3} migration.
+ */
+@UtilityClass
+public class PhoneNumberUtil {
+
+	/**
+	 * Country calling code assumed for numbers that are not written in international format.
+	 */
+	public final String DEFAULT_COUNTRY_CODE = "61";
+
+	/**
+	 * Upper bound on the number of digits in an E.164 number, including its country code.
+	 */
+	public final int MAXIMUM_DIGITS = 15;
+
+	/**
+	 * Number of hexadecimal digits in the hash of a set of phone numbers; explicitly static, so that it can be used as
+	 * the length of a column.
+	 */
+	public static final int HASH_LENGTH = 16;
+
+	/**
+	 * Normalizes a phone number into its numeric key.
+	 *
+	 * @param withPhoneNumber
+	 * 		Phone number, in any format.
+	 * @return Country code and subscriber number, as a single number.
+	 * @throws InvalidRequestException
+	 * 		if the phone number does not contain a subscriber number, or contains too many digits.
+	 */
+	public long normalize(final String withPhoneNumber) {
+		if (withPhoneNumber == null) {
+			throw new InvalidRequestException("Phone number cannot be blank.");
+		}
+
+		final String digits = SearchKeyUtil.phoneNumberKey(withPhoneNumber);
+		final String number;
+		if (withPhoneNumber.strip()
+				.startsWith("+")) {
+			number = digits;
+		} else {
+			final String nationalNumber = digits.startsWith("0") ? digits.substring(1) : digits;
+			number = nationalNumber.isEmpty() ? "" : DEFAULT_COUNTRY_CODE + nationalNumber;
+		}
+
+		if (number.isEmpty() || number.length() > MAXIMUM_DIGITS) {
+			throw new InvalidRequestException("Invalid phone number: " + withPhoneNumber.strip());
+		}
+		return Long.parseLong(number);
+	}
+
+	/**
+	 * Hashes a set of phone numbers, so that contacts with the same phone numbers, in any order, can be matched by a
+	 * single indexed column. The {@code V4} migration computes the same hash for existing contacts.
+	 *
+	 * @param withNumbers
+	 * 		Numeric keys of the phone numbers.
+	 * @return First 16 hexadecimal digits of the SHA-256 hash of the numbers, in ascending order, separated by commas.
+	 */
+	public String hashOf(final long... withNumbers) {
+		final String numbers = LongStream.of(withNumbers)
+				.sorted()
+				.mapToObj(Long::toString)
+				.collect(Collectors.joining(","));
+
+		final byte[] hash;
+		try {
+			hash = MessageDigest.getInstance("SHA-256")
+					.digest(numbers.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is not supported.", ex);
+		}
+
+		final StringBuilder hex = new StringBuilder(HASH_LENGTH);
+		for (int i = 0; i < HASH_LENGTH / 2; i++) {
+			hex.append(Character.forDigit((hash[i] >> 4) & 0xF, 16))
+					.append(Character.forDigit(hash[i] & 0xF, 16));
+		}
+		return hex.toString();
+	}
+}
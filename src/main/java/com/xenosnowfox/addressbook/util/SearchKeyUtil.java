@@ -0,0 +1,49 @@
+package com.xenosnowfox.addressbook.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Locale;
+
+/**
+ * Helper methods for deriving the normalized keys that contacts are searched by.
+ */
+@UtilityClass
+public class SearchKeyUtil {
+
+	/**
+	 * Normalizes a contact name, or name prefix, so that it can be matched regardless of case or leading whitespace.
+	 *
+	 * @param withName
+	 * 		Name to normalize.
+	 * @return Normalized name, or an empty string if no name was provided.
+	 */
+	public String nameKey(final String withName) {
+		if (withName == null) {
+			return "";
+		}
+		return withName.stripLeading()
+				.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Normalizes a phone number down to its digits, so that it can be matched regardless of how it was formatted.
+	 *
+	 * @param withPhoneNumber
+	 * 		Phone number to normalize.
+	 * @return Digits of the phone number, or an empty string if it does not contain any.
+	 */
+	public String phoneNumberKey(final String withPhoneNumber) {
+		if (withPhoneNumber == null) {
+			return "";
+		}
+
+		final StringBuilder digits = new StringBuilder(withPhoneNumber.length());
+		for (int i = 0; i < withPhoneNumber.length(); i++) {
+			final char character = withPhoneNumber.charAt(i);
+			if (character >= '0' && character <= '9') {
+				digits.append(character);
+			}
+		}
+		return digits.toString();
+	}
+}
@@ -0,0 +1,46 @@
+create sequence contact_sequence start with 1 increment by 50;
+create sequence address_book_contact_sequence start with 1 increment by 50;
+
+create table address_book (
+	id integer generated by default as identity,
+	name varchar(255) not null,
+	version integer,
+	membership_version bigint default 0 not null,
+	primary key (id)
+);
+
+create table contact (
+	id integer not null,
+	name varchar(255) not null,
+	search_name varchar(255) not null,
+	version integer,
+	primary key (id)
+);
+
+create index contact_search_name_idx on contact (search_name);
+
+create table contact_phone_numbers (
+	contact_id integer not null,
+	phone_number_position integer not null,
+	phone_numbers varchar(255),
+	primary key (contact_id, phone_number_position),
+	constraint contact_phone_numbers_contact_fk foreign key (contact_id) references contact (id)
+);
+
+create table contact_phone_number_digits (
+	contact_id integer not null,
+	digits varchar(255) not null,
+	primary key (contact_id, digits),
+	constraint contact_phone_number_digits_contact_fk foreign key (contact_id) references contact (id)
+);
+
+create index contact_phone_number_digits_idx on contact_phone_number_digits (digits);
+
+create table address_book_contact (
+	id integer not null,
+	addressbook_id integer not null,
+	contact_id integer not null,
+	primary key (id),
+	constraint address_book_contact_address_book_fk foreign key (addressbook_id) references address_book (id),
+	constraint address_book_contact_contact_fk foreign key (contact_id) references contact (id) on delete cascade
+);
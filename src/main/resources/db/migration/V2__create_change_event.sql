@@ -0,0 +1,12 @@
+-- Append-only log of changes, written in batches behind the transactions that made them
+create table change_event (
+	id bigint generated by default as identity,
+	occurred_at timestamp not null,
+	entity_type varchar(32) not null,
+	change_type varchar(16) not null,
+	address_book_id integer,
+	contact_id integer,
+	name varchar(255),
+	phone_numbers varchar(4000),
+	primary key (id)
+);
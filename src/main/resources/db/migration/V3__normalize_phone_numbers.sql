@@ -0,0 +1,45 @@
+-- Phone numbers are stored as E.164 style numeric keys, along with the number as it was entered for display, replacing
+-- both the free-form phone numbers and their digits. Numbers are normalized as PhoneNumberUtil does; numbers written
+-- with a leading + keep their digits, whilst any other number drops its trunk prefix (0) and gains the default country
+-- code (61). Numbers without a subscriber number, or with more than 15 digits, cannot be normalized and are dropped,
+-- as are repeats of a number already held by the same contact; the remaining numbers keep their relative order.
+create table contact_phone_number (
+	contact_id integer not null,
+	phone_number_position integer not null,
+	phone_number bigint not null,
+	display varchar(255) not null,
+	primary key (contact_id, phone_number_position),
+	constraint contact_phone_number_contact_fk foreign key (contact_id) references contact (id),
+	constraint contact_phone_number_unique unique (contact_id, phone_number)
+);
+
+create index contact_phone_number_idx on contact_phone_number (phone_number, contact_id);
+
+insert into contact_phone_number (contact_id, phone_number_position, phone_number, display)
+select contact_id
+	, row_number() over (partition by contact_id order by phone_number_position) - 1
+	, cast(normalized as bigint)
+	, display
+from (
+	select contact_id, phone_number_position, normalized, display
+		, row_number() over (partition by contact_id, normalized order by phone_number_position) as occurrence
+	from (
+		select contact_id, phone_number_position, display
+			, case
+				when display like '+%' then digits
+				when regexp_replace(digits, '^0', '') = '' then ''
+				else '61' || regexp_replace(digits, '^0', '')
+			end as normalized
+		from (
+			select contact_id, phone_number_position, trim(phone_numbers) as display
+				, regexp_replace(phone_numbers, '[^0-9]', '') as digits
+			from contact_phone_numbers
+			where phone_numbers is not null
+		) entered
+	) normalized
+	where length(normalized) between 1 and 15
+) distinct_numbers
+where occurrence = 1;
+
+drop table contact_phone_number_digits;
+drop table contact_phone_numbers;
@@ -0,0 +1,19 @@
+-- Contacts are duplicates of each other when they have the same name, ignoring case and surrounding whitespace, and the
+-- same set of phone numbers. Both are persisted as a single indexed key, so the unique contacts across address books
+-- are paged through as a range scan over that index rather than by grouping every selected contact on every page.
+-- The phone numbers are hashed as PhoneNumberUtil does; the first 16 hexadecimal digits of the SHA-256 hash of their
+-- numeric keys, in ascending order, separated by commas.
+alter table contact add column phone_numbers_hash varchar(16);
+alter table contact add column duplicate_key varchar(272);
+
+update contact c set phone_numbers_hash = left(rawtohex(hash('SHA256', stringtoutf8(coalesce((
+	select group_concat(p.phone_number order by p.phone_number separator ',')
+	from contact_phone_number p
+	where p.contact_id = c.id
+), '')), 1)), 16);
+update contact set duplicate_key = rtrim(search_name) || ' ' || phone_numbers_hash;
+
+alter table contact alter column phone_numbers_hash set not null;
+alter table contact alter column duplicate_key set not null;
+
+create index contact_duplicate_key_idx on contact (duplicate_key, id);
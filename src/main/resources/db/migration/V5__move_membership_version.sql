@@ -0,0 +1,16 @@
+-- Membership versions are incremented with a bulk update whenever a contact is added to, or removed from, an address
+-- book. Held in the cached address book table, every such update evicted all address books, and their collections,
+-- from the second level cache; they are moved to a table of their own, which is not cached.
+create table address_book_membership_version (
+	address_book_id integer not null,
+	version bigint not null,
+	primary key (address_book_id),
+	constraint address_book_membership_version_address_book_fk foreign key (address_book_id)
+		references address_book (id) on delete cascade
+);
+
+insert into address_book_membership_version (address_book_id, version)
+select id, membership_version
+from address_book;
+
+alter table address_book drop column membership_version;
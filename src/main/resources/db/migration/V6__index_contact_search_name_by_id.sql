@@ -0,0 +1,4 @@
+-- Name searches are paged in order of name and then identifier, so that each page is a range scan of this index that
+-- starts where the previous page ended, rather than reading and sorting every contact matching the prefix.
+drop index contact_search_name_idx;
+create index contact_search_name_idx on contact (search_name, id);
@@ -7,6 +7,7 @@ import com.xenosnowfox.addressbook.repository.ContactRepository;
 import lombok.experimental.UtilityClass;
 import org.apache.commons.lang3.RandomStringUtils;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
@@ -74,6 +75,28 @@ public class InjectorUtil {
 		return contacts;
 	}
 
+	/**
+	 * Helper method that injects the specified number of randomly generated contacts into the repository in bulk.
+	 *
+	 * @param withContactRepository
+	 * 		Repository to insert the contacts into.
+	 * @param withTotal
+	 * 		Number of contacts to generate.
+	 * @param withAddressBooks
+	 *      Array of address books to assign the contacts to.
+	 * @return List of randomly generated contacts.
+	 */
+	public List<Contact> injectRandomContacts(final ContactRepository withContactRepository, final int withTotal
+			, final AddressBook... withAddressBooks) {
+		final List<Contact> contacts = IntStream.range(0, withTotal)
+				.mapToObj(i -> new Contact(generateRandomContactName(), generateRandomPhoneNumbers(), withAddressBooks))
+				.collect(Collectors.toList());
+		final List<Contact> saved = new ArrayList<>();
+		withContactRepository.saveAll(contacts)
+				.forEach(saved::add);
+		return saved;
+	}
+
 	/**
 	 * Helper method to random generate a contact name that resembles a `First Name + Surname` format.
 	 *
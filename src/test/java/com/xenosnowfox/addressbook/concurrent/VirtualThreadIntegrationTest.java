@@ -0,0 +1,119 @@
+package com.xenosnowfox.addressbook.concurrent;
+
+import com.xenosnowfox.addressbook.InjectorUtil;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.EnabledIf;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+@SpringBootTest(
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+		, properties = {
+		"addressbook.virtual-threads.enabled=true"
+		, "server.tomcat.threads.max=1"
+}
+)
+@EnabledIf(expression = "#{T(com.xenosnowfox.addressbook.concurrent.VirtualThreads).isSupported()}"
+		, loadContext = false)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@ExtendWith(SpringExtension.class)
+public class VirtualThreadIntegrationTest {
+
+	@Autowired
+	private ServletWebServerApplicationContext applicationContext;
+
+	@Autowired
+	@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+	private AsyncTaskExecutor applicationTaskExecutor;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Test
+	@DisplayName("Ensure Tomcat processes requests on virtual threads")
+	public void testTomcatExecutor() {
+		final Executor executor = ((TomcatWebServer) this.applicationContext.getWebServer()).getTomcat()
+				.getConnector()
+				.getProtocolHandler()
+				.getExecutor();
+
+		final CompletableFuture<Thread> thread = new CompletableFuture<>();
+		executor.execute(() -> thread.complete(Thread.currentThread()));
+
+		Assertions.assertTrue(isVirtual(thread.join()));
+		Assertions.assertTrue(thread.join()
+				.getName()
+				.startsWith("http-virtual-"));
+	}
+
+	@Test
+	@DisplayName("Ensure asynchronous tasks are run on virtual threads")
+	public void testApplicationTaskExecutor() {
+		final Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, this.applicationTaskExecutor)
+				.join();
+
+		Assertions.assertTrue(isVirtual(thread));
+		Assertions.assertTrue(thread.getName()
+				.startsWith("task-virtual-"));
+	}
+
+	@Test
+	@DisplayName("Ensure concurrent requests are not bounded by the Tomcat thread pool")
+	public void testConcurrentRequests() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		InjectorUtil.injectRandomNumberOfContacts(this.contactRepository, addressBook);
+
+		final HttpClient httpClient = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.build();
+		final HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:"
+				+ this.applicationContext.getWebServer()
+				.getPort() + "/addressbooks/" + addressBook.getId() + "/contacts"))
+				.GET()
+				.build();
+
+		final List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+		}
+
+		for (CompletableFuture<HttpResponse<Void>> response : responses) {
+			Assertions.assertEquals(200, response.join()
+					.statusCode());
+		}
+	}
+
+	private static boolean isVirtual(final Thread withThread) {
+		try {
+			return (Boolean) Thread.class.getMethod("isVirtual")
+					.invoke(withThread);
+		} catch (ReflectiveOperationException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
@@ -4,10 +4,18 @@ import com.xenosnowfox.addressbook.InjectorUtil;
 import com.xenosnowfox.addressbook.entity.AddressBook;
 import com.xenosnowfox.addressbook.entity.Contact;
 import com.xenosnowfox.addressbook.exception.AddressBookNotFoundException;
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
 import com.xenosnowfox.addressbook.repository.AddressBookRepository;
 import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.response.AddressBookResponse;
 import com.xenosnowfox.addressbook.response.CollectionResponse;
+import com.xenosnowfox.addressbook.response.ContactResponse;
+import com.xenosnowfox.addressbook.response.ImportResponse;
+import com.xenosnowfox.addressbook.response.MultiGetResponse;
+import com.xenosnowfox.addressbook.service.ContactService;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,20 +23,32 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 @ExtendWith(SpringExtension.class)
 public class AddressBookControllerIntegrationTest {
@@ -42,6 +62,15 @@ public class AddressBookControllerIntegrationTest {
 	@Autowired
 	private ContactRepository contactRepository;
 
+	@Autowired
+	private ContactService contactService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
 	@Test
 	@Transactional(propagation = Propagation.REQUIRED)
 	@DisplayName("Ensure that getAddressBook returns the correct data")
@@ -50,7 +79,7 @@ public class AddressBookControllerIntegrationTest {
 		final AddressBook expected = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
 
 		// Run the test
-		AddressBook returnedAddressBook = this.addressBookController.getAddressBook(expected.getId());
+		AddressBookResponse returnedAddressBook = this.addressBookController.getAddressBook(expected.getId());
 
 		// Assert the results
 		Assertions.assertNotNull(returnedAddressBook);
@@ -82,13 +111,85 @@ public class AddressBookControllerIntegrationTest {
 		Assertions.assertNotEquals(0, addressBooks.size());
 
 		// Run the test
-		CollectionResponse<AddressBook> response = this.addressBookController.getAllAddressBooks();
+		CollectionResponse<AddressBookResponse> response = this.addressBookController.getAllAddressBooks(null, 100);
 
 		// Assert the results
+		final Set<AddressBookResponse> expected = addressBooks.stream()
+				.map(AddressBookResponse::of)
+				.collect(Collectors.toSet());
 		Assertions.assertEquals(addressBooks.size(), response.getCount());
-		for (AddressBook actual : response.getItems()) {
-			Assertions.assertTrue(addressBooks.contains(actual));
+		for (AddressBookResponse actual : response.getItems()) {
+			Assertions.assertTrue(expected.contains(actual));
 		}
+		Assertions.assertNull(response.getNextCursor());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure that getAddressBooks pages through all data using the returned cursor")
+	public void testGetAddressBooksPagesThroughAllDataUsingCursor() {
+		// Set up our control data
+		final Set<AddressBook> addressBooks = new HashSet<>();
+		for (int i = 0; i < 5; i++) {
+			addressBooks.add(InjectorUtil.injectRandomAddressBook(this.addressBookRepository));
+		}
+
+		// Run the test
+		final List<AddressBookResponse> actual = new ArrayList<>();
+		String cursor = null;
+		do {
+			CollectionResponse<AddressBookResponse> response = this.addressBookController.getAllAddressBooks(cursor, 2);
+			Assertions.assertTrue(response.getCount() <= 2);
+			Assertions.assertEquals(Long.valueOf(addressBooks.size()), response.getTotal());
+			response.getItems()
+					.forEach(actual::add);
+			cursor = response.getNextCursor();
+		} while (cursor != null);
+
+		// Assert the results
+		Assertions.assertEquals(addressBooks.size(), actual.size());
+		Assertions.assertEquals(addressBooks.stream()
+				.map(AddressBookResponse::of)
+				.collect(Collectors.toSet()), new HashSet<>(actual));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure that getAddressBooks rejects a malformed cursor")
+	public void testGetAddressBooksThrowsExceptionForMalformedCursor() {
+		Assertions.assertThrows(
+				InvalidRequestException.class
+				, () -> this.addressBookController.getAllAddressBooks("not a cursor", 10)
+		);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure that getAddressBooksById returns the requested address books and the missing identifiers")
+	public void testGetAddressBooksByIdReturnsFoundAndMissing() {
+		// Set up our control data
+		final AddressBook first = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final AddressBook second = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final int missing = second.getId() + 1;
+
+		// Run the test
+		final MultiGetResponse<AddressBookResponse> response = this.addressBookController.getAddressBooksById(
+				List.of(second.getId(), missing + 1, missing, first.getId(), missing + 1, second.getId()));
+
+		// Assert the results
+		Assertions.assertEquals(List.of(AddressBookResponse.of(first), AddressBookResponse.of(second))
+				, response.getItems());
+		Assertions.assertEquals(List.of(missing, missing + 1), List.copyOf(response.getMissing()));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure that getAddressBooksById rejects an empty list of identifiers")
+	public void testGetAddressBooksByIdThrowsExceptionForNoIdentifiers() {
+		Assertions.assertThrows(
+				InvalidRequestException.class
+				, () -> this.addressBookController.getAddressBooksById(List.of())
+		);
 	}
 
 	@Test
@@ -100,7 +201,7 @@ public class AddressBookControllerIntegrationTest {
 		AddressBook expected = new AddressBook(RandomStringUtils.randomAlphanumeric(50));
 
 		// Run the test
-		AddressBook actual = this.addressBookController.createAddressBook(expected);
+		AddressBookResponse actual = this.addressBookController.createAddressBook(expected);
 
 		// Assert the results
 		Assertions.assertNotNull(actual);
@@ -156,14 +257,17 @@ public class AddressBookControllerIntegrationTest {
 
 		for (AddressBook item : collection) {
 			System.out.println(item);
-			Assertions.assertNotEquals(target, item);
+			Assertions.assertNotEquals(target.getId(), item.getId());
 		}
 		Assertions.assertEquals(expected.size(), StreamSupport.stream(collection.spliterator(), false)
 				.count());
 
 		// Assert that the remaining items remained in the repository
+		final Set<Integer> expectedIdentifiers = expected.stream()
+				.map(AddressBook::getId)
+				.collect(Collectors.toSet());
 		for (AddressBook item : collection) {
-			Assertions.assertTrue(expected.contains(item));
+			Assertions.assertTrue(expectedIdentifiers.contains(item.getId()));
 		}
 	}
 
@@ -178,11 +282,13 @@ public class AddressBookControllerIntegrationTest {
 		final List<String> phoneNumbers = InjectorUtil.generateRandomPhoneNumbers();
 		final Contact expectedContact = new Contact(contactName, phoneNumbers);
 
-		final Contact actualContact = this.addressBookController.createNewContactInAddressBook(
+		final ContactResponse response = this.addressBookController.createNewContactInAddressBook(
 				addressBook.getId(), expectedContact);
+		final Contact actualContact = this.contactRepository.findById(response.getId())
+				.orElseThrow();
 
-		Assertions.assertEquals(contactName, actualContact.getName());
-		Assertions.assertEquals(phoneNumbers, actualContact.getPhoneNumbers());
+		Assertions.assertEquals(contactName, response.getName());
+		Assertions.assertEquals(phoneNumbers, response.getPhoneNumbers());
 		Assertions.assertNotEquals(0, actualContact.getAddressBookContacts()
 				.size());
 		Assertions.assertTrue(
@@ -236,11 +342,129 @@ public class AddressBookControllerIntegrationTest {
 		final AddressBook addressBook2 = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
 		final Set<Contact> contacts2 = InjectorUtil.injectRandomNumberOfContacts(this.contactRepository, addressBook2);
 
-		final CollectionResponse<Contact> response = this.addressBookController.getContactsFromAddressBook(addressBook1.getId());
+		final CollectionResponse<ContactResponse> response = this.addressBookController.getContactsFromAddressBook(
+				addressBook1.getId(), new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse()));
 		Assertions.assertEquals(contacts1.size(), response.getCount());
-		for (final Contact contact : response.getItems()) {
-			Assertions.assertTrue(contacts1.contains(contact));
-			Assertions.assertFalse(contacts2.contains(contact));
+		for (final ContactResponse contact : response.getItems()) {
+			Assertions.assertTrue(contacts1.stream()
+					.anyMatch(expected -> expected.getId()
+							.equals(contact.getId())));
+			Assertions.assertTrue(contacts2.stream()
+					.noneMatch(unexpected -> unexpected.getId()
+							.equals(contact.getId())));
 		}
 	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure listing an address book's contacts uses a constant number of queries")
+	public void testGetContactsFromAddressBookUsesConstantNumberOfQueries() {
+		// Set up control data
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Set<Contact> contacts = new HashSet<>();
+		for (int i = 0; i < 50; i++) {
+			contacts.add(InjectorUtil.injectRandomContact(this.contactRepository, addressBook));
+		}
+
+		// make sure nothing is served from the persistence context
+		this.entityManager.flush();
+		this.entityManager.clear();
+		final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+
+		// Run the test, touching everything that gets serialized
+		final CollectionResponse<ContactResponse> response = this.addressBookController.getContactsFromAddressBook(
+				addressBook.getId(), new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse()));
+		long phoneNumbers = 0;
+		for (final ContactResponse contact : response.getItems()) {
+			phoneNumbers += contact.getPhoneNumbers()
+					.size();
+		}
+
+		// Assert the results: one query for the entity tag, one for the contacts and their phone numbers
+		Assertions.assertEquals(contacts.size(), response.getCount());
+		Assertions.assertEquals(contacts.stream()
+				.mapToLong(contact -> contact.getPhoneNumbers()
+						.size())
+				.sum(), phoneNumbers);
+		Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	@DisplayName("Ensure a JSON array of contacts can be imported, reporting invalid entries individually")
+	public void testImportContactsFromJson() throws IOException {
+		// Set up control data
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final String json = "["
+				+ "{\"name\": \"Alice Able\", \"phoneNumbers\": [\"0400000001\"]}"
+				+ ", {\"name\": \"\", \"phoneNumbers\": [\"0400000002\"]}"
+				+ ", {\"name\": \"Bob Baker\", \"phoneNumbers\": [\"0400000003\", \"0400000004\"]}"
+				+ ", {\"name\": {\"first\": \"Carol\"}}"
+				+ ", {\"name\": \"Dave Dawson\"}"
+				+ "]";
+
+		// Run the test
+		final ImportResponse response = this.addressBookController.importContactsFromJson(
+				addressBook.getId(), new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+		// Assert the results
+		Assertions.assertEquals(3, response.getImported());
+		Assertions.assertEquals(List.of(2L, 4L), response.getErrors()
+				.stream()
+				.map(ImportResponse.ImportError::getRow)
+				.collect(Collectors.toList()));
+
+		final Map<String, List<String>> actual = this.contactService.findAllByAddressBook(addressBook.getId())
+				.stream()
+				.collect(Collectors.toMap(ContactResponse::getName, contact -> new ArrayList<>(contact.getPhoneNumbers())));
+		Assertions.assertEquals(Map.of(
+				"Alice Able", List.of("0400000001")
+				, "Bob Baker", List.of("0400000003", "0400000004")
+				, "Dave Dawson", List.of()
+		), actual);
+	}
+
+	@Test
+	@DisplayName("Ensure CSV data can be imported, reporting invalid lines individually")
+	public void testImportContactsFromCsv() throws IOException {
+		// Set up control data
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final String csv = "name,phone numbers\n"
+				+ "Alice Able,0400000001\n"
+				+ "\n"
+				+ ",0400000002\n"
+				+ "\"Baker, Bob\",0400000003,0400000004\n";
+
+		// Run the test
+		final ImportResponse response = this.addressBookController.importContactsFromCsv(
+				addressBook.getId(), new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+		// Assert the results
+		Assertions.assertEquals(2, response.getImported());
+		Assertions.assertEquals(1, response.getErrors()
+				.size());
+		Assertions.assertEquals(4, response.getErrors()
+				.get(0)
+				.getRow());
+
+		final Map<String, List<String>> actual = this.contactService.findAllByAddressBook(addressBook.getId())
+				.stream()
+				.collect(Collectors.toMap(ContactResponse::getName, contact -> new ArrayList<>(contact.getPhoneNumbers())));
+		Assertions.assertEquals(Map.of(
+				"Alice Able", List.of("0400000001")
+				, "Baker, Bob", List.of("0400000003", "0400000004")
+		), actual);
+	}
+
+	@Test
+	@DisplayName("Ensure importing into a non-existent address book throws an exception")
+	public void testImportContactsThrowsExceptionIfBookDoesNotExist() {
+		Assertions.assertThrows(
+				AddressBookNotFoundException.class
+				, () -> this.addressBookController.importContactsFromCsv(
+						ThreadLocalRandom.current()
+								.nextInt(), new ByteArrayInputStream(new byte[0]))
+		);
+	}
 }
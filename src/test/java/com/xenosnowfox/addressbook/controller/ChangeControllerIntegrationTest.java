@@ -0,0 +1,253 @@
+package com.xenosnowfox.addressbook.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.xenosnowfox.addressbook.InjectorUtil;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.event.ChangeType;
+import com.xenosnowfox.addressbook.event.EntityType;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.response.ChangeResponse;
+import com.xenosnowfox.addressbook.service.ChangeFeed;
+import com.xenosnowfox.addressbook.service.ChangeLogWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Changes are only recorded as each transaction commits, and the event stream is served by a real server, so these
+ * tests deliberately run without a surrounding transaction. The flush interval is long enough that changes are only
+ * written, and so published, when a test flushes the change log writer.
+ */
+@SpringBootTest(
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+		, properties = {
+		"addressbook.change-log.flush-interval=1h"
+		, "addressbook.change-feed.buffer-size=4"
+}
+)
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@ExtendWith(SpringExtension.class)
+public class ChangeControllerIntegrationTest {
+
+	private static final long TIMEOUT_SECONDS = 10;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ChangeFeed changeFeed;
+
+	@Autowired
+	private ChangeLogWriter changeLogWriter;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Test
+	@DisplayName("Ensure the changes after a sequence number are returned in order")
+	public void testGetChanges() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+		this.changeLogWriter.flush();
+
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/changes"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.count")
+						.value(3))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[0].sequence")
+						.value(1))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[2].sequence")
+						.value(3))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[0].entityType")
+						.value(EntityType.ADDRESS_BOOK.name()))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[0].name")
+						.value(addressBook.getName()));
+
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/changes")
+						.param("since", "1")
+						.param("limit", "1"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.count")
+						.value(1))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[0].sequence")
+						.value(2))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[0].entityType")
+						.value(EntityType.CONTACT.name()));
+	}
+
+	@Test
+	@DisplayName("Ensure deleting an address book records the deletion of the contacts deleted along with it")
+	public void testGetChangesAfterDeletingAddressBook() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final AddressBook otherAddressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+		final Contact otherContact = InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+		InjectorUtil.injectRandomContact(this.contactRepository, addressBook, otherAddressBook);
+
+		this.mockMvc.perform(MockMvcRequestBuilders.delete("/addressbooks/{id}", addressBook.getId()))
+				.andExpect(MockMvcResultMatchers.status()
+						.isNoContent());
+		this.changeLogWriter.flush();
+
+		final String content = this.mockMvc.perform(MockMvcRequestBuilders.get("/changes"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andReturn()
+				.getResponse()
+				.getContentAsString();
+		final List<Map<String, Object>> deletions = JsonPath.read(content
+				, "$.items[?(@.changeType == '" + ChangeType.DELETED.name() + "')]");
+		Assertions.assertEquals(List.of(EntityType.CONTACT.name(), EntityType.CONTACT.name()
+						, EntityType.ADDRESS_BOOK.name())
+				, deletions.stream()
+						.map(deletion -> deletion.get("entityType"))
+						.collect(Collectors.toList()));
+		Assertions.assertEquals(Set.of(contact.getId(), otherContact.getId()), deletions.subList(0, 2)
+				.stream()
+				.map(deletion -> deletion.get("contactId"))
+				.collect(Collectors.toSet()));
+		Assertions.assertEquals(addressBook.getId(), deletions.get(2)
+				.get("addressBookId"));
+	}
+
+	@Test
+	@DisplayName("Ensure a negative sequence number is rejected")
+	public void testGetChangesWithNegativeSequence() throws Exception {
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/changes")
+						.param("since", "-1"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isBadRequest());
+	}
+
+	@Test
+	@DisplayName("Ensure following the change feed returns past changes and then new ones, without gaps")
+	public void testFollow() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		this.changeLogWriter.flush();
+
+		final CompletableFuture<List<ChangeResponse>> changes = this.changeFeed.follow(0)
+				.take(3)
+				.collectList()
+				.toFuture();
+		InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+		this.changeLogWriter.flush();
+
+		final List<ChangeResponse> actual = changes.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		Assertions.assertEquals(List.of(1L, 2L, 3L), actual.stream()
+				.map(ChangeResponse::getSequence)
+				.collect(Collectors.toList()));
+		Assertions.assertEquals(List.of(EntityType.ADDRESS_BOOK, EntityType.CONTACT, EntityType.MEMBERSHIP)
+				, actual.stream()
+						.map(ChangeResponse::getEntityType)
+						.collect(Collectors.toList()));
+		Assertions.assertTrue(actual.stream()
+				.allMatch(change -> change.getChangeType() == ChangeType.CREATED));
+	}
+
+	@Test
+	@DisplayName("Ensure a follower that falls too far behind is disconnected rather than holding up the others")
+	public void testSlowFollower() throws Exception {
+		final BaseSubscriber<ChangeResponse> stalled = new BaseSubscriber<>() {
+			@Override
+			protected void hookOnSubscribe(final Subscription withSubscription) {
+				// never requests a change
+			}
+		};
+		this.changeFeed.follow(0)
+				.subscribe(stalled);
+		final BlockingQueue<ChangeResponse> received = new LinkedBlockingQueue<>();
+		final Disposable following = this.changeFeed.follow(0)
+				.subscribe(received::add);
+		Assertions.assertEquals(2, this.changeFeed.countFollowers());
+
+		for (int i = 1; i <= 5; i++) {
+			InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+			this.changeLogWriter.flush();
+			Assertions.assertEquals(i, received.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+					.getSequence());
+		}
+		Assertions.assertEquals(1, this.changeFeed.countFollowers());
+
+		following.dispose();
+		stalled.dispose();
+		Assertions.assertEquals(0, this.changeFeed.countFollowers());
+	}
+
+	@Test
+	@DisplayName("Ensure the event stream resumes after the Last-Event-ID header and continues with new changes")
+	public void testStreamChanges() throws Exception {
+		InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		this.changeLogWriter.flush();
+
+		final HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+				.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + this.port + "/changes/stream"))
+						.header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+						.header("Last-Event-ID", "1")
+						.timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+						.build(), HttpResponse.BodyHandlers.ofLines())
+				.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		Assertions.assertEquals(200, response.statusCode());
+
+		final Iterator<String> lines = response.body()
+				.filter(line -> line.startsWith("id:"))
+				.iterator();
+		try {
+			Assertions.assertEquals("id:2", nextLine(lines));
+
+			InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+			this.changeLogWriter.flush();
+			Assertions.assertEquals("id:3", nextLine(lines));
+		} finally {
+			response.body()
+					.close();
+		}
+	}
+
+	private static String nextLine(final Iterator<String> withLines) throws Exception {
+		return CompletableFuture.supplyAsync(withLines::next)
+				.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+}
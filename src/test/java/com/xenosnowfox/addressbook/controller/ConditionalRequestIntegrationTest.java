@@ -0,0 +1,279 @@
+package com.xenosnowfox.addressbook.controller;
+
+import com.xenosnowfox.addressbook.InjectorUtil;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.service.ContactService;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+/**
+ * Membership versions are only incremented, and version conflicts only detected, as a transaction commits, so these
+ * tests deliberately run without a surrounding transaction.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@ExtendWith(SpringExtension.class)
+public class ConditionalRequestIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private ContactService contactService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	@DisplayName("Ensure an unchanged contact list is not modified, without loading any entity")
+	public void testNotModified() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		InjectorUtil.injectRandomNumberOfContacts(this.contactRepository, addressBook);
+		final String eTag = this.getContactsETag(addressBook);
+
+		final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+
+		final MvcResult result = this.mockMvc.perform(MockMvcRequestBuilders.get(
+								"/addressbooks/{id}/contacts", addressBook.getId())
+						.header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(MockMvcResultMatchers.status()
+						.isNotModified())
+				.andExpect(MockMvcResultMatchers.header()
+						.string(HttpHeaders.ETAG, eTag))
+				.andReturn();
+
+		Assertions.assertEquals("", result.getResponse()
+				.getContentAsString());
+		Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+		Assertions.assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	@DisplayName("Ensure the entity tag changes when a contact is added, updated or removed")
+	public void testETagChanges() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+		final String created = this.getContactsETag(addressBook);
+
+		InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+		final String added = this.getContactsETag(addressBook);
+		Assertions.assertNotEquals(created, added);
+
+		this.mockMvc.perform(MockMvcRequestBuilders.put("/contacts/{id}", contact.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Renamed\", \"phoneNumbers\": [\"0400000000\"]}"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk());
+		final String updated = this.getContactsETag(addressBook);
+		Assertions.assertNotEquals(added, updated);
+
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/addressbooks/{id}/contacts", addressBook.getId())
+						.header(HttpHeaders.IF_NONE_MATCH, added))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk());
+
+		this.mockMvc.perform(MockMvcRequestBuilders.delete(
+						"/addressbooks/{addressBookId}/contacts/{contactId}", addressBook.getId(), contact.getId()))
+				.andExpect(MockMvcResultMatchers.status()
+						.isNoContent());
+		final String removed = this.getContactsETag(addressBook);
+		Assertions.assertNotEquals(updated, removed);
+		Assertions.assertFalse(List.of(created, added).contains(removed));
+	}
+
+	@Test
+	@DisplayName("Ensure the membership version is incremented once per transaction that changes the membership")
+	public void testMembershipVersion() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final AddressBook otherAddressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		InjectorUtil.injectRandomContacts(this.contactRepository, 10, addressBook);
+		InjectorUtil.injectRandomContact(this.contactRepository, addressBook, otherAddressBook);
+
+		Assertions.assertEquals(2L, this.addressBookRepository.findMembershipVersionById(addressBook.getId())
+				.orElseThrow());
+		Assertions.assertEquals(1L, this.addressBookRepository.findMembershipVersionById(otherAddressBook.getId())
+				.orElseThrow());
+	}
+
+	@Test
+	@DisplayName("Ensure the membership version of each of a contact's address books is incremented when it changes")
+	public void testMembershipVersionOnContactChanges() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final AddressBook otherAddressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final AddressBook unrelatedAddressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = InjectorUtil.injectRandomContact(this.contactRepository, addressBook
+				, otherAddressBook);
+		InjectorUtil.injectRandomContact(this.contactRepository, unrelatedAddressBook);
+
+		// the change is only written as the transaction commits
+		this.transactionTemplate.executeWithoutResult(status -> this.contactRepository.findById(contact.getId())
+				.orElseThrow()
+				.setName("Renamed"));
+		Assertions.assertEquals(2L, this.addressBookRepository.findMembershipVersionById(addressBook.getId())
+				.orElseThrow());
+		Assertions.assertEquals(2L, this.addressBookRepository.findMembershipVersionById(otherAddressBook.getId())
+				.orElseThrow());
+		Assertions.assertEquals(1L, this.addressBookRepository.findMembershipVersionById(unrelatedAddressBook.getId())
+				.orElseThrow());
+
+		this.transactionTemplate.executeWithoutResult(status -> this.contactRepository.delete(
+				this.contactRepository.findById(contact.getId())
+						.orElseThrow()));
+		Assertions.assertEquals(3L, this.addressBookRepository.findMembershipVersionById(addressBook.getId())
+				.orElseThrow());
+		Assertions.assertEquals(3L, this.addressBookRepository.findMembershipVersionById(otherAddressBook.getId())
+				.orElseThrow());
+		Assertions.assertEquals(1L, this.addressBookRepository.findMembershipVersionById(unrelatedAddressBook.getId())
+				.orElseThrow());
+	}
+
+	@Test
+	@DisplayName("Ensure incrementing the membership version leaves the address books in the second level cache")
+	public void testMembershipVersionKeepsAddressBooksCached() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final AddressBook otherAddressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+
+		// the first lookups are allowed to go to the database in order to populate the cache
+		Assertions.assertTrue(this.addressBookRepository.findById(addressBook.getId())
+				.isPresent());
+		Assertions.assertTrue(this.addressBookRepository.findById(otherAddressBook.getId())
+				.isPresent());
+
+		InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+		Assertions.assertEquals(1L, this.addressBookRepository.findMembershipVersionById(addressBook.getId())
+				.orElseThrow());
+
+		final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+
+		Assertions.assertTrue(this.addressBookRepository.findById(addressBook.getId())
+				.isPresent());
+		Assertions.assertTrue(this.addressBookRepository.findById(otherAddressBook.getId())
+				.isPresent());
+		Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+		Assertions.assertEquals(2, statistics.getDomainDataRegionStatistics("address-book")
+				.getHitCount());
+	}
+
+	@Test
+	@DisplayName("Ensure a contact is only updated when the If-Match header matches its current entity tag")
+	public void testIfMatch() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+		final String eTag = this.mockMvc.perform(MockMvcRequestBuilders.get("/contacts/{id}", contact.getId()))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andReturn()
+				.getResponse()
+				.getHeader(HttpHeaders.ETAG);
+		Assertions.assertNotNull(eTag);
+
+		final String updated = this.mockMvc.perform(MockMvcRequestBuilders.put("/contacts/{id}", contact.getId())
+						.header(HttpHeaders.IF_MATCH, eTag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"First\", \"phoneNumbers\": [\"0400000000\"]}"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andReturn()
+				.getResponse()
+				.getHeader(HttpHeaders.ETAG);
+		Assertions.assertNotNull(updated);
+		Assertions.assertNotEquals(eTag, updated);
+
+		this.mockMvc.perform(MockMvcRequestBuilders.put("/contacts/{id}", contact.getId())
+						.header(HttpHeaders.IF_MATCH, eTag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"Second\", \"phoneNumbers\": [\"0400000000\"]}"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isPreconditionFailed());
+
+		Assertions.assertEquals("First", this.contactRepository.findById(contact.getId())
+				.orElseThrow()
+				.getName());
+	}
+
+	@Test
+	@DisplayName("Ensure a concurrent update is rejected rather than silently overwritten")
+	public void testLostUpdate() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+		final Contact stale = this.transactionTemplate.execute(status -> {
+			final Contact loaded = this.contactRepository.findById(contact.getId())
+					.orElseThrow();
+			Hibernate.initialize(loaded.getPhoneNumbers());
+			Hibernate.initialize(loaded.getAddressBookContacts());
+			return loaded;
+		});
+		Assertions.assertNotNull(stale);
+
+		this.mockMvc.perform(MockMvcRequestBuilders.put("/contacts/{id}", contact.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\": \"First\", \"phoneNumbers\": [\"0400000000\"]}"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk());
+
+		stale.setName("Second");
+		Assertions.assertThrows(ObjectOptimisticLockingFailureException.class
+				, () -> this.contactService.save(stale));
+		Assertions.assertEquals("First", this.contactRepository.findById(contact.getId())
+				.orElseThrow()
+				.getName());
+	}
+
+	@Test
+	@DisplayName("Ensure the contacts of an unknown address book are not found")
+	public void testUnknownAddressBook() throws Exception {
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/addressbooks/{id}/contacts", Integer.MAX_VALUE))
+				.andExpect(MockMvcResultMatchers.status()
+						.isNotFound());
+	}
+
+	private String getContactsETag(final AddressBook withAddressBook) throws Exception {
+		final String eTag = this.mockMvc.perform(MockMvcRequestBuilders.get(
+						"/addressbooks/{id}/contacts", withAddressBook.getId()))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andReturn()
+				.getResponse()
+				.getHeader(HttpHeaders.ETAG);
+		Assertions.assertNotNull(eTag);
+		return eTag;
+	}
+}
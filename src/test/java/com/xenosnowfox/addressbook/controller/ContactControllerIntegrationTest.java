@@ -1,23 +1,49 @@
 package com.xenosnowfox.addressbook.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xenosnowfox.addressbook.InjectorUtil;
 import com.xenosnowfox.addressbook.entity.AddressBook;
 import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.exception.ContactNotFoundException;
+import com.xenosnowfox.addressbook.exception.InvalidRequestException;
 import com.xenosnowfox.addressbook.repository.AddressBookRepository;
 import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.response.CollectionResponse;
+import com.xenosnowfox.addressbook.response.ContactResponse;
+import com.xenosnowfox.addressbook.response.MultiGetResponse;
+import com.xenosnowfox.addressbook.util.IdentifierUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @SpringBootTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -33,6 +59,15 @@ public class ContactControllerIntegrationTest {
 	@Autowired
 	private ContactRepository contactRepository;
 
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
 	@Test
 	@Transactional(propagation = Propagation.REQUIRED)
 	@DisplayName("Ensure a contact can be completely removed")
@@ -48,4 +83,424 @@ public class ContactControllerIntegrationTest {
 		Assertions.assertFalse(this.contactRepository.findById(contact.getId())
 				.isPresent());
 	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure every contact is exported as newline delimited JSON")
+	void testExportContacts() throws IOException {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Map<Integer, Contact> expected = InjectorUtil.injectRandomNumberOfContacts(
+						this.contactRepository, addressBook)
+				.stream()
+				.collect(Collectors.toMap(Contact::getId, Function.identity()));
+
+		final ResponseEntity<StreamingResponseBody> response = this.contactController.exportContacts();
+		Assertions.assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders()
+				.getContentType());
+
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		response.getBody()
+				.writeTo(outputStream);
+		final String[] lines = outputStream.toString(StandardCharsets.UTF_8)
+				.split("\n");
+
+		Assertions.assertEquals(expected.size(), lines.length);
+		for (final String line : lines) {
+			final JsonNode node = this.objectMapper.readTree(line);
+			final Contact contact = expected.get(node.get("id")
+					.asInt());
+			Assertions.assertNotNull(contact);
+			Assertions.assertEquals(contact.getName(), node.get("name")
+					.asText());
+
+			final List<String> phoneNumbers = new ArrayList<>();
+			node.get("phoneNumbers")
+					.forEach(phoneNumber -> phoneNumbers.add(phoneNumber.asText()));
+			Assertions.assertEquals(new ArrayList<>(contact.getPhoneNumbers()), phoneNumbers);
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure every phone number of every contact is exported, across many pages")
+	void testExportManyContacts() throws IOException {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final List<Contact> contacts = new ArrayList<>();
+		for (int i = 0; i < 1234; i++) {
+			contacts.add(new Contact("Contact " + i, List.of(String.format("04%08d", i), String.format("02%08d", i)
+					, String.format("03%08d", i)), addressBook));
+		}
+		this.contactRepository.saveAll(contacts);
+
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		this.contactController.exportContacts()
+				.getBody()
+				.writeTo(outputStream);
+		final String[] lines = outputStream.toString(StandardCharsets.UTF_8)
+				.split("\n");
+
+		Assertions.assertEquals(contacts.size(), lines.length);
+		for (int i = 0; i < lines.length; i++) {
+			final JsonNode node = this.objectMapper.readTree(lines[i]);
+			Assertions.assertEquals(contacts.get(i)
+					.getId(), node.get("id")
+					.asInt());
+
+			final List<String> phoneNumbers = new ArrayList<>();
+			node.get("phoneNumbers")
+					.forEach(phoneNumber -> phoneNumbers.add(phoneNumber.asText()));
+			Assertions.assertEquals(List.of(String.format("04%08d", i), String.format("02%08d", i)
+					, String.format("03%08d", i)), phoneNumbers);
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure contacts can be searched by name prefix, ignoring case")
+	void testSearchContactsByNamePrefix() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact alice = this.contactRepository.save(new Contact("Alice Smith", List.of("0400000001"), addressBook));
+		final Contact alison = this.contactRepository.save(new Contact("alison Jones", List.of("0400000002"), addressBook));
+		this.contactRepository.save(new Contact("Bob Alison", List.of("0400000003"), addressBook));
+
+		final CollectionResponse<ContactResponse> response = this.contactController.searchContacts("ALI", null, null, 100);
+
+		Assertions.assertEquals(Set.of(alice.getId(), alison.getId()), response.getItems()
+				.stream()
+				.map(ContactResponse::getId)
+				.collect(Collectors.toSet()));
+		Assertions.assertNull(response.getNextCursor());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure contacts can be searched by phone number, ignoring formatting")
+	void testSearchContactsByPhoneNumber() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = this.contactRepository.save(
+				new Contact("Alice Smith", List.of("0412 345 678", "0298765432"), addressBook));
+		this.contactRepository.save(new Contact("Bob Jones", List.of("0412345679"), addressBook));
+
+		final CollectionResponse<ContactResponse> response = this.contactController.searchContacts(
+				null, "(04) 1234-5678", null, 100);
+
+		Assertions.assertEquals(1, response.getCount());
+		Assertions.assertEquals(contact.getId(), response.getItems()
+				.iterator()
+				.next()
+				.getId());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure a phone number search reflects a contact's updated phone numbers")
+	void testSearchContactsByUpdatedPhoneNumber() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = this.contactRepository.save(
+				new Contact("Alice Smith", List.of("0412345678"), addressBook));
+		this.entityManager.flush();
+		this.entityManager.clear();
+
+		this.contactController.updateContact(contact.getId(), null, new Contact("Alice Smith", List.of("0487654321")));
+
+		Assertions.assertEquals(0, this.contactController.searchContacts(null, "0412345678", null, 100)
+				.getCount());
+		Assertions.assertEquals(1, this.contactController.searchContacts(null, "0487654321", null, 100)
+				.getCount());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure updating a contact only writes the phone numbers that changed")
+	void testUpdateContactOnlyWritesChangedPhoneNumbers() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = this.contactRepository.save(
+				new Contact("Alice Smith", List.of("0400000001", "0400000002", "0400000003"), addressBook));
+		this.entityManager.flush();
+		this.entityManager.clear();
+
+		final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+
+		this.contactController.updateContact(contact.getId(), null
+				, new Contact("Alice Smith", List.of("0400000001", "0499999999")));
+		this.entityManager.flush();
+		this.entityManager.clear();
+
+		Assertions.assertEquals(0, statistics.getCollectionRecreateCount());
+		Assertions.assertEquals(List.of("0400000001", "0499999999"), List.copyOf(this.contactRepository.findById(
+						contact.getId())
+				.orElseThrow()
+				.getPhoneNumbers()));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure a contact's phone numbers can be reordered, but not listed more than once")
+	void testUpdateContactPhoneNumberOrder() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = this.contactRepository.save(
+				new Contact("Alice Smith", List.of("0400000001", "0400000002"), addressBook));
+		this.entityManager.flush();
+		this.entityManager.clear();
+
+		this.contactController.updateContact(contact.getId(), null
+				, new Contact("Alice Smith", List.of("0400000002", "0400000001")));
+		this.entityManager.flush();
+		this.entityManager.clear();
+
+		Assertions.assertEquals(List.of("0400000002", "0400000001"), List.copyOf(this.contactRepository.findById(
+						contact.getId())
+				.orElseThrow()
+				.getPhoneNumbers()));
+		Assertions.assertThrows(InvalidRequestException.class
+				, () -> new Contact("Alice Smith", List.of("0400 000 001", "+61400000001")));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure national and international forms of a phone number are treated as the same number")
+	void testSearchContactsByInternationalPhoneNumber() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = this.contactRepository.save(
+				new Contact("Alice Smith", List.of("0412 345 678"), addressBook));
+
+		final CollectionResponse<ContactResponse> response = this.contactController.searchContacts(
+				null, "+61 412 345 678", null, 100);
+
+		Assertions.assertEquals(List.of(contact.getId()), response.getItems()
+				.stream()
+				.map(ContactResponse::getId)
+				.collect(Collectors.toList()));
+		Assertions.assertEquals(List.of("0412 345 678"), response.getItems()
+				.iterator()
+				.next()
+				.getPhoneNumbers());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure the contacts sharing a phone number with a contact are returned as its duplicates")
+	void testGetContactDuplicates() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact alice = this.contactRepository.save(
+				new Contact("Alice Smith", List.of("0412345678", "0298765432"), addressBook));
+		final Contact bob = this.contactRepository.save(new Contact("Bob Jones", List.of("+61 2 9876 5432"), addressBook));
+		final Contact carol = this.contactRepository.save(
+				new Contact("Carol White", List.of("(04) 1234 5678", "0298765432"), addressBook));
+		this.contactRepository.save(new Contact("Dave Brown", List.of("0412345679"), addressBook));
+		this.entityManager.flush();
+
+		Assertions.assertEquals(List.of(bob.getId(), carol.getId()), this.contactController.getContactDuplicates(
+						alice.getId())
+				.getItems()
+				.stream()
+				.map(ContactResponse::getId)
+				.collect(Collectors.toList()));
+		Assertions.assertThrows(ContactNotFoundException.class
+				, () -> this.contactController.getContactDuplicates(Integer.MAX_VALUE));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure search results can be paged through using the returned cursor")
+	void testSearchContactsPagination() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Set<Integer> expected = new HashSet<>();
+		for (int i = 0; i < 5; i++) {
+			expected.add(this.contactRepository.save(new Contact("Alice " + i, List.of("0412345678"), addressBook))
+					.getId());
+		}
+
+		final Set<Integer> actual = new HashSet<>();
+		String cursor = null;
+		do {
+			final CollectionResponse<ContactResponse> response = this.contactController.searchContacts(
+					null, "0412345678", cursor, 2);
+			Assertions.assertTrue(response.getCount() <= 2);
+			response.getItems()
+					.forEach(item -> Assertions.assertTrue(actual.add(item.getId())));
+			cursor = response.getNextCursor();
+		} while (cursor != null);
+
+		Assertions.assertEquals(expected, actual);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure name search results are paged through in order of name and then identifier")
+	void testSearchContactsByNamePagination() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final List<Contact> contacts = new ArrayList<>();
+		for (String name : List.of("Alice Zed", "alice adams", "Alice: Adams", "Alice Adams", "Alice Zed", "Alice_Moe"
+				, "Alice%Moe", "Alicia Brown", "Bob Alice")) {
+			contacts.add(this.contactRepository.save(new Contact(name, List.of("0400000001"), addressBook)));
+		}
+		final List<Integer> expected = contacts.stream()
+				.filter(contact -> contact.getName()
+						.toLowerCase()
+						.startsWith("alice"))
+				.sorted(Comparator.comparing((Contact contact) -> contact.getName()
+								.toLowerCase())
+						.thenComparing(Contact::getId))
+				.map(Contact::getId)
+				.collect(Collectors.toList());
+
+		final List<Integer> actual = new ArrayList<>();
+		String cursor = null;
+		do {
+			final CollectionResponse<ContactResponse> response = this.contactController.searchContacts(
+					"ALICE", null, cursor, 2);
+			Assertions.assertTrue(response.getCount() <= 2);
+			response.getItems()
+					.forEach(item -> actual.add(item.getId()));
+			cursor = response.getNextCursor();
+		} while (cursor != null);
+
+		Assertions.assertEquals(expected, actual);
+		Assertions.assertEquals(List.of(contacts.get(5)
+				.getId()), this.contactController.searchContacts("alice_", null, null, 100)
+				.getItems()
+				.stream()
+				.map(ContactResponse::getId)
+				.collect(Collectors.toList()));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure a search requires exactly one of name or phone number")
+	void testSearchContactsRequiresExactlyOneCriterion() {
+		Assertions.assertThrows(
+				InvalidRequestException.class, () -> this.contactController.searchContacts(null, null, null, 100));
+		Assertions.assertThrows(
+				InvalidRequestException.class, () -> this.contactController.searchContacts("Alice", "0412345678", null, 100));
+		Assertions.assertThrows(
+				InvalidRequestException.class, () -> this.contactController.searchContacts(null, "not a number", null, 100));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure contacts duplicated across address books are only returned once")
+	void testGetUniqueContacts() {
+		final AddressBook work = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final AddressBook home = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final AddressBook other = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact alice = this.contactRepository.save(
+				new Contact("Alice Smith", List.of("0412 345 678", "0298765432"), work));
+		final Contact bob = this.contactRepository.save(new Contact("Bob Jones", List.of("0400000001"), work, home));
+		this.contactRepository.save(new Contact(" alice SMITH", List.of("(02) 9876 5432", "0412345678"), home));
+		final Contact namesake = this.contactRepository.save(
+				new Contact("Alice Smith", List.of("0499999999"), home));
+		this.contactRepository.save(new Contact("Carol White", List.of("0400000002"), other));
+
+		final List<Integer> actual = new ArrayList<>();
+		String cursor = null;
+		do {
+			final CollectionResponse<ContactResponse> response = this.contactController.getUniqueContacts(
+					List.of(work.getId(), home.getId()), cursor, 2);
+			Assertions.assertTrue(response.getCount() <= 2);
+			response.getItems()
+					.forEach(item -> actual.add(item.getId()));
+			cursor = response.getNextCursor();
+		} while (cursor != null);
+
+		// ordered by name, and then by phone numbers
+		Assertions.assertEquals(Set.of(alice.getId(), namesake.getId()), Set.copyOf(actual.subList(0, 2)));
+		Assertions.assertEquals(List.of(bob.getId()), actual.subList(2, actual.size()));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure unique contacts can only be requested for at least one address book")
+	void testGetUniqueContactsRequiresAddressBooks() {
+		Assertions.assertThrows(
+				InvalidRequestException.class, () -> this.contactController.getUniqueContacts(List.of(), null, 100));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure contacts can be retrieved by their identifiers with one query, reporting those missing")
+	void testGetContactsById() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final List<Contact> contacts = InjectorUtil.injectRandomContacts(this.contactRepository, 20, addressBook);
+		final int missing = contacts.get(contacts.size() - 1)
+				.getId() + 1;
+
+		// make sure nothing is served from the persistence context
+		this.entityManager.flush();
+		this.entityManager.clear();
+		final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+
+		final List<Integer> ids = new ArrayList<>();
+		ids.add(missing);
+		contacts.forEach(contact -> ids.add(contact.getId()));
+		ids.add(contacts.get(0)
+				.getId());
+		final MultiGetResponse<ContactResponse> response = this.contactController.getContactsById(ids);
+		final Map<Integer, List<String>> phoneNumbers = response.getItems()
+				.stream()
+				.collect(Collectors.toMap(ContactResponse::getId, contact -> new ArrayList<>(contact.getPhoneNumbers())));
+
+		Assertions.assertEquals(contacts.stream()
+				.collect(Collectors.toMap(Contact::getId, contact -> new ArrayList<>(contact.getPhoneNumbers())))
+				, phoneNumbers);
+		Assertions.assertEquals(List.of(missing), response.getMissing());
+		Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure missing identifiers are reported once each, in ascending order, however they were requested")
+	void testGetContactsByIdReportsDistinctMissing() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+		final int missing = contact.getId() + 1;
+
+		final MultiGetResponse<ContactResponse> response = this.contactController.getContactsById(List.of(
+				missing + 2, contact.getId(), missing, missing + 2, missing, contact.getId()));
+
+		Assertions.assertEquals(List.of(contact.getId()), response.getItems()
+				.stream()
+				.map(ContactResponse::getId)
+				.collect(Collectors.toList()));
+		Assertions.assertEquals(List.of(missing, missing + 2), List.copyOf(response.getMissing()));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure a long list of identifiers is retrieved in chunks")
+	void testGetContactsByIdInChunks() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+		this.entityManager.flush();
+		this.entityManager.clear();
+		final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+
+		final List<Integer> ids = IntStream.rangeClosed(contact.getId(), contact.getId() + IdentifierUtil.CHUNK_SIZE)
+				.boxed()
+				.collect(Collectors.toList());
+		final MultiGetResponse<ContactResponse> response = this.contactController.getContactsById(ids);
+
+		Assertions.assertEquals(1, response.getCount());
+		Assertions.assertEquals(IdentifierUtil.CHUNK_SIZE, response.getMissing()
+				.size());
+		Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure contacts can only be retrieved for between one and the maximum number of identifiers")
+	void testGetContactsByIdRequiresIdentifiers() {
+		Assertions.assertThrows(
+				InvalidRequestException.class, () -> this.contactController.getContactsById(List.of()));
+		Assertions.assertThrows(InvalidRequestException.class, () -> this.contactController.getContactsById(
+				IntStream.rangeClosed(1, IdentifierUtil.MAXIMUM_IDENTIFIERS + 1)
+						.boxed()
+						.collect(Collectors.toList())));
+	}
 }
@@ -0,0 +1,149 @@
+package com.xenosnowfox.addressbook.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.xenosnowfox.addressbook.InjectorUtil;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.serialization.BinaryFormatConfiguration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Response compression is applied by the embedded web server, so these tests run against a real server and
+ * deliberately without a surrounding transaction, which would otherwise hide the test data from its requests.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@ExtendWith(SpringExtension.class)
+public class ContentNegotiationIntegrationTest {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Test
+	@DisplayName("Ensure JSON is returned when no particular format is requested")
+	public void testJsonByDefault() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		InjectorUtil.injectRandomNumberOfContacts(this.contactRepository, addressBook);
+
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/addressbooks/{id}/contacts", addressBook.getId())
+						.accept(MediaType.ALL))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.content()
+						.contentType(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	@DisplayName("Ensure contacts can be retrieved encoded as Smile")
+	public void testSmile() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		InjectorUtil.injectRandomNumberOfContacts(this.contactRepository, addressBook);
+		final String path = "/addressbooks/" + addressBook.getId() + "/contacts";
+
+		final byte[] smile = this.get(path, BinaryFormatConfiguration.APPLICATION_SMILE_VALUE);
+
+		Assertions.assertEquals(this.getJson(path), new ObjectMapper(new SmileFactory()).readTree(smile));
+		Assertions.assertTrue(smile.length < this.get(path, MediaType.APPLICATION_JSON_VALUE).length);
+	}
+
+	@Test
+	@DisplayName("Ensure address books can be retrieved encoded as CBOR")
+	public void testCbor() throws Exception {
+		InjectorUtil.injectRandomNumberOfAddressBooks(this.addressBookRepository);
+
+		final byte[] cbor = this.get("/addressbooks", MediaType.APPLICATION_CBOR_VALUE);
+
+		Assertions.assertEquals(this.getJson("/addressbooks"), new ObjectMapper(new CBORFactory()).readTree(cbor));
+	}
+
+	@Test
+	@DisplayName("Ensure an address book can be created from a Smile encoded request")
+	public void testSmileRequest() throws Exception {
+		final byte[] body = new ObjectMapper(new SmileFactory()).writeValueAsBytes(new AddressBook("Smile"));
+
+		this.mockMvc.perform(MockMvcRequestBuilders.post("/addressbooks")
+						.contentType(BinaryFormatConfiguration.APPLICATION_SMILE_VALUE)
+						.accept(MediaType.APPLICATION_JSON)
+						.content(body))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.name")
+						.value("Smile"));
+	}
+
+	@Test
+	@DisplayName("Ensure responses are compressed for clients that accept gzip")
+	public void testGzip() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		InjectorUtil.injectRandomContacts(this.contactRepository, 100, addressBook);
+		final String path = "/addressbooks/" + addressBook.getId() + "/contacts";
+
+		final HttpResponse<InputStream> response = HttpClient.newHttpClient()
+				.send(HttpRequest.newBuilder(URI.create("http://localhost:" + this.port + path))
+						.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+						.GET()
+						.build(), HttpResponse.BodyHandlers.ofInputStream());
+
+		Assertions.assertEquals(200, response.statusCode());
+		Assertions.assertEquals("gzip", response.headers()
+				.firstValue(HttpHeaders.CONTENT_ENCODING)
+				.orElse(null));
+		try (final InputStream body = new GZIPInputStream(response.body())) {
+			Assertions.assertEquals(this.getJson(path), this.objectMapper.readTree(body));
+		}
+	}
+
+	private byte[] get(final String withPath, final String withMediaType) throws Exception {
+		return this.mockMvc.perform(MockMvcRequestBuilders.get(withPath)
+						.accept(withMediaType))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.content()
+						.contentType(withMediaType))
+				.andReturn()
+				.getResponse()
+				.getContentAsByteArray();
+	}
+
+	private JsonNode getJson(final String withPath) throws Exception {
+		return this.objectMapper.readTree(this.get(withPath, MediaType.APPLICATION_JSON_VALUE));
+	}
+}
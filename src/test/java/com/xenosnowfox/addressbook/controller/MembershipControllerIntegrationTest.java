@@ -0,0 +1,98 @@
+package com.xenosnowfox.addressbook.controller;
+
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+/**
+ * The membership index is only updated once a transaction commits, so these tests deliberately run without a
+ * surrounding transaction.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@ExtendWith(SpringExtension.class)
+public class MembershipControllerIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Test
+	@DisplayName("Ensure set queries and counts are answered over HTTP")
+	public void testSetQueries() throws Exception {
+		final AddressBook work = this.addressBookRepository.save(new AddressBook("Work"));
+		final AddressBook home = this.addressBookRepository.save(new AddressBook("Home"));
+		final Contact alice = this.contactRepository.save(new Contact("Alice Smith", List.of("0400000001"), work));
+		final Contact bob = this.contactRepository.save(new Contact("Bob Jones", List.of("0400000002"), work, home));
+
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/memberships/intersection")
+						.param("addressBookIds", work.getId() + "," + home.getId()))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.count")
+						.value(1))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.total")
+						.value(1))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[0]")
+						.value(bob.getId()));
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/memberships/difference")
+						.param("addressBookId", String.valueOf(work.getId()))
+						.param("excludedAddressBookIds", String.valueOf(home.getId())))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[0]")
+						.value(alice.getId()));
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/memberships/counts"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[0].addressBookId")
+						.value(work.getId()))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[0].contacts")
+						.value(2))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[1].contacts")
+						.value(1));
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/memberships/contacts/{id}", bob.getId()))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[1]")
+						.value(home.getId()));
+	}
+
+	@Test
+	@DisplayName("Ensure set queries over unknown address books, or no address books, are rejected")
+	public void testInvalidSetQueries() throws Exception {
+		final AddressBook work = this.addressBookRepository.save(new AddressBook("Work"));
+
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/memberships/union")
+						.param("addressBookIds", work.getId() + "," + Integer.MAX_VALUE))
+				.andExpect(MockMvcResultMatchers.status()
+						.isNotFound());
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/memberships/union")
+						.param("addressBookIds", ""))
+				.andExpect(MockMvcResultMatchers.status()
+						.isBadRequest());
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/memberships/contacts/{id}", Integer.MAX_VALUE))
+				.andExpect(MockMvcResultMatchers.status()
+						.isNotFound());
+	}
+}
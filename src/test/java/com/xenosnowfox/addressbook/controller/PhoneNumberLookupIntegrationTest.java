@@ -0,0 +1,85 @@
+package com.xenosnowfox.addressbook.controller;
+
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+/**
+ * The phone number index is only updated once a transaction commits, so these tests deliberately run without a
+ * surrounding transaction.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@ExtendWith(SpringExtension.class)
+public class PhoneNumberLookupIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	@DisplayName("Ensure the contacts holding a phone number are identified without querying the database")
+	public void testGetContactsByPhoneNumber() throws Exception {
+		final AddressBook addressBook = this.addressBookRepository.save(new AddressBook("Work"));
+		final Contact alice = this.contactRepository.save(
+				new Contact("Alice Smith", List.of("0412 345 678"), addressBook));
+		final Contact bob = this.contactRepository.save(new Contact("Bob Jones", List.of("0412345678"), addressBook));
+
+		final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/contacts/by-phone/{number}", "+61412345678"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.count")
+						.value(2))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[0]")
+						.value(alice.getId()))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[1]")
+						.value(bob.getId()));
+
+		Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	@DisplayName("Ensure unknown, and invalid, phone numbers are rejected")
+	public void testGetContactsByUnknownPhoneNumber() throws Exception {
+		final AddressBook addressBook = this.addressBookRepository.save(new AddressBook("Work"));
+		this.contactRepository.save(new Contact("Alice Smith", List.of("0412345678"), addressBook));
+
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/contacts/by-phone/{number}", "0412345679"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isNotFound());
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/contacts/by-phone/{number}", "not a number"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isBadRequest());
+	}
+}
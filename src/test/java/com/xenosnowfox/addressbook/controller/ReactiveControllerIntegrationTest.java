@@ -0,0 +1,204 @@
+package com.xenosnowfox.addressbook.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xenosnowfox.addressbook.InjectorUtil;
+import com.xenosnowfox.addressbook.concurrent.StreamingConfiguration;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.exception.AddressBookNotFoundException;
+import com.xenosnowfox.addressbook.exception.ContactNotFoundException;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.response.AddressBookResponse;
+import com.xenosnowfox.addressbook.response.ContactResponse;
+import com.xenosnowfox.addressbook.service.ReactiveReadService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The reactive endpoints read on other threads, so these tests deliberately run without a surrounding transaction.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@ExtendWith(SpringExtension.class)
+public class ReactiveControllerIntegrationTest {
+
+	@Autowired
+	private ReactiveAddressBookController reactiveAddressBookController;
+
+	@Autowired
+	private ReactiveContactController reactiveContactController;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	@Qualifier(StreamingConfiguration.STREAMING_TASK_EXECUTOR_BEAN_NAME)
+	private ThreadPoolTaskExecutor streamingTaskExecutor;
+
+	@Test
+	@DisplayName("Ensure every address book is streamed in identifier order")
+	void testStreamAllAddressBooks() {
+		final List<Integer> expected = InjectorUtil.injectRandomNumberOfAddressBooks(this.addressBookRepository)
+				.stream()
+				.map(AddressBook::getId)
+				.sorted()
+				.collect(Collectors.toList());
+
+		final List<Integer> actual = this.reactiveAddressBookController.streamAllAddressBooks()
+				.map(AddressBookResponse::getId)
+				.collectList()
+				.block();
+
+		Assertions.assertEquals(expected, actual);
+	}
+
+	@Test
+	@DisplayName("Ensure only the contacts of an address book are streamed, across several pages, with phone numbers")
+	void testStreamContactsFromAddressBook() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final AddressBook otherAddressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Map<Integer, Contact> expected = InjectorUtil.injectRandomContacts(
+						this.contactRepository, ReactiveReadService.PAGE_SIZE * 2 + 7, addressBook)
+				.stream()
+				.collect(Collectors.toMap(Contact::getId, Function.identity()));
+		InjectorUtil.injectRandomNumberOfContacts(this.contactRepository, otherAddressBook);
+
+		final List<ContactResponse> actual = this.reactiveAddressBookController.streamContactsFromAddressBook(
+						addressBook.getId())
+				.collectList()
+				.block();
+
+		Assertions.assertNotNull(actual);
+		Assertions.assertEquals(expected.size(), actual.size());
+		Assertions.assertEquals(expected.keySet()
+				.stream()
+				.sorted()
+				.collect(Collectors.toList()), actual.stream()
+				.map(ContactResponse::getId)
+				.collect(Collectors.toList()));
+		for (final ContactResponse contact : actual) {
+			Assertions.assertEquals(List.copyOf(expected.get(contact.getId())
+					.getPhoneNumbers()), List.copyOf(contact.getPhoneNumbers()));
+		}
+	}
+
+	@Test
+	@DisplayName("Ensure the contacts of an address book are streamed over HTTP as newline delimited JSON")
+	void testStreamContactsOverHttp() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final List<Integer> expected = InjectorUtil.injectRandomContacts(
+						this.contactRepository, ReactiveReadService.PAGE_SIZE + 7, addressBook)
+				.stream()
+				.map(Contact::getId)
+				.sorted()
+				.collect(Collectors.toList());
+		final long writes = this.streamingTaskExecutor.getThreadPoolExecutor()
+				.getCompletedTaskCount();
+
+		final MvcResult result = this.mockMvc.perform(MockMvcRequestBuilders.get(
+								"/reactive/addressbooks/{id}/contacts", addressBook.getId())
+						.accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(MockMvcResultMatchers.request()
+						.asyncStarted())
+				.andReturn();
+		this.mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.content()
+						.contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+
+		final List<Integer> actual = new ArrayList<>();
+		for (final String line : result.getResponse()
+				.getContentAsString()
+				.split("\n")) {
+			actual.add(this.objectMapper.readTree(line)
+					.get("id")
+					.asInt());
+		}
+		Assertions.assertEquals(expected, actual);
+		// the response is written on the dedicated streaming pool, rather than on the request thread
+		Assertions.assertTrue(this.streamingTaskExecutor.getThreadPoolExecutor()
+				.getCompletedTaskCount() > writes);
+	}
+
+	@Test
+	@DisplayName("Ensure contacts are only read from the database as they are consumed")
+	void testStreamContactsIsDemandDriven() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		InjectorUtil.injectRandomContacts(this.contactRepository, ReactiveReadService.PAGE_SIZE * 3, addressBook);
+
+		final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+
+		final ContactResponse first = this.reactiveAddressBookController.streamContactsFromAddressBook(addressBook.getId())
+				.take(1)
+				.blockFirst();
+
+		Assertions.assertNotNull(first);
+		// the existence check, then the identifiers and contacts of the first page only
+		Assertions.assertTrue(statistics.getPrepareStatementCount() <= 3
+				, "Statements prepared: " + statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	@DisplayName("Ensure streaming the contacts of an unknown address book fails before the response is started")
+	void testStreamContactsFromUnknownAddressBook() {
+		Assertions.assertThrows(AddressBookNotFoundException.class
+				, () -> this.reactiveAddressBookController.streamContactsFromAddressBook(Integer.MAX_VALUE));
+	}
+
+	@Test
+	@DisplayName("Ensure a single contact can be retrieved, with its phone numbers, or fails when unknown")
+	void testGetContact() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+
+		final ContactResponse actual = this.reactiveContactController.getContact(contact.getId())
+				.block();
+
+		Assertions.assertNotNull(actual);
+		Assertions.assertEquals(contact.getName(), actual.getName());
+		Assertions.assertEquals(List.copyOf(contact.getPhoneNumbers()), List.copyOf(actual.getPhoneNumbers()));
+		Assertions.assertThrows(ContactNotFoundException.class
+				, () -> this.reactiveContactController.getContact(Integer.MAX_VALUE)
+						.block());
+	}
+}
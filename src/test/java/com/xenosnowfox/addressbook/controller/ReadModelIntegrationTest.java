@@ -0,0 +1,166 @@
+package com.xenosnowfox.addressbook.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.xenosnowfox.addressbook.InjectorUtil;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * With open-in-view disabled, nothing may be lazily loaded once a service method has returned, so these tests
+ * deliberately run without a surrounding transaction, exactly as a request would.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@ExtendWith(SpringExtension.class)
+public class ReadModelIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	@DisplayName("Ensure contacts, and their phone numbers, are read without loading any entity")
+	public void testReadContactsWithoutEntities() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = this.contactRepository.save(
+				new Contact("Alice Smith", List.of("0400000001", "0400000002"), addressBook));
+
+		final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/addressbooks/{id}/contacts", addressBook.getId()))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[0].name")
+						.value("Alice Smith"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[0].phoneNumbers[1]")
+						.value("0400000002"));
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/contacts/{id}", contact.getId()))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.phoneNumbers[0]")
+						.value("0400000001"));
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/contacts/{id}/addressbooks", contact.getId()))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.items[0].name")
+						.value(addressBook.getName()));
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/addressbooks/{id}", addressBook.getId()))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.id")
+						.value(addressBook.getId()));
+
+		Assertions.assertEquals(0, statistics.getEntityLoadCount());
+		Assertions.assertEquals(0, statistics.getCollectionLoadCount());
+	}
+
+	@Test
+	@DisplayName("Ensure the export writes contact responses without loading any entity")
+	public void testExportContactsWithoutEntities() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final Contact contact = this.contactRepository.save(
+				new Contact("Alice Smith", List.of("0400000001", "0400000002"), addressBook));
+
+		final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+
+		final MvcResult result = this.mockMvc.perform(MockMvcRequestBuilders.get("/contacts/export"))
+				.andExpect(MockMvcResultMatchers.request()
+						.asyncStarted())
+				.andReturn();
+		final String content = this.mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andReturn()
+				.getResponse()
+				.getContentAsString();
+
+		// only the fields of the response are written, none of the entity's associations
+		final JsonNode node = this.objectMapper.readTree(content.strip());
+		Assertions.assertEquals(contact.getId(), node.get("id")
+				.asInt());
+		final Set<String> fields = new HashSet<>();
+		node.fieldNames()
+				.forEachRemaining(fields::add);
+		Assertions.assertEquals(Set.of("id", "name", "phoneNumbers"), fields);
+
+		Assertions.assertEquals(0, statistics.getEntityLoadCount());
+		Assertions.assertEquals(0, statistics.getCollectionLoadCount());
+	}
+
+	@Test
+	@DisplayName("Ensure contacts can be created and updated once the transaction that wrote them has ended")
+	public void testWriteContactsOutsideOfTransaction() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+
+		final String content = this.mockMvc.perform(MockMvcRequestBuilders.post(
+								"/addressbooks/{id}/contacts", addressBook.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Alice Smith\",\"phoneNumbers\":[\"0400000001\"]}"))
+				.andExpect(MockMvcResultMatchers.status()
+						.is2xxSuccessful())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.phoneNumbers[0]")
+						.value("0400000001"))
+				.andReturn()
+				.getResponse()
+				.getContentAsString();
+		final Integer id = JsonPath.read(content, "$.id");
+
+		this.mockMvc.perform(MockMvcRequestBuilders.put("/contacts/{id}", id)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Alice Jones\",\"phoneNumbers\":[\"0400000002\",\"0400000003\"]}"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.name")
+						.value("Alice Jones"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.phoneNumbers[1]")
+						.value("0400000003"));
+
+		this.mockMvc.perform(MockMvcRequestBuilders.delete(
+						"/addressbooks/{addressBookId}/contacts/{contactId}", addressBook.getId(), id))
+				.andExpect(MockMvcResultMatchers.status()
+						.is2xxSuccessful());
+		Assertions.assertTrue(this.contactRepository.findById(id)
+				.isEmpty());
+	}
+}
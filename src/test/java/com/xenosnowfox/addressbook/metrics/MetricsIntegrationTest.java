@@ -0,0 +1,67 @@
+package com.xenosnowfox.addressbook.metrics;
+
+import com.xenosnowfox.addressbook.InjectorUtil;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@ExtendWith(SpringExtension.class)
+public class MetricsIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Test
+	@DisplayName("Ensure request, service, repository, Hibernate and connection pool metrics can be scraped")
+	public void testPrometheusScrape() throws Exception {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		InjectorUtil.injectRandomNumberOfContacts(this.contactRepository, addressBook);
+
+		this.mockMvc.perform(MockMvcRequestBuilders.get("/addressbooks/{id}/contacts", addressBook.getId()))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk());
+
+		final String scrape = this.mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+				.andExpect(MockMvcResultMatchers.status()
+						.isOk())
+				.andReturn()
+				.getResponse()
+				.getContentAsString();
+
+		Assertions.assertTrue(scrape.contains(
+				"http_server_requests_seconds_bucket{exception=\"None\",method=\"GET\",outcome=\"SUCCESS\","
+						+ "status=\"200\",uri=\"/addressbooks/{id}/contacts\""), scrape);
+		Assertions.assertTrue(scrape.contains(
+				"addressbook_service_seconds_bucket{class=\"ContactService\",exception=\"none\","
+						+ "method=\"findAllByAddressBook\""), scrape);
+		Assertions.assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket{"), scrape);
+		Assertions.assertTrue(scrape.contains(
+				"hibernate_statements_per_request{uri=\"/addressbooks/{id}/contacts\",quantile=\"0.99\""), scrape);
+		Assertions.assertTrue(scrape.contains("hibernate_query_executions_total{"), scrape);
+		Assertions.assertTrue(scrape.contains("hibernate_second_level_cache_requests_total{"), scrape);
+		Assertions.assertTrue(scrape.contains("hikaricp_connections_active{"), scrape);
+	}
+}
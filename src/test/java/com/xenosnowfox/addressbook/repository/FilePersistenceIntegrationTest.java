@@ -0,0 +1,78 @@
+package com.xenosnowfox.addressbook.repository;
+
+import com.xenosnowfox.addressbook.Application;
+import com.xenosnowfox.addressbook.InjectorUtil;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Restarting the application is the behaviour under test, so each test starts and stops its own application contexts
+ * against a database file in a temporary directory rather than sharing one managed by the test framework.
+ */
+public class FilePersistenceIntegrationTest {
+
+	@TempDir
+	public Path directory;
+
+	@Test
+	@DisplayName("Ensure address books and contacts survive a restart of the application")
+	public void testRestart() {
+		final AddressBook addressBook;
+		final Contact contact;
+		try (final ConfigurableApplicationContext context = this.start()) {
+			addressBook = InjectorUtil.injectRandomAddressBook(context.getBean(AddressBookRepository.class));
+			contact = InjectorUtil.injectRandomContact(context.getBean(ContactRepository.class), addressBook);
+		}
+		Assertions.assertTrue(Files.exists(this.directory.resolve("addressbook.mv.db")));
+
+		try (final ConfigurableApplicationContext context = this.start()) {
+			Assertions.assertEquals(addressBook.getName(), context.getBean(AddressBookRepository.class)
+					.findById(addressBook.getId())
+					.orElseThrow()
+					.getName());
+			Assertions.assertEquals(List.of(contact.getId()), context.getBean(ContactRepository.class)
+					.findIdsByAddressBookIdAndIdGreaterThan(addressBook.getId(), 0, Pageable.unpaged()));
+		}
+	}
+
+	@Test
+	@DisplayName("Ensure identifiers keep increasing after a restart of the application")
+	public void testSequencesAfterRestart() {
+		final Contact contact;
+		try (final ConfigurableApplicationContext context = this.start()) {
+			final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(
+					context.getBean(AddressBookRepository.class));
+			contact = InjectorUtil.injectRandomContact(context.getBean(ContactRepository.class), addressBook);
+		}
+
+		try (final ConfigurableApplicationContext context = this.start()) {
+			final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(
+					context.getBean(AddressBookRepository.class));
+			final Contact other = InjectorUtil.injectRandomContact(context.getBean(ContactRepository.class)
+					, addressBook);
+			Assertions.assertTrue(other.getId() > contact.getId());
+			Assertions.assertEquals(2, context.getBean(ContactRepository.class)
+					.count());
+		}
+	}
+
+	private ConfigurableApplicationContext start() {
+		return new SpringApplicationBuilder(Application.class)
+				.web(WebApplicationType.NONE)
+				.profiles("file")
+				.properties("addressbook.h2.directory=" + this.directory, "springdoc.api-docs.enabled=false")
+				.run();
+	}
+}
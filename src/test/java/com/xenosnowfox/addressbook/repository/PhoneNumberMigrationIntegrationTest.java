@@ -0,0 +1,84 @@
+package com.xenosnowfox.addressbook.repository;
+
+import com.xenosnowfox.addressbook.entity.Contact;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The data written before phone numbers were normalized can no longer be written through the application, so each test
+ * migrates its own database part way, writes that data directly, and then completes the migration.
+ */
+public class PhoneNumberMigrationIntegrationTest {
+
+	@Test
+	@DisplayName("Ensure existing phone numbers are normalized, keeping their order and how they were entered")
+	public void testNormalizePhoneNumbers() {
+		final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:phone-number-migration;DB_CLOSE_DELAY=-1", "sa", "");
+		final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		Flyway.configure()
+				.dataSource(dataSource)
+				.target("2")
+				.load()
+				.migrate();
+
+		jdbcTemplate.update("insert into contact (id, name, search_name, version) values (1, 'Alice', 'alice', 0)");
+		final List<String> phoneNumbers = List.of(
+				" 0412 345 678", "+44 20 7946 0958", "(04) 1234-5678", "0", "1234567890123456", "02 9876 5432");
+		for (int i = 0; i < phoneNumbers.size(); i++) {
+			jdbcTemplate.update("insert into contact_phone_numbers (contact_id, phone_number_position, phone_numbers) "
+					+ "values (1, ?, ?)", i, phoneNumbers.get(i));
+		}
+
+		Flyway.configure()
+				.dataSource(dataSource)
+				.load()
+				.migrate();
+
+		final List<Map<String, Object>> rows = jdbcTemplate.queryForList("select phone_number_position, phone_number, "
+				+ "display from contact_phone_number where contact_id = 1 order by phone_number_position");
+		Assertions.assertEquals(List.of(
+				Map.of("PHONE_NUMBER_POSITION", 0, "PHONE_NUMBER", 61412345678L, "DISPLAY", "0412 345 678")
+				, Map.of("PHONE_NUMBER_POSITION", 1, "PHONE_NUMBER", 442079460958L, "DISPLAY", "+44 20 7946 0958")
+				, Map.of("PHONE_NUMBER_POSITION", 2, "PHONE_NUMBER", 61298765432L, "DISPLAY", "02 9876 5432")
+		), rows);
+	}
+
+	@Test
+	@DisplayName("Ensure existing contacts are given the same duplicate key as the application gives them")
+	public void testDuplicateKeys() {
+		final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:duplicate-key-migration;DB_CLOSE_DELAY=-1", "sa", "");
+		final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		Flyway.configure()
+				.dataSource(dataSource)
+				.target("3")
+				.load()
+				.migrate();
+
+		jdbcTemplate.update("insert into contact (id, name, search_name, version) values (1, 'Alice', 'alice ', 0)");
+		jdbcTemplate.update("insert into contact (id, name, search_name, version) values (2, 'Bob', 'bob', 0)");
+		jdbcTemplate.update("insert into contact_phone_number (contact_id, phone_number_position, phone_number, display) "
+				+ "values (1, 0, 61412345678, '0412 345 678'), (1, 1, 442079460958, '+44 20 7946 0958')");
+
+		Flyway.configure()
+				.dataSource(dataSource)
+				.load()
+				.migrate();
+
+		final List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+				"select id, duplicate_key from contact order by id");
+		Assertions.assertEquals(List.of(
+				Map.of("ID", 1, "DUPLICATE_KEY", new Contact(" Alice ", List.of("+44 20 7946 0958", "0412345678"))
+						.getDuplicateKey())
+				, Map.of("ID", 2, "DUPLICATE_KEY", new Contact("Bob", List.of()).getDuplicateKey())
+		), rows);
+	}
+}
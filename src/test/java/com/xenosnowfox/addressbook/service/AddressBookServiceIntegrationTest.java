@@ -0,0 +1,100 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.xenosnowfox.addressbook.InjectorUtil;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.response.ContactResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class AddressBookServiceIntegrationTest {
+
+	@Autowired
+	private AddressBookService addressBookService;
+
+	@Autowired
+	private ContactService contactService;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	@DisplayName("Ensure deleting a large address book removes only its orphaned contacts, using set-based statements.")
+	public void testDeleteLargeAddressBookRemovesOrphanedContacts() {
+		final AddressBook target = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		final AddressBook other = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+
+		final List<Contact> exclusive = InjectorUtil.injectRandomContacts(this.contactRepository, 10000, target);
+		final List<Contact> shared = InjectorUtil.injectRandomContacts(this.contactRepository, 100, target, other);
+		final List<Contact> untouched = InjectorUtil.injectRandomContacts(this.contactRepository, 50, other);
+
+		final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+
+		this.addressBookService.delete(target);
+
+		// a handful of statements, regardless of the number of contacts
+		Assertions.assertTrue(statistics.getPrepareStatementCount() <= 5);
+
+		// the address book and its orphaned contacts have gone
+		Assertions.assertTrue(this.addressBookRepository.findById(target.getId())
+				.isEmpty());
+		Assertions.assertEquals(shared.size() + untouched.size(), this.contactRepository.count());
+		Assertions.assertTrue(this.contactRepository.findById(exclusive.get(0)
+						.getId())
+				.isEmpty());
+
+		// shared contacts remain, now only linked to the other address book
+		final Set<Integer> expected = shared.stream()
+				.map(Contact::getId)
+				.collect(Collectors.toSet());
+		untouched.forEach(contact -> expected.add(contact.getId()));
+		final List<ContactResponse> remaining = this.contactService.findAllByAddressBook(other.getId());
+		Assertions.assertEquals(expected, remaining.stream()
+				.map(ContactResponse::getId)
+				.collect(Collectors.toSet()));
+		Assertions.assertTrue(this.contactService.findAllByAddressBook(target.getId())
+				.isEmpty());
+
+		// phone numbers of the deleted contacts have been removed
+		final long expectedPhoneNumbers = remaining.stream()
+				.mapToLong(contact -> contact.getPhoneNumbers()
+						.size())
+				.sum();
+		final EntityManager entityManager = this.entityManagerFactory.createEntityManager();
+		try {
+			final Number actualPhoneNumbers = (Number) entityManager.createNativeQuery(
+							"select count(*) from contact_phone_number")
+					.getSingleResult();
+			Assertions.assertEquals(expectedPhoneNumbers, actualPhoneNumbers.longValue());
+		} finally {
+			entityManager.close();
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.xenosnowfox.addressbook.InjectorUtil;
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entries are only queued as each transaction commits, so these tests deliberately run without a surrounding
+ * transaction. The flush interval is long enough that nothing is written unless a test flushes, stops the writer or
+ * fills the queue; or retried, once a write has failed, unless a test flushes or stops the writer.
+ */
+@SpringBootTest(properties = {
+		"addressbook.change-log.capacity=4"
+		, "addressbook.change-log.batch-size=100"
+		, "addressbook.change-log.flush-interval=1h"
+		, "addressbook.change-log.backpressure-timeout=1s"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@ExtendWith(SpringExtension.class)
+public class ChangeLogWriterIntegrationTest {
+
+	@Autowired
+	private ChangeLogWriter changeLogWriter;
+
+	@Autowired
+	private AddressBookService addressBookService;
+
+	@Autowired
+	private ContactService contactService;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	@DisplayName("Ensure every committed change is appended to the change log in order")
+	public void testChanges() {
+		final AddressBook addressBook = this.addressBookService.save(new AddressBook("Original"));
+		final Contact contact = this.contactService.save(new Contact("Name", List.of("0400000000"), addressBook));
+		contact.setName("Renamed");
+		this.contactService.save(contact);
+		this.addressBookService.delete(addressBook);
+
+		Assertions.assertTrue(this.changeLogWriter.flush());
+
+		final List<Map<String, Object>> entries = this.jdbcTemplate.queryForList(
+				"select entity_type, change_type, address_book_id, contact_id, name, phone_numbers"
+						+ " from change_event order by id");
+		Assertions.assertEquals(List.of(
+				entry("ADDRESS_BOOK", "CREATED", addressBook.getId(), null, "Original", null)
+				, entry("CONTACT", "CREATED", null, contact.getId(), "Name", "[\"0400000000\"]")
+				, entry("MEMBERSHIP", "CREATED", addressBook.getId(), contact.getId(), null, null)
+				, entry("CONTACT", "UPDATED", null, contact.getId(), "Renamed", "[\"0400000000\"]")
+				, entry("CONTACT", "DELETED", null, contact.getId(), null, null)
+				, entry("ADDRESS_BOOK", "DELETED", addressBook.getId(), null, null, null)
+		), entries);
+	}
+
+	@Test
+	@DisplayName("Ensure changes that are rolled back are not appended to the change log")
+	public void testRollback() {
+		this.transactionTemplate.executeWithoutResult(status -> {
+			InjectorUtil.injectRandomContact(this.contactRepository
+					, InjectorUtil.injectRandomAddressBook(this.addressBookRepository));
+			status.setRollbackOnly();
+		});
+
+		Assertions.assertTrue(this.changeLogWriter.flush());
+		Assertions.assertEquals(0, this.count());
+	}
+
+	@Test
+	@DisplayName("Ensure committing threads wait for a full queue to be written rather than dropping changes")
+	public void testBackpressure() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		InjectorUtil.injectRandomContacts(this.contactRepository, 10, addressBook);
+
+		Assertions.assertTrue(this.count() > 0);
+		Assertions.assertTrue(this.changeLogWriter.flush());
+		Assertions.assertEquals(21, this.count());
+	}
+
+	@Test
+	@DisplayName("Ensure committing threads stop waiting for a full queue that cannot be written, dropping changes")
+	public void testBackpressureTimeout() {
+		this.jdbcTemplate.execute("alter table change_event rename to change_event_unavailable");
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		InjectorUtil.injectRandomContacts(this.contactRepository, 2, addressBook);
+		this.jdbcTemplate.execute("alter table change_event_unavailable rename to change_event");
+
+		Assertions.assertTrue(this.changeLogWriter.flush());
+		Assertions.assertEquals(4, this.count());
+		Assertions.assertEquals(1, this.meterRegistry.get("addressbook.change.log.dropped")
+				.counter()
+				.count());
+	}
+
+	@Test
+	@DisplayName("Ensure queued changes are written when the writer is stopped, and later changes synchronously")
+	public void testStop() {
+		final AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		Assertions.assertEquals(0, this.count());
+
+		this.changeLogWriter.stop();
+		Assertions.assertEquals(1, this.count());
+
+		InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+		Assertions.assertEquals(3, this.count());
+	}
+
+	private long count() {
+		return this.jdbcTemplate.queryForObject("select count(*) from change_event", Long.class);
+	}
+
+	private static Map<String, Object> entry(final String withEntityType, final String withChangeType
+			, final Integer withAddressBookId, final Integer withContactId, final String withName
+			, final String withPhoneNumbers) {
+		final Map<String, Object> entry = new HashMap<>();
+		entry.put("ENTITY_TYPE", withEntityType);
+		entry.put("CHANGE_TYPE", withChangeType);
+		entry.put("ADDRESS_BOOK_ID", withAddressBookId);
+		entry.put("CONTACT_ID", withContactId);
+		entry.put("NAME", withName);
+		entry.put("PHONE_NUMBERS", withPhoneNumbers);
+		return entry;
+	}
+}
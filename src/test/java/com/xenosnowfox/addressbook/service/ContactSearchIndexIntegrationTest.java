@@ -0,0 +1,188 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.response.ContactSuggestionResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The index is only updated once a transaction commits, so these tests deliberately run without a surrounding
+ * transaction.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ContactSearchIndexIntegrationTest {
+
+	@Autowired
+	private ContactSearchIndex contactSearchIndex;
+
+	@Autowired
+	private AddressBookService addressBookService;
+
+	@Autowired
+	private ContactService contactService;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	@DisplayName("Ensure contacts are suggested by the start of their name, any word of it, or a phone number.")
+	public void testSuggest() {
+		final AddressBook addressBook = this.addressBookRepository.save(new AddressBook("Work"));
+		final Contact alice = this.contactRepository.save(
+				new Contact("Alice Smith", List.of("0412 345 678"), addressBook));
+		final Contact bob = this.contactRepository.save(new Contact("Bob Smithers", List.of("0298765432"), addressBook));
+		this.contactRepository.save(new Contact("Carol Jones", List.of("0412000000"), addressBook));
+
+		Assertions.assertEquals(List.of(alice.getId()), this.suggest("ali", null, 10));
+		Assertions.assertEquals(List.of(alice.getId()), this.suggest("ALICE S", null, 10));
+		Assertions.assertEquals(List.of(alice.getId(), bob.getId()), this.suggest("smi", null, 10));
+		Assertions.assertEquals(List.of(alice.getId()), this.suggest("smi", null, 1));
+		Assertions.assertEquals(List.of(alice.getId()), this.suggest("(04) 1234", null, 10));
+		Assertions.assertEquals(List.of(), this.suggest("zed", null, 10));
+	}
+
+	@Test
+	@DisplayName("Ensure suggestions can be restricted to a single address book.")
+	public void testSuggestWithinAddressBook() {
+		final AddressBook work = this.addressBookRepository.save(new AddressBook("Work"));
+		final AddressBook home = this.addressBookRepository.save(new AddressBook("Home"));
+		final Contact alice = this.contactRepository.save(new Contact("Alice Smith", List.of("0412345678"), work));
+		final Contact alison = this.contactRepository.save(
+				new Contact("Alison Jones", List.of("0412345679"), work, home));
+
+		Assertions.assertEquals(List.of(alice.getId(), alison.getId()), this.suggest("ali", work.getId(), 10));
+		Assertions.assertEquals(List.of(alison.getId()), this.suggest("ali", home.getId(), 10));
+		Assertions.assertEquals(List.of(alison.getId()), this.suggest("0412", home.getId(), 10));
+	}
+
+	@Test
+	@DisplayName("Ensure the index follows contacts being renamed, removed from address books and deleted.")
+	public void testIndexFollowsChanges() {
+		final AddressBook work = this.addressBookRepository.save(new AddressBook("Work"));
+		final AddressBook home = this.addressBookRepository.save(new AddressBook("Home"));
+		final Contact alice = this.contactRepository.save(new Contact("Alice Smith", List.of("0412345678"), work));
+		final Contact bob = this.contactRepository.save(new Contact("Bob Jones", List.of("0298765432"), work, home));
+
+		// rename, and change the phone numbers of, a contact
+		this.transactionTemplate.executeWithoutResult(status -> {
+			final Contact contact = this.contactService.findById(alice.getId())
+					.orElseThrow();
+			contact.setName("Alicia Brown");
+			contact.replacePhoneNumbers(List.of("0499999999"));
+			this.contactService.save(contact);
+		});
+		Assertions.assertEquals(List.of(), this.suggest("alice", null, 10));
+		Assertions.assertEquals(List.of(alice.getId()), this.suggest("bro", null, 10));
+		Assertions.assertEquals(List.of(), this.suggest("0412", null, 10));
+		Assertions.assertEquals(List.of(alice.getId()), this.suggest("0499", null, 10));
+		Assertions.assertEquals(List.of(), this.suggest("alice", work.getId(), 10));
+		Assertions.assertEquals(List.of(alice.getId()), this.suggest("bro", work.getId(), 10));
+
+		// change only the phone numbers of a contact
+		this.transactionTemplate.executeWithoutResult(status -> {
+			final Contact contact = this.contactService.findById(bob.getId())
+					.orElseThrow();
+			contact.replacePhoneNumbers(List.of("0298765432", "0311111111"));
+			this.contactService.save(contact);
+		});
+		Assertions.assertEquals(List.of(bob.getId()), this.suggest("0311", null, 10));
+		Assertions.assertEquals(List.of(bob.getId()), this.suggest("0311", home.getId(), 10));
+
+		// remove a contact from one of its address books
+		this.transactionTemplate.executeWithoutResult(status -> this.addressBookService.removeContact(
+				this.addressBookService.findById(home.getId())
+						.orElseThrow(), bob.getId()));
+		Assertions.assertEquals(List.of(), this.suggest("bob", home.getId(), 10));
+		Assertions.assertEquals(List.of(bob.getId()), this.suggest("bob", work.getId(), 10));
+
+		// delete a contact
+		this.transactionTemplate.executeWithoutResult(status -> this.contactService.delete(
+				this.contactService.findById(alice.getId())
+						.orElseThrow()));
+		Assertions.assertEquals(List.of(), this.suggest("bro", null, 10));
+		Assertions.assertEquals(List.of(), this.suggest("bro", work.getId(), 10));
+	}
+
+	@Test
+	@DisplayName("Ensure deleting an address book drops only the contacts that belonged to no other address book.")
+	public void testDeleteAddressBook() {
+		final AddressBook work = this.addressBookRepository.save(new AddressBook("Work"));
+		final AddressBook home = this.addressBookRepository.save(new AddressBook("Home"));
+		this.contactRepository.save(new Contact("Alice Smith", List.of("0412345678"), work));
+		final Contact alison = this.contactRepository.save(
+				new Contact("Alison Jones", List.of("0412345679"), work, home));
+
+		this.addressBookService.delete(work);
+
+		Assertions.assertEquals(List.of(alison.getId()), this.suggest("ali", null, 10));
+		Assertions.assertEquals(List.of(), this.suggest("ali", work.getId(), 10));
+		Assertions.assertEquals(List.of(alison.getId()), this.suggest("ali", home.getId(), 10));
+		Assertions.assertEquals(List.of(), this.suggest("smith", null, 10));
+	}
+
+	@Test
+	@DisplayName("Ensure suggestions within a small address book are found amongst many more matching contacts.")
+	public void testSuggestWithinSmallAddressBook() {
+		final AddressBook work = this.addressBookRepository.save(new AddressBook("Work"));
+		final AddressBook home = this.addressBookRepository.save(new AddressBook("Home"));
+		final List<Contact> contacts = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			contacts.add(new Contact("Anna " + i, List.of(String.format("04%08d", i)), work));
+		}
+		this.contactRepository.saveAll(contacts);
+		final Contact annabel = this.contactRepository.save(new Contact("Annabel Lee", List.of("0299999999"), home));
+		final Contact anne = this.contactRepository.save(new Contact("Anne Shirley", List.of("0299999998"), work, home));
+
+		Assertions.assertEquals(List.of(annabel.getId(), anne.getId()), this.suggest("a", home.getId(), 10));
+		Assertions.assertEquals(10, this.suggest("a", work.getId(), 10)
+				.size());
+
+		this.contactSearchIndex.rebuild();
+		Assertions.assertEquals(List.of(annabel.getId(), anne.getId()), this.suggest("a", home.getId(), 10));
+	}
+
+	@Test
+	@DisplayName("Ensure the index can be rebuilt from the database.")
+	public void testRebuild() {
+		final AddressBook work = this.addressBookRepository.save(new AddressBook("Work"));
+		final AddressBook home = this.addressBookRepository.save(new AddressBook("Home"));
+		final Contact alice = this.contactRepository.save(new Contact("Alice Smith", List.of("0412345678"), work));
+		final Contact alison = this.contactRepository.save(
+				new Contact("Alison Jones", List.of("0412345679"), work, home));
+
+		this.contactSearchIndex.rebuild();
+
+		Assertions.assertEquals(List.of(alice.getId(), alison.getId()), this.suggest("ali", null, 10));
+		Assertions.assertEquals(List.of(alison.getId()), this.suggest("ali", home.getId(), 10));
+		Assertions.assertEquals(List.of(alice.getId()), this.suggest("0412345678", null, 10));
+	}
+
+	private List<Integer> suggest(final String withQuery, final Integer withAddressBookId, final int withLimit) {
+		return this.contactSearchIndex.suggest(withQuery, withAddressBookId, withLimit)
+				.stream()
+				.map(ContactSuggestionResponse::getId)
+				.collect(Collectors.toList());
+	}
+}
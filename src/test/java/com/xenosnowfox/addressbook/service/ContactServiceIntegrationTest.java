@@ -5,6 +5,8 @@ import com.xenosnowfox.addressbook.entity.AddressBook;
 import com.xenosnowfox.addressbook.entity.Contact;
 import com.xenosnowfox.addressbook.repository.AddressBookRepository;
 import com.xenosnowfox.addressbook.repository.ContactRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
@@ -17,6 +19,9 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Optional;
@@ -35,6 +40,12 @@ public class   ContactServiceIntegrationTest {
 	@Autowired
 	private ContactRepository contactRepository;
 
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
 	@Test
 	@Transactional(propagation= Propagation.REQUIRED)
 	@DisplayName("Ensure that a new contact can be successfully created.")
@@ -98,4 +109,46 @@ public class   ContactServiceIntegrationTest {
 		Assertions.assertTrue(actualContact.isPresent());
 		Assertions.assertEquals(expectedName, actualContact.get().getName());
 	}
+
+	@Test
+	@DisplayName("Ensure repeated lookups of a Contact are served from the second-level cache.")
+	public void testFindByIdIsServedFromSecondLevelCache() {
+		AddressBook addressBook = InjectorUtil.injectRandomAddressBook(this.addressBookRepository);
+		Contact contact = InjectorUtil.injectRandomContact(this.contactRepository, addressBook);
+
+		// the first lookup is allowed to go to the database in order to populate the cache
+		Assertions.assertTrue(this.contactService.findById(contact.getId())
+				.isPresent());
+
+		final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+
+		for (int i = 0; i < 2; i++) {
+			Optional<Contact> actual = this.contactService.findById(contact.getId());
+			Assertions.assertTrue(actual.isPresent());
+			Assertions.assertEquals(contact.getName(), actual.get().getName());
+		}
+
+		Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+		Assertions.assertEquals(2, statistics.getDomainDataRegionStatistics("contact")
+				.getHitCount());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.REQUIRED)
+	@DisplayName("Ensure that contact searches are served by an index rather than a table scan.")
+	public void testSearchQueriesUseIndexes() {
+		final String namePlan = (String) this.entityManager.createNativeQuery(
+						"explain select id from contact where search_name like 'ali%' order by id")
+				.getSingleResult();
+		Assertions.assertTrue(namePlan.toUpperCase()
+				.contains("CONTACT_SEARCH_NAME_IDX"), namePlan);
+
+		final String phoneNumberPlan = (String) this.entityManager.createNativeQuery(
+						"explain select contact_id from contact_phone_number where phone_number = 61412345678")
+				.getSingleResult();
+		Assertions.assertTrue(phoneNumberPlan.toUpperCase()
+				.contains("CONTACT_PHONE_NUMBER_IDX"), phoneNumberPlan);
+	}
 }
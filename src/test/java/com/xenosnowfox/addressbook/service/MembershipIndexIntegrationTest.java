@@ -0,0 +1,164 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.exception.AddressBookNotFoundException;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.response.CollectionResponse;
+import com.xenosnowfox.addressbook.response.MembershipCountResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The index is only updated once a transaction commits, so these tests deliberately run without a surrounding
+ * transaction.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class MembershipIndexIntegrationTest {
+
+	@Autowired
+	private MembershipIndex membershipIndex;
+
+	@Autowired
+	private AddressBookService addressBookService;
+
+	@Autowired
+	private ContactService contactService;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	@DisplayName("Ensure the intersection, union and difference of address books are returned.")
+	public void testSetQueries() {
+		final AddressBook work = this.addressBookRepository.save(new AddressBook("Work"));
+		final AddressBook home = this.addressBookRepository.save(new AddressBook("Home"));
+		final AddressBook club = this.addressBookRepository.save(new AddressBook("Club"));
+		final Contact alice = this.contactRepository.save(new Contact("Alice Smith", List.of("0400000001"), work));
+		final Contact bob = this.contactRepository.save(new Contact("Bob Jones", List.of("0400000002"), work, home));
+		final Contact carol = this.contactRepository.save(
+				new Contact("Carol White", List.of("0400000003"), work, home, club));
+		final Contact dave = this.contactRepository.save(new Contact("Dave Brown", List.of("0400000004"), club));
+
+		Assertions.assertEquals(List.of(bob.getId(), carol.getId()), this.membershipIndex.intersection(
+						List.of(work.getId(), home.getId()), null, 100)
+				.getItems());
+		Assertions.assertEquals(List.of(carol.getId()), this.membershipIndex.intersection(
+						List.of(work.getId(), home.getId(), club.getId()), null, 100)
+				.getItems());
+		Assertions.assertEquals(List.of(alice.getId(), bob.getId(), carol.getId(), dave.getId())
+				, this.membershipIndex.union(List.of(work.getId(), club.getId()), null, 100)
+						.getItems());
+		Assertions.assertEquals(List.of(alice.getId()), this.membershipIndex.difference(
+						work.getId(), List.of(home.getId()), null, 100)
+				.getItems());
+		Assertions.assertEquals(List.of(bob.getId()), this.membershipIndex.difference(
+						home.getId(), List.of(club.getId()), null, 100)
+				.getItems());
+		Assertions.assertEquals(List.of(work.getId(), home.getId())
+				, this.membershipIndex.findAddressBookIds(bob.getId()));
+		Assertions.assertEquals(List.of(work.getId(), home.getId(), club.getId())
+				, this.membershipIndex.findAddressBookIds(carol.getId()));
+		Assertions.assertThrows(AddressBookNotFoundException.class
+				, () -> this.membershipIndex.union(List.of(work.getId(), Integer.MAX_VALUE), null, 100));
+	}
+
+	@Test
+	@DisplayName("Ensure a set query can be paged through using the returned cursor.")
+	public void testSetQueryPagination() {
+		final AddressBook work = this.addressBookRepository.save(new AddressBook("Work"));
+		final List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			expected.add(this.contactRepository.save(new Contact("Alice " + i, List.of("0400000001"), work))
+					.getId());
+		}
+
+		final List<Integer> actual = new ArrayList<>();
+		String cursor = null;
+		do {
+			final CollectionResponse<Integer> response = this.membershipIndex.union(
+					List.of(work.getId()), cursor, 2);
+			Assertions.assertTrue(response.getCount() <= 2);
+			Assertions.assertEquals(5L, response.getTotal());
+			actual.addAll(response.getItems());
+			cursor = response.getNextCursor();
+		} while (cursor != null);
+
+		Assertions.assertEquals(expected, actual);
+	}
+
+	@Test
+	@DisplayName("Ensure the index follows contacts being added, removed and deleted, and address books being deleted.")
+	public void testIndexFollowsChanges() {
+		final AddressBook work = this.addressBookRepository.save(new AddressBook("Work"));
+		final AddressBook home = this.addressBookRepository.save(new AddressBook("Home"));
+		final Contact alice = this.contactRepository.save(new Contact("Alice Smith", List.of("0400000001"), work));
+		final Contact bob = this.contactRepository.save(new Contact("Bob Jones", List.of("0400000002"), work, home));
+		Assertions.assertEquals(Map.of(work.getId(), 2L, home.getId(), 1L), this.counts());
+
+		// remove a contact from one of its address books
+		this.transactionTemplate.executeWithoutResult(status -> this.addressBookService.removeContact(
+				this.addressBookService.findById(work.getId())
+						.orElseThrow(), bob.getId()));
+		Assertions.assertEquals(Map.of(work.getId(), 1L, home.getId(), 1L), this.counts());
+		Assertions.assertEquals(List.of(home.getId()), this.membershipIndex.findAddressBookIds(bob.getId()));
+
+		// delete a contact
+		this.transactionTemplate.executeWithoutResult(status -> this.contactService.delete(
+				this.contactService.findById(alice.getId())
+						.orElseThrow()));
+		Assertions.assertEquals(Map.of(work.getId(), 0L, home.getId(), 1L), this.counts());
+		Assertions.assertEquals(List.of(), this.membershipIndex.findAddressBookIds(alice.getId()));
+
+		// delete an address book
+		this.addressBookService.delete(home);
+		Assertions.assertEquals(Map.of(work.getId(), 0L), this.counts());
+		Assertions.assertEquals(List.of(), this.membershipIndex.findAddressBookIds(bob.getId()));
+	}
+
+	@Test
+	@DisplayName("Ensure the index can be rebuilt from the database.")
+	public void testRebuild() {
+		final AddressBook work = this.addressBookRepository.save(new AddressBook("Work"));
+		final AddressBook home = this.addressBookRepository.save(new AddressBook("Home"));
+		final Contact alice = this.contactRepository.save(new Contact("Alice Smith", List.of("0400000001"), work));
+		final Contact bob = this.contactRepository.save(new Contact("Bob Jones", List.of("0400000002"), work, home));
+
+		this.membershipIndex.rebuild();
+
+		Assertions.assertEquals(Map.of(work.getId(), 2L, home.getId(), 1L), this.counts());
+		Assertions.assertEquals(List.of(alice.getId()), this.membershipIndex.difference(
+						work.getId(), List.of(home.getId()), null, 100)
+				.getItems());
+		Assertions.assertEquals(List.of(work.getId(), home.getId()), this.membershipIndex.findAddressBookIds(
+				bob.getId()));
+	}
+
+	private Map<Integer, Long> counts() {
+		return this.membershipIndex.countPage(null, 100)
+				.stream()
+				.collect(Collectors.toMap(MembershipCountResponse::getAddressBookId
+						, MembershipCountResponse::getContacts));
+	}
+}
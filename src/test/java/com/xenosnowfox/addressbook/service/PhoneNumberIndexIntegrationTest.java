@@ -0,0 +1,203 @@
+package com.xenosnowfox.addressbook.service;
+
+import com.xenosnowfox.addressbook.entity.AddressBook;
+import com.xenosnowfox.addressbook.entity.Contact;
+import com.xenosnowfox.addressbook.repository.AddressBookRepository;
+import com.xenosnowfox.addressbook.repository.ContactRepository;
+import com.xenosnowfox.addressbook.util.PhoneNumberUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The index is only updated once a transaction commits, so these tests deliberately run without a surrounding
+ * transaction.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class PhoneNumberIndexIntegrationTest {
+
+	@Autowired
+	private PhoneNumberIndex phoneNumberIndex;
+
+	@Autowired
+	private AddressBookService addressBookService;
+
+	@Autowired
+	private ContactService contactService;
+
+	@Autowired
+	private AddressBookRepository addressBookRepository;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	@DisplayName("Ensure the index follows contacts being created, updated and deleted.")
+	public void testIndexFollowsChanges() {
+		final AddressBook addressBook = this.addressBookRepository.save(new AddressBook("Work"));
+		final Contact alice = this.contactRepository.save(
+				new Contact("Alice Smith", List.of("0412 345 678", "02 9876 5432"), addressBook));
+		final Contact bob = this.contactRepository.save(new Contact("Bob Jones", List.of("+61 2 9876 5432"), addressBook));
+
+		Assertions.assertArrayEquals(new int[]{alice.getId()}, this.lookup("(04) 1234-5678"));
+		Assertions.assertArrayEquals(new int[]{alice.getId(), bob.getId()}, this.lookup("0298765432"));
+
+		// replace one of a contact's phone numbers
+		this.transactionTemplate.executeWithoutResult(status -> this.contactService.findById(alice.getId())
+				.orElseThrow()
+				.replacePhoneNumbers(List.of("0412 345 678", "0487654321")));
+		Assertions.assertArrayEquals(new int[]{bob.getId()}, this.lookup("0298765432"));
+		Assertions.assertArrayEquals(new int[]{alice.getId()}, this.lookup("0487654321"));
+
+		// renaming a contact leaves its phone numbers in place
+		this.transactionTemplate.executeWithoutResult(status -> this.contactService.findById(alice.getId())
+				.orElseThrow()
+				.setName("Alice Jones"));
+		Assertions.assertArrayEquals(new int[]{alice.getId()}, this.lookup("0412345678"));
+
+		// delete a contact
+		this.transactionTemplate.executeWithoutResult(status -> this.contactService.delete(
+				this.contactService.findById(alice.getId())
+						.orElseThrow()));
+		Assertions.assertEquals(0, this.lookup("0412345678").length);
+		Assertions.assertEquals(0, this.lookup("0487654321").length);
+		Assertions.assertArrayEquals(new int[]{bob.getId()}, this.lookup("0298765432"));
+	}
+
+	@Test
+	@DisplayName("Ensure deleting an address book drops only the contacts that belonged to no other address book.")
+	public void testIndexFollowsAddressBookDeletion() {
+		final AddressBook work = this.addressBookRepository.save(new AddressBook("Work"));
+		final AddressBook home = this.addressBookRepository.save(new AddressBook("Home"));
+		final Contact alice = this.contactRepository.save(new Contact("Alice Smith", List.of("0400000001"), work));
+		final Contact bob = this.contactRepository.save(new Contact("Bob Jones", List.of("0400000001"), work, home));
+
+		this.addressBookService.delete(work);
+
+		Assertions.assertTrue(this.contactRepository.findById(alice.getId())
+				.isEmpty());
+		Assertions.assertArrayEquals(new int[]{bob.getId()}, this.lookup("0400000001"));
+	}
+
+	@Test
+	@DisplayName("Ensure the index can be rebuilt from the database, however many phone numbers it holds.")
+	public void testRebuild() {
+		final AddressBook addressBook = this.addressBookRepository.save(new AddressBook("Work"));
+		final List<Contact> contacts = new ArrayList<>();
+		for (int i = 0; i < 1500; i++) {
+			contacts.add(new Contact("Contact " + i, List.of(String.format("04%08d", i), "0299999999"), addressBook));
+		}
+		this.contactRepository.saveAll(contacts);
+
+		this.phoneNumberIndex.rebuild();
+
+		for (int i = 0; i < contacts.size(); i++) {
+			Assertions.assertArrayEquals(new int[]{contacts.get(i)
+					.getId()}, this.lookup(String.format("04%08d", i)));
+		}
+		Assertions.assertEquals(contacts.size(), this.lookup("0299999999").length);
+
+		// remove every other contact, leaving the remaining phone numbers reachable
+		this.transactionTemplate.executeWithoutResult(status -> {
+			for (int i = 0; i < contacts.size(); i += 2) {
+				this.contactService.findById(contacts.get(i)
+								.getId())
+						.orElseThrow()
+						.replacePhoneNumbers(List.of());
+			}
+		});
+		for (int i = 0; i < contacts.size(); i++) {
+			Assertions.assertEquals(i % 2, this.lookup(String.format("04%08d", i)).length);
+		}
+		Assertions.assertEquals(contacts.size() / 2, this.lookup("0299999999").length);
+	}
+
+	@Test
+	@DisplayName("Ensure a phone number shared by many contacts is held once, and counted along with every contact.")
+	public void testSharedPhoneNumber() {
+		final AddressBook work = this.addressBookRepository.save(new AddressBook("Work"));
+		final AddressBook home = this.addressBookRepository.save(new AddressBook("Home"));
+		final List<Contact> contacts = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			contacts.add(new Contact("Contact " + i, List.of("0299999999"), work));
+		}
+		contacts.add(new Contact("Shared", List.of("0299999999"), work, home));
+		this.contactRepository.saveAll(contacts);
+
+		final int[] contactIds = this.lookup("0299999999");
+		Assertions.assertEquals(contacts.size(), contactIds.length);
+		for (int i = 1; i < contactIds.length; i++) {
+			Assertions.assertTrue(contactIds[i - 1] < contactIds[i]);
+		}
+		Assertions.assertEquals(1, this.gauge("addressbook.phone.index.numbers"));
+
+		// every contact's phone numbers are included, not only the hash table
+		final double bytes = this.gauge("addressbook.phone.index.bytes");
+		Assertions.assertTrue(bytes > contacts.size() * (Integer.BYTES + Long.BYTES));
+
+		// the contacts deleted along with the address book are dropped, leaving the one they shared a number with
+		this.addressBookService.delete(work);
+		Assertions.assertArrayEquals(new int[]{contacts.get(contacts.size() - 1)
+				.getId()}, this.lookup("0299999999"));
+		Assertions.assertEquals(1, this.gauge("addressbook.phone.index.numbers"));
+		Assertions.assertTrue(this.gauge("addressbook.phone.index.bytes") < bytes);
+	}
+
+	@Test
+	@DisplayName("Ensure the contacts of a phone number are handed over in ascending order, without copying them.")
+	public void testForEachContact() {
+		final AddressBook addressBook = this.addressBookRepository.save(new AddressBook("Work"));
+		final List<Contact> contacts = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			contacts.add(new Contact("Contact " + i, List.of("0299999999"), addressBook));
+		}
+		contacts.add(new Contact("Alone", List.of("0400000000"), addressBook));
+		this.contactRepository.saveAll(contacts);
+
+		final List<Integer> shared = new ArrayList<>();
+		Assertions.assertEquals(5, this.phoneNumberIndex.forEachContact(PhoneNumberUtil.normalize("02 9999 9999")
+				, shared::add));
+		Assertions.assertEquals(Arrays.stream(this.lookup("0299999999"))
+				.boxed()
+				.collect(Collectors.toList()), shared);
+
+		final List<Integer> alone = new ArrayList<>();
+		Assertions.assertEquals(1, this.phoneNumberIndex.forEachContact(PhoneNumberUtil.normalize("0400000000")
+				, alone::add));
+		Assertions.assertEquals(List.of(contacts.get(5)
+				.getId()), alone);
+
+		Assertions.assertEquals(0, this.phoneNumberIndex.forEachContact(PhoneNumberUtil.normalize("0411111111")
+				, contactId -> Assertions.fail("No contact holds the phone number")));
+	}
+
+	private double gauge(final String withName) {
+		return this.meterRegistry.get(withName)
+				.gauge()
+				.value();
+	}
+
+	private int[] lookup(final String withPhoneNumber) {
+		return this.phoneNumberIndex.findContactIds(PhoneNumberUtil.normalize(withPhoneNumber));
+	}
+}